@@ -16,6 +16,7 @@ import com.github.arachnidium.core.settings.WebDriverSettings;
 import com.github.arachnidium.core.settings.supported.ESupportedDrivers;
 import com.github.arachnidium.util.configuration.Configuration;
 import com.github.arachnidium.util.logging.Log;
+import com.github.arachnidium.util.logging.latency.Latencies;
 import com.github.arachnidium.util.proxy.EnhancedProxyFactory;
 import com.github.arachnidium.util.reflect.executable.ExecutableUtil;
 
@@ -28,6 +29,20 @@ public abstract class ApplicationFactory {
 	protected ESupportedDrivers supportedDriver; //desired WebDriver
 	protected final Object[] paramValues;
 	
+	static {
+		// classes of the model are prepared while the first driver is starting
+		ModelWarmUp.startIfRequired();
+	}
+	
+	/**
+	 * @return the interceptor of applications. Its class is the same 
+	 * each time, so the generated proxy class is reused
+	 */
+	static ApplicationInterceptor getInterceptor() {
+		return new ApplicationInterceptor() {
+		};
+	}
+	
 	
 	private static ESupportedDrivers extractSupportedDriver(Configuration configuration){
 		return configuration.getSection(WebDriverSettings.class).getSupoortedWebDriver();
@@ -159,10 +174,11 @@ public abstract class ApplicationFactory {
 						". The target class is " + appClass.getName()));
 			}
 			
+			Latencies.setApplication(h.driverEncapsulation.getWrappedDriver(),
+					appClass);
 			T result = EnhancedProxyFactory.getProxy(appClass,
 					c.getParameterTypes(),
-					new Object[] { h }, new ApplicationInterceptor() {
-					});
+					new Object[] { h }, getInterceptor());
 			DecompositionUtil.populateFieldsWhichAreDecomposable(result);
 			return result;
 		} catch (Exception e) {
@@ -46,6 +46,15 @@ import com.github.arachnidium.util.reflect.executable.ExecutableUtil;
 abstract class DecompositionUtil {
 	static final String GET_PART = "getPart";
 
+	/**
+	 * @return the interceptor of decomposable parts. Its class is the same 
+	 * each time, so the generated proxy class is reused
+	 */
+	static InteractiveInterceptor getInterceptor() {
+		return new InteractiveInterceptor() {
+		};
+	}
+
 	/**
 	 * Creation of any decomposable part of application
 	 */
@@ -60,8 +69,7 @@ abstract class DecompositionUtil {
 			
 			T decomposable = EnhancedProxyFactory.getProxy(partClass,
 					c.getParameterTypes(), paramValues,
-					new InteractiveInterceptor() {
-					});
+					getInterceptor());
 			return decomposable;
 		}
 		catch (Exception e){
@@ -2,16 +2,45 @@ package com.github.arachnidium.model.common;
 
 import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.Factory;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
 
+import com.github.arachnidium.core.LocatorCompiler;
+import com.github.arachnidium.core.interfaces.ICalculatesBy;
+import com.github.arachnidium.core.interfaces.ISwitchesToItself;
 import com.github.arachnidium.model.interfaces.IDecomposable;
+import com.github.arachnidium.util.proxy.EnhancedProxyFactory;
 
 class DefaultDecorator extends AppiumFieldDecorator {
+	private final static String APPIUM_PACKAGE = "io.appium";
+
 	private final IDecomposable decomposable;
+	// it is defined if fields should be prefetched
+	private ICalculatesBy byCalculator;
+	private JavascriptExecutor executor;
+	private ISwitchesToItself focus;
+	private final Map<Field, PrefetchedElementHandler> prefetched = new LinkedHashMap<Field, PrefetchedElementHandler>();
+	private volatile boolean isPrefetchNeeded;
 
 	public DefaultDecorator(SearchContext context, IDecomposable decomposable) {
 		super(context);
@@ -23,10 +52,115 @@ class DefaultDecorator extends AppiumFieldDecorator {
 		this.decomposable = decomposable;
 	}	
 	
+	/**
+	 * Turns on the prefetching of {@link WebElement} fields which are
+	 * located by CSS selectors and XPath expressions
+	 *
+	 * @param byCalculator returns locators of fields inside the handle
+	 * @param executor performs the script which finds all the fields
+	 * @param focus switches to the handle before the script is performed
+	 *
+	 * @see PrefetchFields
+	 */
+	void prefetchBy(ICalculatesBy byCalculator, JavascriptExecutor executor,
+			ISwitchesToItself focus) {
+		this.byCalculator = byCalculator;
+		this.executor = executor;
+		this.focus = focus;
+	}
+
+	private static boolean hasMobileAnnotations(Field field) {
+		for (Annotation annotation : field.getAnnotations()) {
+			if (annotation.annotationType().getName()
+					.startsWith(APPIUM_PACKAGE))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param field is the decorated field
+	 * @param lazy is the proxy which finds the element by itself
+	 * @return the proxy which uses the prefetched element when it is possible.
+	 *         The given proxy is returned if the field can't be prefetched
+	 */
+	Object toPrefetched(Field field, Object lazy) {
+		if (byCalculator == null || !WebElement.class.equals(field.getType())
+				|| hasMobileAnnotations(field))
+			return lazy;
+
+		By by;
+		try {
+			by = byCalculator.returnBy(new Annotations(field).buildBy());
+		} catch (RuntimeException e) { // the annotation is not valid
+			return lazy;
+		}
+		PrefetchedElementHandler handler = new PrefetchedElementHandler(
+				(WebElement) lazy, by, this::prefetch);
+		synchronized (this) {
+			prefetched.put(field, handler);
+			isPrefetchNeeded = true;
+		}
+		return newPrefetchedProxy(lazy.getClass(), handler);
+	}
+
+	/**
+	 * @return the proxy of the same class as the lazy proxy (e.g.
+	 *         {@link RemoteWebElement} or the mobile element). It also
+	 *         implements interfaces of the lazy proxy and {@link WrapsElement}
+	 */
+	private static Object newPrefetchedProxy(Class<?> lazyClass,
+			PrefetchedElementHandler handler) {
+		Class<?> superclass = Object.class;
+		if (Enhancer.isEnhanced(lazyClass))
+			superclass = lazyClass.getSuperclass();
+		Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+		for (Class<?> i : lazyClass.getInterfaces()) {
+			if (!Factory.class.equals(i))
+				interfaces.add(i);
+		}
+		interfaces.add(WrapsElement.class);
+		interfaces.add(Locatable.class);
+
+		Enhancer enhancer = new Enhancer();
+		enhancer.setInterfaces(interfaces.toArray(new Class<?>[] {}));
+		return EnhancedProxyFactory.getProxy(enhancer, superclass,
+				new Class<?>[] {}, new Object[] {}, handler);
+	}
+
+	/**
+	 * Finds all the prefetched fields by one script. It is done once. Fields
+	 * which are not found by the script find elements by themselves
+	 */
+	private void prefetch() {
+		if (!isPrefetchNeeded)
+			return;
+		synchronized (this) {
+			if (!isPrefetchNeeded)
+				return;
+			isPrefetchNeeded = false;
+			List<PrefetchedElementHandler> handlers = new ArrayList<PrefetchedElementHandler>(
+					prefetched.values());
+			List<By> bys = new ArrayList<By>();
+			handlers.forEach(handler -> bys.add(handler.getBy()));
+
+			focus.switchToMe();
+			List<List<WebElement>> found = LocatorCompiler.findAll(bys,
+					executor);
+			if (found == null)
+				return;
+			for (int i = 0; i < handlers.size(); i++) {
+				List<WebElement> elements = found.get(i);
+				if (elements != null && elements.size() > 0)
+					handlers.get(i).bind(elements.get(0));
+			}
+		}
+	}
+
 	public Object decorate(ClassLoader ignored, Field field) {
 		Object result = super.decorate(ignored, field);
 		if (result != null)
-			return result;
+			return toPrefetched(field, result);
 		
 		field.setAccessible(true);
 		try {
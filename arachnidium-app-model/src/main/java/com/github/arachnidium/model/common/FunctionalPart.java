@@ -8,7 +8,11 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
@@ -28,12 +32,12 @@ import com.github.arachnidium.core.Handle;
 import com.github.arachnidium.core.HowToGetPage;
 import com.github.arachnidium.core.HowToGetMobileScreen;
 import com.github.arachnidium.core.MobileScreen;
+import com.github.arachnidium.core.components.common.ElementState;
 import com.github.arachnidium.core.components.common.Ime;
 import com.github.arachnidium.core.components.common.ScriptExecutor;
 import com.github.arachnidium.core.components.common.TimeOut;
 import com.github.arachnidium.core.fluenthandle.IHowToGetHandle;
 import com.github.arachnidium.core.highlighting.IWebElementHighlighter;
-import com.github.arachnidium.core.highlighting.WebElementHighLighter;
 import com.github.arachnidium.core.interfaces.ISwitchesToItself;
 import com.github.arachnidium.core.interfaces.ITakesPictureOfItSelf;
 import com.github.arachnidium.model.abstractions.ModelObject;
@@ -134,6 +138,8 @@ public abstract class FunctionalPart<S extends Handle> extends ModelObject<S>
 	    ime = getComponent(Ime.class);
 	    defaultFieldDecorator = new DefaultDecorator(
 				handle.getSearchContext(), this, primaryTimeOut, primaryTimeUnit);
+		if (this.getClass().isAnnotationPresent(PrefetchFields.class))
+			defaultFieldDecorator.prefetchBy(handle, scriptExecutor, handle);
 	    load();
 	}
 
@@ -201,10 +207,7 @@ public abstract class FunctionalPart<S extends Handle> extends ModelObject<S>
 	}
 
 	private IWebElementHighlighter getHighlighter() {
-		WebElementHighLighter highLighter = new WebElementHighLighter();
-		highLighter.resetAccordingTo(getWebDriverEncapsulation()
-				.getWrappedConfiguration());
-		return highLighter;
+		return getWebDriverEncapsulation().getHighlighter();
 	}
 
 	/**
@@ -506,4 +509,77 @@ public abstract class FunctionalPart<S extends Handle> extends ModelObject<S>
 	public List<WebElement> findElements(By by){
 		return handle.findElements(by);
 	}
+
+	/**
+	 * Reads text, given attributes, visibility, location and size of the
+	 * given elements by one script
+	 *
+	 * @see ScriptExecutor#readStates(List, String...)
+	 */
+	public List<ElementState> readStates(List<? extends WebElement> elements,
+			String... attributes) {
+		switchToMe();
+		return scriptExecutor.readStates(elements, attributes);
+	}
+
+	/**
+	 * Reads states of elements which are found by the given {@link By}. It
+	 * costs one searching and one script
+	 *
+	 * @see ScriptExecutor#readStates(List, String...)
+	 */
+	public List<ElementState> readStates(By by, String... attributes) {
+		return readStates(findElements(by), attributes);
+	}
+
+	private Field getDeclaredField(String fieldName) {
+		Class<?> clazz = this.getClass();
+		while (clazz != null) {
+			try {
+				return clazz.getDeclaredField(fieldName);
+			} catch (NoSuchFieldException e) {
+				clazz = clazz.getSuperclass();
+			}
+		}
+		throw new RuntimeException(new NoSuchFieldException(fieldName
+				+ " is not declared by " + this.getClass().getName()));
+	}
+
+	/**
+	 * Reads states of elements which are assigned to the given fields (
+	 * {@link WebElement} or {@link List} of elements). Elements of all the
+	 * fields are read by one script
+	 *
+	 * @param fieldNames are names of fields which are declared by this class
+	 *            or its superclasses
+	 * @param attributes are names of DOM attributes which should be read
+	 * @return states of elements. Keys are names of fields
+	 * 
+	 * @see ScriptExecutor#readStatesOfGroups(Map, String...)
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, List<ElementState>> readStatesOfFields(
+			List<String> fieldNames, String... attributes) {
+		Map<String, List<WebElement>> groups = new LinkedHashMap<String, List<WebElement>>();
+		for (String fieldName : fieldNames) {
+			Object value;
+			try {
+				Field field = getDeclaredField(fieldName);
+				field.setAccessible(true);
+				value = field.get(this);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+			if (value instanceof WebElement)
+				groups.put(fieldName, Collections.singletonList((WebElement) value));
+			else if (value instanceof List)
+				groups.put(fieldName, (List<WebElement>) value);
+			else
+				throw new IllegalArgumentException(fieldName
+						+ " is neither a web element nor a list of elements");
+		}
+
+		switchToMe();
+		return scriptExecutor.readStatesOfGroups(groups, attributes);
+	}
 }
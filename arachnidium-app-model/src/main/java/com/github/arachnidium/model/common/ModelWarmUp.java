@@ -0,0 +1,246 @@
+package com.github.arachnidium.model.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import com.github.arachnidium.model.abstractions.ModelObject;
+import com.github.arachnidium.util.logging.Log;
+import com.github.arachnidium.util.proxy.EnhancedProxyFactory;
+
+/**
+ * Prepares {@link Application} and {@link FunctionalPart} subclasses of the
+ * given packages by the background thread. Classes are loaded, their proxy
+ * classes are generated, annotations of classes, fields and methods are read
+ * and locators of {@link FindBy}, {@link FindBys} and {@link FindAll} fields
+ * are built. So it is performed while the first driver is starting instead of the
+ * first <code>getPart(...)</code> invocation.<br/>
+ * <br/>
+ * It is turned off by default. It is started when the first application is
+ * launched if the comma separated list of packages is defined by the
+ * <code>-Darachnidium.warmUp.packages=...</code> property. Also it can be
+ * started by {@link #start(String...)}.
+ */
+public final class ModelWarmUp {
+
+	/**
+	 * The property which contains comma separated packages. Model classes of
+	 * these packages (and subpackages) are prepared.
+	 */
+	public final static String PACKAGES_PROPERTY = "arachnidium.warmUp.packages";
+
+	private final static AtomicBoolean isStarted = new AtomicBoolean();
+
+	private ModelWarmUp() {
+		super();
+	}
+
+	/**
+	 * Starts the warm-up if it is required by {@link #PACKAGES_PROPERTY}. It
+	 * is performed once.
+	 */
+	static void startIfRequired() {
+		String packages = System.getProperty(PACKAGES_PROPERTY);
+		if (packages == null || packages.trim().isEmpty()) {
+			return;
+		}
+		if (!isStarted.compareAndSet(false, true)) {
+			return;
+		}
+		start(packages.split(","));
+	}
+
+	/**
+	 * Starts the warm-up of model classes of the given packages (and
+	 * subpackages)
+	 *
+	 * @param packages the packages of model classes
+	 * @return the number of prepared classes
+	 */
+	public static Future<Integer> start(String... packages) {
+		List<String> packageNames = new ArrayList<String>();
+		for (String packageName : packages) {
+			if (!packageName.trim().isEmpty()) {
+				packageNames.add(packageName.trim());
+			}
+		}
+		if (packageNames.isEmpty()) {
+			return CompletableFuture.completedFuture(0);
+		}
+
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null) {
+			loader = ModelWarmUp.class.getClassLoader();
+		}
+		ClassLoader classLoader = loader;
+
+		ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "arachnidium-warm-up");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		try {
+			return executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					return warmUp(packageNames, classLoader);
+				}
+			});
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static int warmUp(List<String> packageNames, ClassLoader loader)
+			throws Exception {
+		long start = System.currentTimeMillis();
+		Set<String> classNames = new LinkedHashSet<String>();
+		for (String packageName : packageNames) {
+			collectClassNames(packageName, loader, classNames);
+		}
+		int count = 0;
+		for (String className : classNames) {
+			try {
+				if (warmUp(Class.forName(className, false, loader))) {
+					count++;
+				}
+			} catch (Throwable t) {
+				// the class will be prepared when it is needed
+				Log.debug("Warm-up of " + className + " is skipped", t);
+			}
+		}
+		Log.debug("Warm-up: " + count + " model classes are prepared in "
+				+ (System.currentTimeMillis() - start) + " ms");
+		return count;
+	}
+
+	/**
+	 * Finds classes of the package and its subpackages in directories and jar
+	 * files of the class path
+	 */
+	private static void collectClassNames(String packageName,
+			ClassLoader loader, Set<String> result) throws IOException {
+		String path = packageName.replace('.', '/');
+		Enumeration<URL> resources = loader.getResources(path);
+		while (resources.hasMoreElements()) {
+			URL url = resources.nextElement();
+			if ("file".equals(url.getProtocol())) {
+				try {
+					collectClassNames(new File(url.toURI()), packageName,
+							result);
+				} catch (URISyntaxException e) {
+					Log.debug("Can't read " + url, e);
+				}
+				continue;
+			}
+			if (!"jar".equals(url.getProtocol())) {
+				continue;
+			}
+			JarFile jar = ((JarURLConnection) url.openConnection())
+					.getJarFile();
+			Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.startsWith(path + "/") && name.endsWith(".class")) {
+					result.add(name.substring(0,
+							name.length() - ".class".length())
+							.replace('/', '.'));
+				}
+			}
+		}
+	}
+
+	private static void collectClassNames(File directory, String packageName,
+			Set<String> result) {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (file.isDirectory()) {
+				collectClassNames(file, packageName + "." + name, result);
+			} else if (name.endsWith(".class")) {
+				result.add(packageName + "."
+						+ name.substring(0, name.length() - ".class".length()));
+			}
+		}
+	}
+
+	private static boolean warmUp(Class<?> clazz) {
+		if (!ModelObject.class.isAssignableFrom(clazz)
+				|| Modifier.isAbstract(clazz.getModifiers())) {
+			return false;
+		}
+
+		if (Application.class.isAssignableFrom(clazz)) {
+			EnhancedProxyFactory.prepareProxyClass(clazz, ApplicationFactory
+					.getInterceptor().getClass());
+		} else if (FunctionalPart.class.isAssignableFrom(clazz)) {
+			EnhancedProxyFactory.prepareProxyClass(clazz, DecompositionUtil
+					.getInterceptor().getClass());
+		} else {
+			return false;
+		}
+
+		// annotations are parsed once and cached by the reflection
+		Class<?> current = clazz;
+		while (current != Object.class) {
+			current.getDeclaredAnnotations();
+			for (Field field : current.getDeclaredFields()) {
+				field.getDeclaredAnnotations();
+				field.getGenericType();
+				warmUpBy(field);
+			}
+			for (Method method : current.getDeclaredMethods()) {
+				method.getDeclaredAnnotations();
+			}
+			current.getDeclaredConstructors();
+			current = current.getSuperclass();
+		}
+		return true;
+	}
+
+	/**
+	 * Loads classes which build the locator of the field. Locators of
+	 * mobile annotations depend on the platform of the started driver, so
+	 * they are built by the decoration only
+	 */
+	private static void warmUpBy(Field field) {
+		if (!field.isAnnotationPresent(FindBy.class)
+				&& !field.isAnnotationPresent(FindBys.class)
+				&& !field.isAnnotationPresent(FindAll.class)) {
+			return;
+		}
+		try {
+			new Annotations(field).buildBy();
+		} catch (RuntimeException e) {
+			// the invalid annotation is reported by the decoration
+			Log.debug("Can't build the locator of " + field, e);
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.arachnidium.model.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+
+/**
+ * {@link FunctionalPart} subclasses can be marked by this annotation. Then
+ * {@link WebElement} fields which are located by CSS selectors and XPath
+ * expressions ({@link FindBy} and so on) are found together by one script
+ * when any of them is used first time. Each field is found again by its own
+ * locator when the prefetched element becomes stale.<br/>
+ * <br/>
+ * It is turned off by default.
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Inherited
+public @interface PrefetchFields {
+
+}
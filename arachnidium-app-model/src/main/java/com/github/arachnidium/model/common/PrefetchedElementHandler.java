@@ -0,0 +1,122 @@
+package com.github.arachnidium.model.common;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import net.sf.cglib.proxy.Factory;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsElement;
+
+/**
+ * Handles invocations of the {@link WebElement} field which can be found by
+ * the batch of {@link DefaultDecorator}. The prefetched element is used while
+ * it is not stale. The lazy proxy of the field is used otherwise.<br/>
+ * <br/>
+ * The proxy of the field has the same class as the lazy proxy. So it can be
+ * cast the same way. <code>equals</code> and <code>hashCode</code> are
+ * delegated to the element (they compare ids of elements).
+ * <code>toString</code> is performed by the handler. So the logging of the
+ * field doesn't find elements.
+ */
+class PrefetchedElementHandler implements MethodInterceptor {
+
+	private final WebElement lazy;
+	private final By by;
+	private final Runnable prefetch;
+	private volatile WebElement element;
+
+	/**
+	 * @param lazy is the proxy which finds the element by itself
+	 * @param by is the locator of the field
+	 * @param prefetch finds all the prefetched fields if it is not done yet
+	 */
+	PrefetchedElementHandler(WebElement lazy, By by, Runnable prefetch) {
+		this.lazy = lazy;
+		this.by = by;
+		this.prefetch = prefetch;
+	}
+
+	By getBy() {
+		return by;
+	}
+
+	void bind(WebElement element) {
+		this.element = element;
+	}
+
+	private static boolean isObjectMethod(Method method, String name,
+			Class<?>... parameterTypes) {
+		if (!method.getName().equals(name)
+				|| method.getParameterCount() != parameterTypes.length)
+			return false;
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (!parameterTypes[i].equals(method.getParameterTypes()[i]))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return the element which should perform the method
+	 */
+	private WebElement getTarget(Method method) {
+		prefetch.run();
+		WebElement target = element;
+		// the found element may be of another class (e.g. the method
+		// belongs to the mobile element)
+		if (target == null || !method.getDeclaringClass().isInstance(target))
+			return lazy;
+		return target;
+	}
+
+	/**
+	 * @return the element of the given prefetched field. Other objects are
+	 *         returned as they are
+	 */
+	private static Object unwrap(Object field, Method method) {
+		if (!(field instanceof Factory))
+			return field;
+		Object handler = ((Factory) field).getCallback(0);
+		if (!(handler instanceof PrefetchedElementHandler))
+			return field;
+		return ((PrefetchedElementHandler) handler).getTarget(method);
+	}
+
+	@Override
+	public Object intercept(Object proxy, Method method, Object[] args,
+			MethodProxy methodProxy) throws Throwable {
+		if (isObjectMethod(method, "toString"))
+			return "Prefetched proxy element for: " + by;
+		if (isObjectMethod(method, "equals", Object.class))
+			return proxy == args[0]
+					|| getTarget(method).equals(unwrap(args[0], method));
+		if (isObjectMethod(method, "hashCode"))
+			return getTarget(method).hashCode();
+		if (Object.class.equals(method.getDeclaringClass()))
+			return null; // e.g. finalize
+
+		WebElement target = getTarget(method);
+		if (WrapsElement.class.equals(method.getDeclaringClass()))
+			return target;
+
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			if (target == lazy
+					|| !(e.getCause() instanceof StaleElementReferenceException))
+				throw e.getCause();
+		}
+		// the element has been changed. It is found again by the given locator
+		element = null;
+		try {
+			return method.invoke(lazy, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -9,7 +9,6 @@ import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebDriver.Timeouts;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.WrapsElement;
 import org.openqa.selenium.remote.RemoteWebElement;
@@ -66,20 +65,18 @@ class RootElement implements WrapsElement {
 			}
 			
 			functionalPart.switchToMe();
-			Timeouts t = driver.manage().timeouts();
-			t.implicitlyWait(0, TimeUnit.SECONDS);
-			WebElement root = null;
-			try {
-				FluentWait<By> wait = new FluentWait<By>(by);
-				wait.withTimeout(timeValue, timeUnit);
-				wait.pollingEvery(POLLING_EVERY, TimeUnit.MILLISECONDS);
-				root = wait.until(getWaitForTheRootElementFunction());
-			} catch (TimeoutException e) {
-				throw new NoSuchElementException(
-						"Cann't locate the root element by " + by.toString(), e);
-			} finally {
-				t.implicitlyWait(timeValue, timeUnit);
-			}
+			WebElement root = functionalPart.getTimeOut().withoutImplicitlyWait(
+					() -> {
+				try {
+					FluentWait<By> wait = new FluentWait<By>(by);
+					wait.withTimeout(timeValue, timeUnit);
+					wait.pollingEvery(POLLING_EVERY, TimeUnit.MILLISECONDS);
+					return wait.until(getWaitForTheRootElementFunction());
+				} catch (TimeoutException e) {
+					throw new NoSuchElementException(
+							"Cann't locate the root element by " + by.toString(), e);
+				}
+			});
 
 			return method.invoke(root, args);
 		};
@@ -12,6 +12,7 @@ import org.openqa.selenium.support.pagefactory.ByAll;
 import org.openqa.selenium.support.pagefactory.ByChained;
 
 import com.github.arachnidium.core.ByNumbered;
+import com.github.arachnidium.core.LocatorCompiler;
 import com.github.arachnidium.core.settings.supported.ESupportedDrivers;
 
 public class CommonRootElementReader implements IRootElementReader {
@@ -103,7 +104,7 @@ public class CommonRootElementReader implements IRootElementReader {
 		}	
 		if (result.size() == 0)
 			return null;
-		return new ByAll(result.toArray(new By[]{}));
+		return LocatorCompiler.compile(new ByAll(result.toArray(new By[]{})));
 	}
 
 }
@@ -13,6 +13,7 @@ import org.openqa.selenium.support.pagefactory.ByAll;
 import org.openqa.selenium.support.pagefactory.ByChained;
 
 import com.github.arachnidium.core.ByNumbered;
+import com.github.arachnidium.core.LocatorCompiler;
 import com.github.arachnidium.core.settings.supported.ESupportedDrivers;
 import com.github.arachnidium.model.support.annotations.ClassDeclarationReader;
 
@@ -129,7 +130,7 @@ public class ElementReaderForMobilePlatforms implements IRootElementReader {
 		//by present @FindBy annotations
 		if (result.size() == 0)
 			return new CommonRootElementReader().readClassAndGetBy(annotatedTarget, supportedDriver);
-		return new ByAll(result.toArray(new By[]{}));
+		return LocatorCompiler.compile(new ByAll(result.toArray(new By[]{})));
 	}
 
 }
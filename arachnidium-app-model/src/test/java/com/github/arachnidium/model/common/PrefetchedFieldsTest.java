@@ -0,0 +1,276 @@
+package com.github.arachnidium.model.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.internal.HasIdentity;
+import org.openqa.selenium.internal.Locatable;
+import org.openqa.selenium.internal.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+import org.openqa.selenium.support.FindBy;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+/**
+ * Checks the decoration of {@link PrefetchFields} fields: all the fields are
+ * found by one script when the first of them is used, the stale element is
+ * found again by the lazy proxy of the field and each invocation reaches the
+ * listenable element once. Fields can be cast as lazy proxies and they are
+ * compared as found elements
+ */
+public class PrefetchedFieldsTest {
+
+	private final static String PAGE = "<html><body>"
+			+ "<div id='title'>Title</div>"
+			+ "<input class='name' type='text' value='name'/>"
+			+ "<a href='#'>link</a>"
+			+ "</body></html>";
+
+	private static class Fields {
+		@FindBy(css = "#title")
+		private WebElement title;
+		@FindBy(xpath = "//div[@id='title']")
+		private WebElement sameTitle;
+		@FindBy(css = "input.name")
+		private WebElement name;
+		@FindBy(xpath = "//a")
+		private WebElement link;
+		@FindBy(css = "#absent")
+		private WebElement absent;
+		// only CSS selectors and XPath expressions are found by the script
+		@FindBy(id = "title")
+		private WebElement titleById;
+	}
+
+	private HtmlUnitDriver driver;
+	private File page;
+
+	private AtomicInteger scripts;
+	// invocations which are received by listenable elements and lazy proxies
+	private List<String> events;
+	private Fields fields;
+
+	/**
+	 * Wraps elements as the listenable driver does. Invocations are recorded
+	 */
+	private WebElement listenable(WebElement element, String name) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (method.getDeclaringClass().equals(WrapsElement.class))
+				return element;
+			events.add(name + "." + method.getName());
+			try {
+				return method.invoke(element, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebElement.class, WrapsElement.class,
+						Locatable.class }, handler);
+	}
+
+	/**
+	 * The element is found on each invocation like the lazy proxy of the
+	 * field does
+	 */
+	private WebElement lazy(By by) {
+		InvocationHandler handler = (proxy, method, args) -> {
+			events.add("lazy." + method.getName());
+			try {
+				return method.invoke(driver.findElement(by), args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		};
+		return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { WebElement.class }, handler);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object listenableResult(Object result) {
+		if (result instanceof WebElement)
+			return listenable((WebElement) result, "found");
+		if (result instanceof List) {
+			List<Object> wrapped = new ArrayList<Object>();
+			((List<Object>) result).forEach(item -> wrapped
+					.add(listenableResult(item)));
+			return wrapped;
+		}
+		return result;
+	}
+
+	private JavascriptExecutor executor() {
+		return (JavascriptExecutor) Proxy.newProxyInstance(getClass()
+				.getClassLoader(), new Class<?>[] { JavascriptExecutor.class },
+				(proxy, method, args) -> {
+					scripts.incrementAndGet();
+					return listenableResult(method.invoke(driver, args));
+				});
+	}
+
+	@BeforeClass
+	public void setUp() throws IOException {
+		page = File.createTempFile("prefetched", ".html");
+		Files.write(page.toPath(), PAGE.getBytes(StandardCharsets.UTF_8));
+		driver = new HtmlUnitDriver(BrowserVersion.FIREFOX_38);
+		driver.setJavascriptEnabled(true);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void tearDown() {
+		if (driver != null)
+			driver.quit();
+		if (page != null)
+			page.delete();
+	}
+
+	@BeforeMethod
+	public void decorate() throws Exception {
+		driver.get(page.toURI().toString());
+		scripts = new AtomicInteger();
+		events = new ArrayList<String>();
+		fields = new Fields();
+
+		DefaultDecorator decorator = new DefaultDecorator(driver, null);
+		decorator.prefetchBy(by -> by, executor(), () -> {
+		});
+		for (Field field : Fields.class.getDeclaredFields()) {
+			if (!WebElement.class.equals(field.getType()))
+				continue;
+			By by = new org.openqa.selenium.support.pagefactory.Annotations(
+					field).buildBy();
+			field.setAccessible(true);
+			field.set(fields, decorator.toPrefetched(field, lazy(by)));
+		}
+	}
+
+	@Test
+	public void fieldsAreFoundByOneScriptAtFirstUse() {
+		Assert.assertEquals(scripts.get(), 0);
+		Assert.assertEquals(fields.title.getText(), "Title");
+		Assert.assertEquals(scripts.get(), 1);
+
+		Assert.assertEquals(fields.name.getAttribute("value"), "name");
+		Assert.assertEquals(fields.link.getTagName(), "a");
+		Assert.assertEquals(fields.title.getTagName(), "div");
+		Assert.assertEquals(scripts.get(), 1);
+		Assert.assertFalse(events.stream().anyMatch(
+				event -> event.startsWith("lazy.")), events.toString());
+	}
+
+	@Test
+	public void fieldsWhichAreNotFoundUseLazyProxies() {
+		Assert.assertEquals(fields.titleById.getText(), "Title");
+		Assert.assertEquals(events, Arrays.asList("lazy.getText"));
+		events.clear();
+		try {
+			fields.absent.isDisplayed();
+			Assert.fail("The absent element should not be found");
+		} catch (NoSuchElementException e) {
+			Assert.assertEquals(events, Arrays.asList("lazy.isDisplayed"));
+		}
+		Assert.assertEquals(scripts.get(), 1);
+	}
+
+	@Test
+	public void staleElementsAreFoundAgain() {
+		Assert.assertEquals(fields.title.getText(), "Title");
+		driver.executeScript("var old = document.getElementById('title');"
+				+ "var e = document.createElement('div');"
+				+ "e.id = 'title'; e.innerHTML = 'New title';"
+				+ "old.parentNode.replaceChild(e, old);");
+		events.clear();
+
+		Assert.assertEquals(fields.title.getText(), "New title");
+		Assert.assertEquals(events, Arrays.asList("found.getText",
+				"lazy.getText"));
+		events.clear();
+		Assert.assertEquals(fields.title.getTagName(), "div");
+		Assert.assertEquals(events, Arrays.asList("lazy.getTagName"));
+		Assert.assertEquals(scripts.get(), 1);
+	}
+
+	@Test
+	public void eachInvocationReachesTheListenableElementOnce() {
+		fields.title.getText();
+		fields.name.sendKeys("!");
+		fields.link.click();
+		Assert.assertEquals(events, Arrays.asList("found.getText",
+				"found.sendKeys", "found.click"));
+		Assert.assertEquals(fields.name.getAttribute("value"), "name!");
+		Assert.assertTrue(((WrapsElement) fields.title).getWrappedElement()
+				instanceof WrapsElement);
+	}
+
+	@Test
+	public void descriptionDoesntFindElements() {
+		Assert.assertTrue(fields.title.toString().contains("title"));
+		Assert.assertEquals(scripts.get(), 0);
+		Assert.assertTrue(events.isEmpty(), events.toString());
+	}
+
+	@Test
+	public void fieldsAreEqualIfElementsAreEqual() {
+		Assert.assertEquals(fields.title, fields.title);
+		Assert.assertEquals(fields.title, fields.sameTitle);
+		Assert.assertEquals(fields.title.hashCode(), fields.sameTitle.hashCode());
+		Assert.assertNotEquals(fields.title, fields.name);
+		Assert.assertEquals(scripts.get(), 1);
+		Assert.assertFalse(events.stream().anyMatch(
+				event -> event.startsWith("lazy.")), events.toString());
+	}
+
+	@Test
+	public void fieldsHaveTheClassOfLazyProxies() throws Exception {
+		Field field = Fields.class.getDeclaredField("title");
+		By by = new org.openqa.selenium.support.pagefactory.Annotations(field)
+				.buildBy();
+		// the lazy proxy of the remote element like the one of Appium
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(RemoteWebElement.class);
+		enhancer.setCallback((MethodInterceptor) (proxy, method, args,
+				methodProxy) -> {
+			events.add("lazy." + method.getName());
+			try {
+				return WebElement.class.getMethod(method.getName(),
+						method.getParameterTypes()).invoke(
+						driver.findElement(by), args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+
+		DefaultDecorator decorator = new DefaultDecorator(driver, null);
+		decorator.prefetchBy(b -> b, executor(), () -> {
+		});
+		Object prefetched = decorator.toPrefetched(field, enhancer.create());
+		Assert.assertTrue(prefetched instanceof RemoteWebElement);
+		Assert.assertTrue(prefetched instanceof HasIdentity);
+		Assert.assertTrue(prefetched instanceof WrapsElement);
+		Assert.assertEquals(((WebElement) prefetched).getText(), "Title");
+		Assert.assertEquals(scripts.get(), 1);
+	}
+}
@@ -9,14 +9,21 @@ import org.openqa.selenium.WebElement;
 
 /**
  * This class allows to receive the single {@link WebElement} by the locator and
- * the number of the element in the resulted list
+ * the number of the element in the resulted list.<br/>
+ * <br/>
+ * The number is passed to the remote side when it is possible and the
+ * implicitly wait time out is not set. So only the desired element is
+ * returned instead of all the found elements. Otherwise the implicit wait is
+ * over when any relevant element is found, as before.
  *
+ * @see LocatorCompiler
  */
 public class ByNumbered extends By {
 
 	private final By theGivenBy;
 	private final int theDesiredNumber;
 	private static final int MIN_ACCEPTABLE_NUMBER = 0;
+	private volatile By compiled;
 
 	public ByNumbered(By by, int number) {
 		theGivenBy = by;
@@ -27,6 +34,14 @@ public class ByNumbered extends By {
 		this(by, -1);
 	}
 
+	By getGivenBy() {
+		return theGivenBy;
+	}
+
+	int getDesiredNumber() {
+		return theDesiredNumber;
+	}
+
 	 /**
        *It finds many elements if the desired number is not defined. If the desired number is defined then it 
        *returns the list which contains one element if number of relevant elements equals or higher 
@@ -37,6 +52,20 @@ public class ByNumbered extends By {
 	 */
 	@Override
 	public List<WebElement> findElements(SearchContext context) {
+		By by = compiled;
+		if (by == null) {
+			by = LocatorCompiler.compile(this);
+			compiled = by;
+		}
+		if (by != this)
+			return by.findElements(context);
+		return findAllAndTake(context);
+	}
+
+	/**
+	 * Finds all the relevant elements and takes the desired one
+	 */
+	List<WebElement> findAllAndTake(SearchContext context) {
 		List<WebElement> result = theGivenBy.findElements(context);
 		if (theDesiredNumber < MIN_ACCEPTABLE_NUMBER)
 			return result;
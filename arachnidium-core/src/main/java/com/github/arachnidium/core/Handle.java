@@ -1,8 +1,10 @@
 package com.github.arachnidium.core;
 
 import java.lang.reflect.Proxy;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 import com.github.arachnidium.util.logging.Log;
@@ -11,13 +13,19 @@ import com.github.arachnidium.util.logging.Photographer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.NoSuchContextException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchWindowException;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.support.pagefactory.ByChained;
 
+import com.github.arachnidium.core.bean.FocusTracker;
+import com.github.arachnidium.core.bean.HandleSetSnapshot;
 import com.github.arachnidium.core.fluenthandle.IHowToGetHandle;
 import com.github.arachnidium.core.interfaces.ICalculatesBy;
 import com.github.arachnidium.core.interfaces.IDestroyable;
@@ -42,33 +50,41 @@ ITakesPictureOfItSelf, IDestroyable, SearchContext, ICalculatesBy, IHasSearchCon
 	IHowToGetHandle howToGetHandleStrategy;
 	long timeOut;
 
-	private final HandleReceptionist receptionist;
+	private final HandleRegistry registry;
+	private volatile SearchContext searchContext;
 
 	Handle(String handle, Manager<?,?> manager, 
 			By by, HowToGetByFrames howToGetByFramesStrategy) {
 		this.nativeManager = manager;
 		this.driverEncapsulation = manager.getWebDriverEncapsulation();
 		this.handle = handle;
-		this.receptionist = nativeManager.getHandleReceptionist();
+		this.registry = nativeManager.getHandleRegistry();
 		this.by = by;
 		this.howToGetByFramesStrategy = howToGetByFramesStrategy;
 	}
 
 	@Override
 	public void destroy() {
-		receptionist.remove(this);
+		registry.remove(this);
 	}
 
 	/**
-	 * @return flag of the handle existing
+	 * @return flag of the handle existing. The last known set of handles
+	 * is used while it is not expired
+	 * 
+	 * @see HandleSetSnapshot
 	 */
 	public synchronized boolean exists() {
 		if (!nativeManager.isAlive())
 			return false;
+		Boolean isKnown = nativeManager.getHandleSnapshot().contains(handle);
+		if (isKnown != null)
+			return isKnown;
 		try {
 			Set<String> handles = nativeManager.getHandles();
 			return handles.contains(handle);
 		} catch (WebDriverException e) { // if there is no handle
+			nativeManager.getHandleSnapshot().invalidate();
 			return false;
 		}
 	}
@@ -84,13 +100,105 @@ ITakesPictureOfItSelf, IDestroyable, SearchContext, ICalculatesBy, IHasSearchCon
 	}
 
 	/**
-	 * Sets focus to itself
+	 * Sets focus to itself. Frames are not switched
+	 * if the driver is already focused on them
+	 * 
+	 * @see FocusTracker
 	 */
 	@Override
 	public synchronized void switchToMe() {
-		nativeManager.switchTo(handle);
+		setFocus();
+	}
+
+	/**
+	 * Sets focus to itself
+	 * 
+	 * @return <code>true</code> if nothing was switched because the 
+	 * known focus is trusted
+	 * 
+	 * @see FocusTracker
+	 */
+	synchronized boolean setFocus() {
+		boolean isSkipped = !nativeManager.switchTo(handle);
+		FocusTracker focus = nativeManager.getFocusTracker();
+		List<Object> framePath = Collections.emptyList();
 		if (howToGetByFramesStrategy != null)
-			howToGetByFramesStrategy.switchTo(driverEncapsulation.getWrappedDriver());
+			framePath = howToGetByFramesStrategy.getFramePath();
+		List<Object> current = focus.getFramePath(handle);
+		if (framePath.equals(current))
+			return isSkipped;
+		
+		WebDriver driver = driverEncapsulation.getWrappedDriver();
+		if (current == null) {
+			// frames are not known. Switching to the window/context
+			// again resets them
+			focus.invalidate();
+			nativeManager.switchTo(handle);
+			if (framePath.isEmpty())
+				return false;
+			current = Collections.emptyList();
+		}
+		if (howToGetByFramesStrategy != null)
+			howToGetByFramesStrategy.switchTo(driver, current);
+		else
+			driver.switchTo().defaultContent();
+		focus.framesSwitched(handle, framePath);
+		return false;
+	}
+
+	/**
+	 * @return is the thrown exception caused by the wrong focus. The 
+	 * window/context, frame or element is not found
+	 */
+	private static boolean isFocusLost(Throwable thrown) {
+		Throwable cause = thrown;
+		while (cause != null) {
+			if (cause instanceof NoSuchWindowException
+					|| cause instanceof NoSuchFrameException
+					|| cause instanceof NoSuchContextException
+					|| cause instanceof StaleElementReferenceException)
+				return true;
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	/**
+	 * @return is the thrown exception caused by the window/context which
+	 * is not present anymore
+	 */
+	static boolean isClosed(Throwable thrown) {
+		Throwable cause = thrown;
+		while (cause != null) {
+			if (cause instanceof NoSuchWindowException
+					|| cause instanceof NoSuchContextException)
+				return true;
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+	/**
+	 * Sets focus to itself and runs the command. If switching was
+	 * skipped and the command has failed because the window/context, 
+	 * frame or element is not found then the known focus is dropped. 
+	 * The focus is set again and the command is run once more
+	 * 
+	 * @param command which requires the focus on this handle
+	 * @return the result of the command
+	 */
+	<T> T runFocused(Callable<T> command) throws Exception {
+		if (!setFocus())
+			return command.call();
+		try {
+			return command.call();
+		} catch (Exception e) {
+			if (!isFocusLost(e))
+				throw e;
+			nativeManager.getFocusTracker().invalidate();
+			setFocus();
+			return command.call();
+		}
 	}
 
 	/**
@@ -141,7 +249,10 @@ ITakesPictureOfItSelf, IDestroyable, SearchContext, ICalculatesBy, IHasSearchCon
 	public By returnBy(By by){
 		By usedBy = null;
 		if (this.by != null){
-			usedBy = new ByChained(this.by, by);
+			// elements are searched inside the first root element as
+			// SearchContextProxyHandler does
+			usedBy = LocatorCompiler.compile(new ByChained(new ByNumbered(
+					this.by, 0), by));
 		}
 		else
 			usedBy = by;
@@ -158,8 +269,18 @@ ITakesPictureOfItSelf, IDestroyable, SearchContext, ICalculatesBy, IHasSearchCon
 		return getSearchContext().findElements(by);
 	}
 	
+	/**
+	 * @return the search context of the handle. It is created once and
+	 * reused
+	 * 
+	 * @see com.github.arachnidium.core.interfaces.IHasSearchContext#getSearchContext()
+	 */
 	@Override
 	public SearchContext getSearchContext(){
+		SearchContext result = searchContext;
+		if (result != null)
+			return result;
+		
 		Class<?>[] interfaces = new Class[]{};
 		if (by == null)
 			interfaces = ArrayUtils.addAll(interfaces, new Class<?>[] {WebDriver.class, 
@@ -168,10 +289,11 @@ ITakesPictureOfItSelf, IDestroyable, SearchContext, ICalculatesBy, IHasSearchCon
 			interfaces = ArrayUtils.addAll(interfaces, new Class<?>[] {WebElement.class, 
 					WrapsDriver.class});
 		
-		SearchContext result = (SearchContext) Proxy
+		result = (SearchContext) Proxy
 				.newProxyInstance(
 						SearchContext.class.getClassLoader(),
 						interfaces, new SearchContextProxyHandler(this));
+		searchContext = result;
 		return result;
 						
 	}
@@ -56,6 +56,26 @@ class HandleInterceptor<U extends IHowToGetHandle> extends DefaultInterceptor {
 		}
 	}
 
+	/**
+	 * Runs the method of the handle which requires the focus. The window may
+	 * be closed by the page (e.g. by <code>window.close()</code>) while the
+	 * last known set of handles says that it is present. In this case the
+	 * set is dropped and the handle is got again. So the absent window is
+	 * handled the usual way
+	 */
+	private Object invokeFocused(Method method, Object[] args)
+			throws Exception {
+		try {
+			return handle.runFocused(() -> method.invoke(handle, args));
+		} catch (Exception e) {
+			if (!Handle.isClosed(e) || !manager.isAlive())
+				throw e;
+		}
+		manager.getHandleSnapshot().invalidate();
+		instantiateHandle();
+		return handle.runFocused(() -> method.invoke(handle, args));
+	}
+
 	@Override
 	public Object intercept(Object obj, Method method, Object[] args,
 			MethodProxy proxy) throws Throwable {	
@@ -64,17 +84,22 @@ class HandleInterceptor<U extends IHowToGetHandle> extends DefaultInterceptor {
 				classesThatDontRequireFocusOnTheHandle))
 			instantiateHandle();			
 		
-		if (handle != null
+		boolean requiresFocus = handle != null
 				&& !MethodInheritanceUtil.isOverriddenFromAny(method, 
 						classesThatDontRequireFocusOnTheHandle) 
 				&& !MethodInheritanceUtil.isOverriddenFrom(method,
 						ISwitchesToItself.class) && !MethodInheritanceUtil.isOverriddenFrom(method, 
-								IDestroyable.class))
-			handle.switchToMe();
+								IDestroyable.class);
 		
 		if (!MethodInheritanceUtil.isOverriddenFrom(method, Object.class) && 
-				handle != null)
+				handle != null) {
+			if (requiresFocus)
+				return invokeFocused(method, args);
 			return method.invoke(handle, args);
+		}
+		
+		if (requiresFocus)
+			handle.switchToMe();
 
 		return super.intercept(obj, method, args, proxy);
 	}
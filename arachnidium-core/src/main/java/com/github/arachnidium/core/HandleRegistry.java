@@ -0,0 +1,129 @@
+package com.github.arachnidium.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import com.github.arachnidium.core.interfaces.IHasHandle;
+import com.google.common.collect.MapMaker;
+
+/**
+ * It registers handles that are instantiated as {@link IHasHandle}.<br/>
+ * <br/>
+ * Objects are grouped by window handles/context names. Registration,
+ * lookup and removal don't depend on the number of known handles. Objects
+ * are weakly held, so they are released when nothing else refers to them.
+ * Closed windows and contexts are evicted and eviction hooks are notified.
+ * <br/>
+ * Names of evicted mobile contexts may be remembered. A context (e.g. a
+ * WEBVIEW while the page is reloaded) can disappear for a moment, so it
+ * isn't announced as the new one when it appears again.
+ */
+class HandleRegistry {
+
+	private final ConcurrentHashMap<String, Map<IHasHandle, Boolean>> instantiatedHandles =
+			new ConcurrentHashMap<String, Map<IHasHandle, Boolean>>();
+	private final List<Consumer<String>> evictionHooks =
+			new CopyOnWriteArrayList<Consumer<String>>();
+	// names of evicted windows/contexts which were announced before
+	private final Set<String> evictedHandles = ConcurrentHashMap.newKeySet();
+	private volatile boolean remembersEvicted;
+
+	private static Map<IHasHandle, Boolean> newObjectSet() {
+		// weak keys are compared by identity
+		return new MapMaker().weakKeys().concurrencyLevel(1).makeMap();
+	}
+
+	/**
+	 * Names of evicted windows/contexts will be remembered. It is useful when
+	 * names are reused (e.g. mobile contexts)
+	 */
+	void rememberEvicted() {
+		remembersEvicted = true;
+	}
+
+	/**
+	 * adds a new handle that is instantiated as {@link IHasHandle} object
+	 *
+	 * @return true if the window handle/context name wasn't known before
+	 */
+	boolean addKnown(IHasHandle handleObject) {
+		boolean[] isNew = new boolean[] { false };
+		instantiatedHandles.compute(handleObject.getHandle(), (handle, objects) -> {
+			if (objects == null) {
+				isNew[0] = !evictedHandles.remove(handle);
+				objects = newObjectSet();
+			}
+			objects.put(handleObject, Boolean.TRUE);
+			return objects;
+		});
+		return isNew[0];
+	}
+
+	/**
+	 * @return objects which are still alive
+	 */
+	List<IHasHandle> getInstantiated() {
+		List<IHasHandle> result = new ArrayList<IHasHandle>();
+		instantiatedHandles.values().forEach(
+				objects -> result.addAll(objects.keySet()));
+		return result;
+	}
+
+	/** removes handle that is instantiated as {@link IHasHandle} object **/
+	void remove(IHasHandle handleObject) {
+		instantiatedHandles.computeIfPresent(handleObject.getHandle(),
+				(handle, objects) -> {
+			objects.remove(handleObject);
+			return objects.isEmpty() ? null : objects;
+		});
+	}
+
+	/**
+	 * Adds the action which is performed when the window/context is closed
+	 */
+	void addEvictionHook(Consumer<String> hook) {
+		evictionHooks.add(hook);
+	}
+
+	/**
+	 * The window/context is closed. Objects which are bound to it are
+	 * forgotten and eviction hooks are notified
+	 */
+	void evict(String handle) {
+		// it is atomic with the registration of the same name
+		instantiatedHandles.computeIfPresent(handle, (h, objects) -> {
+			if (remembersEvicted) {
+				evictedHandles.add(h);
+			}
+			return null;
+		});
+		evictionHooks.forEach(hook -> hook.accept(handle));
+	}
+
+	/**
+	 * Evicts known windows/contexts which are absent in the given set
+	 *
+	 * @param actual is the set of window handles/context names which is
+	 * received from the remote side
+	 */
+	void retainAll(Set<String> actual) {
+		for (String handle : instantiatedHandles.keySet()) {
+			if (!actual.contains(handle)) {
+				evict(handle);
+			}
+		}
+	}
+
+	/**
+	 * Forgets all the registered objects
+	 */
+	void clear() {
+		instantiatedHandles.clear();
+		evictedHandles.clear();
+	}
+}
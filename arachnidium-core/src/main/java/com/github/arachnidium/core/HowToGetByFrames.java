@@ -2,9 +2,12 @@ package com.github.arachnidium.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebDriver.TargetLocator;
 import org.openqa.selenium.WebElement;
 
@@ -26,6 +29,11 @@ public class HowToGetByFrames {
 		}
 	};
 	final ArrayList<Object> framePath = new ArrayList<Object>();
+	/**
+	 * Frame elements which are found by {@link By}. The key is
+	 * the index of the frame in the path
+	 */
+	private final Map<Integer, WebElement> foundFrames = new ConcurrentHashMap<Integer, WebElement>();
 
 	/**
 	 * This method performs the switching from
@@ -37,28 +45,82 @@ public class HowToGetByFrames {
 	 * @see TargetLocator
 	 */
 	public void switchTo(WebDriver driver) {
-		framePath.forEach((frameIdentifier) -> {
-			if (frameIdentifier instanceof String) {
-				driver.switchTo().frame(String.valueOf(frameIdentifier));
-				return;
-			}
+		for (int i = 0; i < framePath.size(); i++) {
+			switchToFrame(driver, i);
+		}
+	}
 
-			if (frameIdentifier instanceof Integer) {
-				driver.switchTo().frame((int) frameIdentifier);
-				return;
+	/**
+	 * This method performs the switching from the
+	 * frame path the driver is focused on to the specified one.
+	 * The driver goes up by {@link TargetLocator#parentFrame()} only 
+	 * as far as the paths are different. If the parent frame 
+	 * can't be selected then the switching is performed from the 
+	 * top level
+	 * 
+	 * @param driver is the instance of {@link WebDriver} 
+	 * On this instance the switching is performed
+	 * @param currentPath is the frame path the driver is focused on
+	 * 
+	 * @see TargetLocator
+	 */
+	public void switchTo(WebDriver driver, List<Object> currentPath) {
+		int common = 0;
+		while (common < currentPath.size() && common < framePath.size()
+				&& currentPath.get(common).equals(framePath.get(common))) {
+			common++;
+		}
+		try {
+			for (int i = currentPath.size(); i > common; i--) {
+				driver.switchTo().parentFrame();
 			}
+		} catch (WebDriverException e) {
+			driver.switchTo().defaultContent();
+			common = 0;
+		}
+		for (int i = common; i < framePath.size(); i++) {
+			switchToFrame(driver, i);
+		}
+	}
+
+	private void switchToFrame(WebDriver driver, int index) {
+		Object frameIdentifier = framePath.get(index);
+		if (frameIdentifier instanceof String) {
+			driver.switchTo().frame(String.valueOf(frameIdentifier));
+			return;
+		}
+
+		if (frameIdentifier instanceof Integer) {
+			driver.switchTo().frame((int) frameIdentifier);
+			return;
+		}
 
-			if (frameIdentifier instanceof By) {
-				driver.switchTo().frame(
-						driver.findElement((By) frameIdentifier));
+		if (frameIdentifier instanceof By) {
+			switchToFoundFrame(driver, index, (By) frameIdentifier);
+			return;
+		}
+		
+		if (frameIdentifier instanceof WebElement) {
+			driver.switchTo().frame((WebElement) frameIdentifier);
+			return;
+		}
+	}
+
+	// the previously found element is used while it is not stale
+	private void switchToFoundFrame(WebDriver driver, int index, By by) {
+		WebElement frame = foundFrames.get(index);
+		if (frame != null) {
+			try {
+				driver.switchTo().frame(frame);
 				return;
+			} catch (WebDriverException e) { // it is stale or belongs to
+											 // another session
+				foundFrames.remove(index);
 			}
-			
-			if (frameIdentifier instanceof WebElement) {
-				driver.switchTo().frame((WebElement) frameIdentifier);
-				return;
-			}			
-		});
+		}
+		frame = driver.findElement(by);
+		driver.switchTo().frame(frame);
+		foundFrames.put(index, frame);
 	}
 
 	/**
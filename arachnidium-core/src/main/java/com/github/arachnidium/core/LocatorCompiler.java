@@ -0,0 +1,520 @@
+package com.github.arachnidium.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.By.ByCssSelector;
+import org.openqa.selenium.By.ByXPath;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.support.pagefactory.ByAll;
+import org.openqa.selenium.support.pagefactory.ByChained;
+
+import com.github.arachnidium.core.bean.ScriptedSearch;
+import com.github.arachnidium.core.bean.WebDriverScope;
+import com.github.arachnidium.core.bean.WindowOpeningHints;
+
+/**
+ * Compiles compositions of locators ({@link ByChained}, {@link ByAll},
+ * {@link ByNumbered}) which consist of CSS selectors and XPath expressions
+ * into single queries:<br/>
+ * - the chain of XPath expressions becomes one expression
+ * <code>(xpath1)/xpath2...</code>;<br/>
+ * - the chain of CSS selectors becomes one descendant selector when it is
+ * applied to the whole document;<br/>
+ * - the desired number of the XPath becomes <code>(xpath)[number + 1]</code>;
+ * <br/>
+ * - other compositions are performed by one script which keeps the order of
+ * {@link ByChained} and {@link ByAll} results.<br/>
+ * <br/>
+ * The original locator is used if the query can't be performed (e.g. scripts
+ * are not supported by native mobile contexts). It is also used when the
+ * script has found nothing while the implicitly wait time out is set. So
+ * elements which appear later are waited for. Listeners are notified about
+ * the script as about the search by the original locator. Nested matches of
+ * the chain are returned once by the fused XPath/CSS query. The desired
+ * number of {@link ByNumbered} is passed to the remote side only if there is
+ * no implicitly wait. So the wait is the same as the wait of the original
+ * locator.<br/>
+ * <br/>
+ * Also many locators can be performed by one script.
+ *
+ * @see #findAll(List, JavascriptExecutor)
+ */
+public final class LocatorCompiler {
+
+	private final static String XPATH_PREFIX = "By.xpath: ";
+	private final static String CSS_PREFIX = "By.cssSelector: ";
+	private final static String BYS = "bys";
+
+	private final static String CSS = "css";
+	private final static String XPATH = "xpath";
+	private final static String CHAIN = "chain";
+	private final static String ALL = "all";
+	private final static String NTH = "nth";
+
+	/**
+	 * Performs the plan against the context
+	 */
+	private final static String FIND_FUNCTION = "function find(node, context) {"
+			+ "  var result = [], i, j;"
+			+ "  if (node[0] == 'css') {"
+			+ "    var found = context.querySelectorAll(node[1]);"
+			+ "    for (i = 0; i < found.length; i++) result.push(found[i]);"
+			+ "    return result;"
+			+ "  }"
+			+ "  if (node[0] == 'xpath') {"
+			+ "    var owner = context.ownerDocument || context;"
+			+ "    var snapshot = owner.evaluate(node[1], context, null, 7, null);"
+			+ "    for (i = 0; i < snapshot.snapshotLength; i++) {"
+			+ "      if (snapshot.snapshotItem(i).nodeType == 1) result.push(snapshot.snapshotItem(i));"
+			+ "    }"
+			+ "    return result;"
+			+ "  }"
+			+ "  if (node[0] == 'all') {"
+			+ "    for (i = 0; i < node[1].length; i++) result = result.concat(find(node[1][i], context));"
+			+ "    return result;"
+			+ "  }"
+			+ "  if (node[0] == 'nth') {"
+			+ "    var all = find(node[2], context);"
+			+ "    return all.length > node[1] ? [all[node[1]]] : [];"
+			+ "  }"
+			+ "  var current = [context];"
+			+ "  for (i = 0; i < node[1].length; i++) {"
+			+ "    var next = [];"
+			+ "    for (j = 0; j < current.length; j++) next = next.concat(find(node[1][i], current[j]));"
+			+ "    current = next;"
+			+ "  }"
+			+ "  return current;"
+			+ "}";
+
+	/**
+	 * Performs the plan. arguments[0] is the plan, arguments[1] is the root
+	 * element (it is absent if the document is searched)
+	 */
+	private final static String SEARCH_SCRIPT = FIND_FUNCTION
+			+ "return find(arguments[0], arguments[1] || document);";
+
+	/**
+	 * Performs plans against the document. arguments[0] is the list of plans
+	 * (an item is empty if the locator can't be performed). The result is the
+	 * flat list where found elements of each plan are preceded by their
+	 * number. So they are returned as usual elements
+	 */
+	private final static String SEARCH_ALL_SCRIPT = FIND_FUNCTION
+			+ "var plans = arguments[0], result = [];"
+			+ "for (var p = 0; p < plans.length; p++) {"
+			+ "  var found = plans[p].length ? find(plans[p], document) : [];"
+			+ "  result.push(plans[p].length ? found.length : -1);"
+			+ "  result = result.concat(found);"
+			+ "}"
+			+ "return result;";
+
+	/**
+	 * The parsed locator
+	 */
+	private static final class Node {
+		private final String type;
+		private final String expression;
+		private final int number;
+		private final List<Node> children;
+
+		private Node(String type, String expression, int number,
+				List<Node> children) {
+			this.type = type;
+			this.expression = expression;
+			this.number = number;
+			this.children = children;
+		}
+
+		private boolean isLeaf() {
+			return children.isEmpty();
+		}
+
+		/**
+		 * @return true if the desired number of the element is defined
+		 *         somewhere inside
+		 */
+		private boolean hasNumbers() {
+			if (NTH.equals(type))
+				return true;
+			for (Node child : children) {
+				if (child.hasNumbers())
+					return true;
+			}
+			return false;
+		}
+
+		/**
+		 * @return the plan which is passed to the script
+		 */
+		private List<Object> toPlan() {
+			List<Object> result = new ArrayList<Object>();
+			result.add(type);
+			if (isLeaf()) {
+				result.add(expression);
+				return result;
+			}
+			if (NTH.equals(type)) {
+				result.add(number);
+				result.add(children.get(0).toPlan());
+				return result;
+			}
+			List<Object> plans = new ArrayList<Object>();
+			children.forEach(child -> plans.add(child.toPlan()));
+			result.add(plans);
+			return result;
+		}
+
+		/**
+		 * @return the equivalent XPath expression. Null is returned if there
+		 *         is no such expression
+		 */
+		private String toXPath() {
+			if (XPATH.equals(type))
+				return expression;
+			if (NTH.equals(type)) {
+				String xpath = children.get(0).toXPath();
+				return (xpath == null) ? null : "(" + xpath + ")["
+						+ (number + 1) + "]";
+			}
+			if (!CHAIN.equals(type))
+				return null;
+			String result = children.get(0).toXPath();
+			if (result == null)
+				return null;
+			result = "(" + result + ")";
+			for (Node child : children.subList(1, children.size())) {
+				if (!XPATH.equals(child.type)
+						|| !isRelativeLocationPath(child.expression))
+					return null;
+				result = result + "/" + child.expression;
+			}
+			return result;
+		}
+
+		/**
+		 * @return the equivalent CSS selector which is applicable to the whole
+		 *         document. Null is returned if there is no such selector
+		 */
+		private String toCssSelector() {
+			if (CSS.equals(type))
+				return expression;
+			if (!CHAIN.equals(type))
+				return null;
+			String result = children.get(0).toCssSelector();
+			if (result == null || hasTopLevel(result, ","))
+				return null;
+			for (Node child : children.subList(1, children.size())) {
+				if (!CSS.equals(child.type)
+						|| hasTopLevel(child.expression.trim(), " \t\n>+~,"))
+					return null;
+				result = result + " " + child.expression.trim();
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The locator which performs the compiled query
+	 */
+	private static final class CompiledBy extends By {
+		private final By original;
+		private final Function<SearchContext, List<WebElement>> fallback;
+		private final List<Object> plan;
+		private final String xpath;
+		private final String cssSelector;
+		private final boolean hasNumbers;
+		private volatile boolean isScriptUnsupported;
+
+		private CompiledBy(By original, Node node,
+				Function<SearchContext, List<WebElement>> fallback) {
+			this.original = original;
+			this.fallback = fallback;
+			plan = node.toPlan();
+			xpath = node.toXPath();
+			cssSelector = node.toCssSelector();
+			hasNumbers = node.hasNumbers();
+		}
+
+		private Object search(JavascriptExecutor executor, WebElement root) {
+			// some drivers don't accept null arguments
+			return ScriptedSearch.run(original, root, () -> (root == null) 
+					? executor.executeScript(SEARCH_SCRIPT, plan) 
+					: executor.executeScript(SEARCH_SCRIPT, plan, root));
+		}
+
+		private List<WebElement> findByScript(SearchContext context) {
+			if (isScriptUnsupported)
+				return null;
+			JavascriptExecutor executor = null;
+			WebElement root = null;
+			if (context instanceof JavascriptExecutor)
+				executor = (JavascriptExecutor) context;
+			else if (context instanceof WebElement
+					&& context instanceof WrapsDriver
+					&& !Proxy.isProxyClass(context.getClass())) {
+				// the element is passed to the script as the root
+				WebDriver driver = ((WrapsDriver) context).getWrappedDriver();
+				if (driver instanceof JavascriptExecutor) {
+					executor = (JavascriptExecutor) driver;
+					root = (WebElement) context;
+				}
+			}
+			if (executor == null)
+				return null;
+
+			Object found;
+			try {
+				found = search(executor, root);
+			} catch (StaleElementReferenceException e) {
+				throw e;
+			} catch (WebDriverException e) { // e.g. a native mobile context
+				isScriptUnsupported = true;
+				return null;
+			}
+			if (!(found instanceof List))
+				return null;
+			List<WebElement> result = new ArrayList<WebElement>();
+			for (Object element : (List<?>) found) {
+				if (!(element instanceof WebElement))
+					return null;
+				result.add((WebElement) element);
+			}
+			// the original search waits for elements which appear later
+			if (result.isEmpty() && WebDriverScope.isImplicitlyWaiting(context))
+				return null;
+			return result;
+		}
+
+		@Override
+		public List<WebElement> findElements(SearchContext context) {
+			// the implicit wait should be over when any element is found, not
+			// when the desired one appears
+			if (hasNumbers && WebDriverScope.isImplicitlyWaiting(context))
+				return fallback.apply(context);
+			if (xpath != null)
+				return context.findElements(By.xpath(xpath));
+			if (cssSelector != null && context instanceof WebDriver)
+				return context.findElements(By.cssSelector(cssSelector));
+			List<WebElement> result = findByScript(context);
+			if (result != null)
+				return result;
+			return fallback.apply(context);
+		}
+
+		@Override
+		public String toString() {
+			return original.toString();
+		}
+	}
+
+	private LocatorCompiler() {
+		super();
+	}
+
+	/**
+	 * @return true if the given char is found outside of brackets,
+	 *         parentheses and quotes
+	 */
+	private static boolean hasTopLevel(String expression, String chars) {
+		int depth = 0;
+		char quote = 0;
+		for (char c : expression.toCharArray()) {
+			if (quote != 0) {
+				if (c == quote)
+					quote = 0;
+				continue;
+			}
+			if (c == '\'' || c == '"')
+				quote = c;
+			else if (c == '[' || c == '(')
+				depth++;
+			else if (c == ']' || c == ')')
+				depth--;
+			else if (depth == 0 && chars.indexOf(c) >= 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the expression is the path relative to the context node
+	 *         (e.g. <code>.//li</code>, <code>li[1]</code>)
+	 */
+	private static boolean isRelativeLocationPath(String expression) {
+		if (expression.isEmpty())
+			return false;
+		char first = expression.charAt(0);
+		if (!Character.isLetter(first) && first != '_' && first != '*'
+				&& first != '.')
+			return false;
+		return !hasTopLevel(expression, " \t\n|=<>!+$(,");
+	}
+
+	private static String getExpression(By by, Class<? extends By> byClass,
+			String prefix) {
+		String description = by.toString();
+		if (!byClass.equals(by.getClass()) || !description.startsWith(prefix))
+			return null;
+		return description.substring(prefix.length());
+	}
+
+	/**
+	 * @return locators which are combined by {@link ByChained} or
+	 *         {@link ByAll}. Null is returned if they can't be read
+	 */
+	private static By[] getParts(By by) {
+		try {
+			Field field = by.getClass().getDeclaredField(BYS);
+			field.setAccessible(true);
+			return (By[]) field.get(by);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the parsed locator. Null is returned if it contains something
+	 *         but CSS selectors and XPath expressions
+	 */
+	private static Node toNode(By by) {
+		String expression = getExpression(by, ByXPath.class, XPATH_PREFIX);
+		if (expression != null)
+			return new Node(XPATH, expression, -1,
+					Collections.<Node> emptyList());
+
+		expression = getExpression(by, ByCssSelector.class, CSS_PREFIX);
+		if (expression != null)
+			return new Node(CSS, expression, -1,
+					Collections.<Node> emptyList());
+
+		if (by instanceof CompiledBy)
+			return toNode(((CompiledBy) by).original);
+
+		if (by instanceof ByNumbered) {
+			ByNumbered numbered = (ByNumbered) by;
+			Node child = toNode(numbered.getGivenBy());
+			if (child == null || numbered.getDesiredNumber() < 0)
+				return child;
+			return new Node(NTH, null, numbered.getDesiredNumber(),
+					Collections.singletonList(child));
+		}
+
+		String type = null;
+		if (ByChained.class.equals(by.getClass()))
+			type = CHAIN;
+		else if (ByAll.class.equals(by.getClass()))
+			type = ALL;
+		else
+			return null;
+
+		By[] parts = getParts(by);
+		if (parts == null || parts.length == 0)
+			return null;
+		List<Node> children = new ArrayList<Node>();
+		for (By part : parts) {
+			Node child = toNode(part);
+			if (child == null)
+				return null;
+			children.add(child);
+		}
+		if (children.size() == 1)
+			return children.get(0);
+		return new Node(type, null, -1, children);
+	}
+
+	/**
+	 * Compiles the given locator
+	 *
+	 * @param by is the locator which may be a composition of CSS selectors
+	 *            and XPath expressions
+	 * @return the locator which performs the single query. The given locator
+	 *         is returned if it can't be compiled or it is already a single
+	 *         query
+	 */
+	public static By compile(By by) {
+		if (by instanceof CompiledBy)
+			return by;
+		Node node = toNode(by);
+		if (node == null || node.isLeaf())
+			return by;
+
+		Function<SearchContext, List<WebElement>> fallback = by::findElements;
+		if (by instanceof ByNumbered) {
+			ByNumbered numbered = (ByNumbered) by;
+			fallback = numbered::findAllAndTake;
+		}
+		return new CompiledBy(by, node, fallback);
+	}
+
+	/**
+	 * Finds elements by many locators using one script. The whole document
+	 * of the current frame is searched
+	 *
+	 * @param bys are locators which may be compositions of CSS selectors and
+	 *            XPath expressions
+	 * @param executor is the driver which performs the script
+	 * @return found elements in the order of given locators. The item is null
+	 *         if the locator can't be performed by the script. Null is
+	 *         returned if scripts are not supported (e.g. a native mobile
+	 *         context)
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<List<WebElement>> findAll(List<By> bys,
+			JavascriptExecutor executor) {
+		List<Object> plans = new ArrayList<Object>();
+		boolean isSomethingPlanned = false;
+		for (By by : bys) {
+			Node node = toNode(by);
+			// some drivers don't accept null arguments
+			plans.add((node == null) ? Collections.emptyList() : node.toPlan());
+			isSomethingPlanned = isSomethingPlanned || node != null;
+		}
+		List<List<WebElement>> result = new ArrayList<List<WebElement>>();
+		if (!isSomethingPlanned) {
+			bys.forEach(by -> result.add(null));
+			return result;
+		}
+
+		Object found;
+		try {
+			found = WindowOpeningHints.runWithoutHints(() -> executor
+					.executeScript(SEARCH_ALL_SCRIPT, plans));
+		} catch (WebDriverException e) {
+			return null;
+		}
+		if (!(found instanceof List))
+			return null;
+		List<Object> items = (List<Object>) found;
+		int index = 0;
+		for (int i = 0; i < bys.size(); i++) {
+			if (index >= items.size() || !(items.get(index) instanceof Number))
+				return null;
+			int count = ((Number) items.get(index++)).intValue();
+			if (count < 0) {
+				result.add(null);
+				continue;
+			}
+			List<WebElement> elements = new ArrayList<WebElement>();
+			for (int j = 0; j < count; j++) {
+				if (index >= items.size()
+						|| !(items.get(index) instanceof WebElement))
+					return null;
+				elements.add((WebElement) items.get(index++));
+			}
+			result.add(elements);
+		}
+		return result;
+	}
+}
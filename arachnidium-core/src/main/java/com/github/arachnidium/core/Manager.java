@@ -1,6 +1,11 @@
 package com.github.arachnidium.core;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +22,8 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.pagefactory.ByChained;
 import org.springframework.context.annotation.Bean;
 
+import com.github.arachnidium.core.bean.FocusTracker;
+import com.github.arachnidium.core.bean.HandleSetSnapshot;
 import com.github.arachnidium.core.components.common.AlertHandler;
 import com.github.arachnidium.core.components.common.Awaiting;
 import com.github.arachnidium.core.fluenthandle.IHowToGetHandle;
@@ -24,6 +31,8 @@ import com.github.arachnidium.core.interfaces.IDestroyable;
 import com.github.arachnidium.core.interfaces.IHasHandle;
 import com.github.arachnidium.core.settings.AlertIsPresentTimeOut;
 import com.github.arachnidium.core.settings.HandleWaitingTimeOut;
+import com.github.arachnidium.util.logging.latency.Latencies;
+import com.github.arachnidium.util.logging.latency.eLatencyCategories;
 
 /**
  * This an abstraction that describes the
@@ -42,22 +51,65 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 			return possibleTimeOut;
 	}
 
+	/**
+	 * Classes of the strategy and the handle which are defined by 
+	 * generic parameters of the manager subclass. They are resolved 
+	 * once per class
+	 */
+	private static final class ManagedTypes {
+		private final MethodHandle howToGetConstructor;
+		private final Class<?> handleClass;
+		
+		private ManagedTypes(Class<?> managerClass) {
+			ParameterizedType generic = (ParameterizedType) managerClass
+					.getGenericSuperclass();
+			Type[] arguments = generic.getActualTypeArguments();
+			try {
+				Constructor<?> c = toClass(arguments[0]).getDeclaredConstructor();
+				c.setAccessible(true);
+				howToGetConstructor = MethodHandles.lookup()
+						.unreflectConstructor(c)
+						.asType(MethodType.genericMethodType(0));
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+			handleClass = toClass(arguments[1]);
+		}
+		
+		private static Class<?> toClass(Type type) {
+			if (type instanceof ParameterizedType)
+				return (Class<?>) ((ParameterizedType) type).getRawType();
+			return (Class<?>) type;
+		}
+	}
+	
+	private final static ClassValue<ManagedTypes> managedTypes = new ClassValue<ManagedTypes>() {
+		@Override
+		protected ManagedTypes computeValue(Class<?> type) {
+			return new ManagedTypes(type);
+		}
+	};
+
 	final Awaiting awaiting;
 	private final WebDriverEncapsulation driverEncapsulation;
 	boolean isAlive = true;
-	private final HandleReceptionist handleReceptionist = new HandleReceptionist();
+	private final HandleRegistry handleRegistry = new HandleRegistry();
 
 	private final static Map<WebDriverEncapsulation, Manager<?,?>> managerMap = Collections
 			.synchronizedMap(new HashMap<WebDriverEncapsulation, Manager<?,?>>());
 	final static long defaultTimeOut = 5; // we will wait
 	private String STUB_HANDLE = "STUB";
-	private String currentHandle;
 
 	Manager(WebDriverEncapsulation initialDriverEncapsulation) {
 		driverEncapsulation = initialDriverEncapsulation;
 		awaiting = new Awaiting(driverEncapsulation.getWrappedDriver());
 		managerMap.put(driverEncapsulation, this);
 		driverEncapsulation.addDestroyable(this);
+		handleRegistry.addEvictionHook(handle -> {
+			getHandleSnapshot().removed(handle);
+			getFocusTracker().closed(handle);
+			driverEncapsulation.scope.getWindowMetadata().invalidate(handle);
+		});
 	}
 
 	/**
@@ -74,9 +126,10 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 	public void destroy() {
 		managerMap.remove(driverEncapsulation);
 		isAlive = false;
-		List<IHasHandle> toBeDestroyed = handleReceptionist.getInstantiated();
+		List<IHasHandle> toBeDestroyed = handleRegistry.getInstantiated();
 		toBeDestroyed.forEach((hasHandle) -> ((IDestroyable) hasHandle)
 				.destroy());
+		handleRegistry.clear();
 	}
 
 	/**
@@ -107,19 +160,11 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 	
 	@SuppressWarnings("unchecked")
 	private U returnRelevantHowToGetStrategy(){
-		ParameterizedType generic = (ParameterizedType) this.getClass().getGenericSuperclass();
-		Class<U> howToGetClass = null;
-		try {
-			howToGetClass = (Class<U>) Class
-					.forName(generic.getActualTypeArguments()[0].getTypeName());
-		} catch (Exception e) {
-			throw new RuntimeException(e); 
-		}
-		
 		try {
-			return howToGetClass.newInstance();
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+			return (U) (Object) managedTypes.get(getClass()).howToGetConstructor
+					.invokeExact();
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
 		}
 	}
 
@@ -226,14 +271,34 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 				.getHandleWaitingTimeOut(), howToGet, by, howToGetByFramesStrategy);
 	}
 	
-	HandleReceptionist getHandleReceptionist() {
-		return handleReceptionist;
+	HandleRegistry getHandleRegistry() {
+		return handleRegistry;
 	}
 
 	/**
 	 * @return Set of string window handles/context names
 	 */
 	abstract Set<String> getHandles();
+
+	/**
+	 * Stores the actual set of window handles/context names. Known
+	 * windows/contexts which are absent are evicted
+	 * 
+	 * @param actual is the set which is received from the remote side
+	 * @return the given set
+	 */
+	Set<String> updateHandles(Set<String> actual) {
+		getHandleSnapshot().update(actual);
+		if (actual != null) {
+			handleRegistry.retainAll(actual);
+		}
+		return actual;
+	}
+
+	/**
+	 * @return the last known set of string window handles/context names
+	 */
+	abstract HandleSetSnapshot getHandleSnapshot();
 	
 	@SuppressWarnings("unchecked")
 	private V createProxy(long timeOut, U howToGet, By by, 
@@ -243,14 +308,7 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 		Class<?>[] params = new Class<?>[] {String.class, this.getClass(),
 				By.class, HowToGetByFrames.class};
 		Object[] values = new Object[] {STUB_HANDLE, this, by, howToGetByFramesStrategy};
-		ParameterizedType generic = (ParameterizedType) this.getClass().getGenericSuperclass();
-		Class<V> required = null;
-		try {
-			required = (Class<V>) Class
-					.forName(generic.getActualTypeArguments()[1].getTypeName());
-		} catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+		Class<V> required = (Class<V>) managedTypes.get(getClass()).handleClass;
 		V proxy = EnhancedProxyFactory.getProxy(required, params, values, hi);
 		proxy.timeOut = timeOut;
 		proxy.howToGetHandleStrategy = howToGet;
@@ -449,13 +507,36 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 
 	/**
 	 * Sets focus on window/mobile context by string 
-	 * parameter
+	 * parameter. Nothing is done if the driver is 
+	 * already focused on it
 	 * 
 	 * @param String window handle/context name
+	 * @return <code>false</code> if nothing was switched because the 
+	 * driver is known as focused on the given window/context
+	 * 
+	 * @see FocusTracker
 	 */
-	synchronized void switchTo(String handle) {
-		if (!handle.equals(currentHandle))
+	synchronized boolean switchTo(String handle) {
+		FocusTracker focus = getFocusTracker();
+		if (focus.isFocusedOn(handle))
+			return false;
+		long start = Latencies.start();
+		try {
 			changeActive(handle);
+			focus.focusedOn(handle);
+			return true;
+		} finally {
+			Latencies.record(eLatencyCategories.SWITCH, getClass()
+					.getSimpleName(), driverEncapsulation.getWrappedDriver(),
+					start);
+		}
+	}
+	
+	/**
+	 * @return the window/context and frames the driver is focused on
+	 */
+	FocusTracker getFocusTracker() {
+		return driverEncapsulation.scope.getFocus();
 	}
 
 	/**
@@ -479,10 +560,13 @@ public abstract class Manager<U extends IHowToGetHandle, V extends Handle> imple
 	 */
 	@SuppressWarnings("unchecked")
 	<T extends Handle> T returnNewCreatedListenableHandle(Handle handle, String beanName){
-		T result = (T) driverEncapsulation.context.getBean(beanName, handle);
-		if (!getHandleReceptionist().isInstantiated(handle.getHandle()))
+		T result = (T) driverEncapsulation.context.getBean(beanName, handle,
+				driverEncapsulation.scope);
+		getHandleSnapshot().added(handle.getHandle());
+		// the registration and the check are atomic. So listeners are
+		// notified once per window/context
+		if (handleRegistry.addKnown(handle))
 			handle.whenIsCreated();
-		getHandleReceptionist().addKnown(handle);
 		return result;
 	}
 	
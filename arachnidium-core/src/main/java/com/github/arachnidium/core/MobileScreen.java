@@ -42,11 +42,9 @@ public class MobileScreen extends Handle implements IContext {
 	}
 	
 	@Override
-	public synchronized void switchToMe() {
-		if (handle.contains(MobileContextNamePatterns.NATIVE)){
-			nativeManager.switchTo(handle);
-			return;
-		}
-		super.switchToMe();
+	synchronized boolean setFocus() {
+		if (handle.contains(MobileContextNamePatterns.NATIVE))
+			return !nativeManager.switchTo(handle);
+		return super.setFocus();
 	}
 }
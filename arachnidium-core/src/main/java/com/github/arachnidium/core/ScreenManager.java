@@ -11,6 +11,7 @@ import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
+import com.github.arachnidium.core.bean.HandleSetSnapshot;
 import com.github.arachnidium.core.bean.MainBeanConfiguration;
 import com.github.arachnidium.core.components.mobile.ContextTool;
 import com.github.arachnidium.core.fluenthandle.FluentPageWaiting;
@@ -31,6 +32,8 @@ public final class ScreenManager extends Manager<HowToGetMobileScreen, MobileScr
 				.getWrappedDriver();
 		isSupportActivities = AndroidDriver.class
 				.isAssignableFrom(wrappedDriver.getClass());
+		// context names are reused
+		getHandleRegistry().rememberEvicted();
 	}
 
 	/**
@@ -64,7 +67,15 @@ public final class ScreenManager extends Manager<HowToGetMobileScreen, MobileScr
 	 */
 	@Override
 	public Set<String> getHandles() {
-		return contextTool.getContextHandles();
+		return updateHandles(contextTool.getContextHandles());
+	}
+
+	/**
+	 * @see com.github.arachnidium.core.Manager#getHandleSnapshot()
+	 */
+	@Override
+	HandleSetSnapshot getHandleSnapshot() {
+		return getWebDriverEncapsulation().scope.getContextHandles();
 	}
 
 	@Override
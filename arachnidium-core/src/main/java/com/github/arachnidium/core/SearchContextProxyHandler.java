@@ -5,19 +5,26 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.concurrent.TimeUnit;
 
 import com.github.arachnidium.core.components.common.TimeOut;
 import org.openqa.selenium.By;
 import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.WrapsDriver;
 
 import com.github.arachnidium.util.inheritance.MethodInheritanceUtil;
 
+/**
+ * Handles invocations of the search context of the {@link Handle}.<br/>
+ * <br/>
+ * If the handle is scoped by the root {@link By} the found root element is
+ * reused by next invocations. It is found again when it becomes stale or when
+ * the driver has navigated.
+ */
 class SearchContextProxyHandler implements InvocationHandler {
 
 	private final Handle handle;
@@ -31,22 +38,62 @@ class SearchContextProxyHandler implements InvocationHandler {
 
 	};
 
+	private volatile WebElement root;
+	private volatile long rootNavigations;
+
 	private void changeTimeOutAndRun(Runnable runnable) {
 		TimeOut timeOut = handle.driverEncapsulation.getTimeOut();
-		long timeOutValue = timeOut.getImplicitlyWaitTimeOut();
-		TimeUnit timeUnit = timeOut.getImplicitlyWaitTimeUnit();
-		try {
-			timeOut.implicitlyWait(0, TimeUnit.SECONDS);
+		// the implicitly wait time out is restored by the next search
+		// which requires it
+		timeOut.withoutImplicitlyWait(() -> {
 			runnable.run();
-		} finally {
-			timeOut.implicitlyWait(timeOutValue, timeUnit);
-		}
+			return null;
+		});
 	}
 
 	SearchContextProxyHandler(Handle handle) {
 		this.handle = handle;
 	}
 
+	/**
+	 * @return the cached root element. It is found if it is not known or
+	 *         the driver has navigated after it has been found
+	 */
+	private WebElement getRoot(WebDriver driver) {
+		long navigations = handle.driverEncapsulation.scope.getNavigations();
+		WebElement cached = root;
+		if (cached != null && rootNavigations == navigations)
+			return cached;
+
+		final List<WebElement> elements = new ArrayList<>();
+		changeTimeOutAndRun(() -> elements.addAll(driver
+				.findElements(handle.by)));
+		if (elements.size() == 0)
+			throw new NoSuchElementException(
+					"There is no element that could be found using locator strategy "
+							+ handle.by.toString());
+		rootNavigations = navigations;
+		root = elements.get(0);
+		return root;
+	}
+
+	/**
+	 * Invokes the method against the root element. If it is stale the root
+	 * element is found again and the method is invoked once more
+	 */
+	private Object invokeOnRoot(WebDriver driver, Method m, Object[] args)
+			throws InvocationTargetException, IllegalAccessException {
+		WebElement element = getRoot(driver);
+		try {
+			return m.invoke(element, args);
+		} catch (InvocationTargetException e) {
+			if (!(e.getCause() instanceof StaleElementReferenceException))
+				throw e;
+			root = null;
+			return m.invoke(getRoot(driver), args);
+		}
+	}
+
 	@Override
 	public Object invoke(final Object o, final Method m, Object[] args)
 			throws Throwable {
@@ -60,19 +107,14 @@ class SearchContextProxyHandler implements InvocationHandler {
 
 		if (MethodInheritanceUtil.isOverriddenFromAny(m,
 				classesThatRequireFocusOnTheHandle))
-			handle.switchToMe();
-
-		if (MethodInheritanceUtil.isOverriddenFrom(m, WebElement.class)) {
-			final List<WebElement> elements = new ArrayList<>();
-			changeTimeOutAndRun(() -> elements.addAll(driver
-					.findElements(handle.by)));
-			if (elements.size() == 0)
-				throw new NoSuchElementException(
-						"There is no element that could be found using locator strategy "
-								+ handle.by.toString());
-
-			return m.invoke(elements.get(0), args);
-		}
+			return handle.runFocused(() -> invokeCommand(driver, o, m, args));
+		return invokeCommand(driver, o, m, args);
+	}
+
+	private Object invokeCommand(final WebDriver driver, final Object o,
+			final Method m, final Object[] args) throws Exception {
+		if (MethodInheritanceUtil.isOverriddenFrom(m, WebElement.class))
+			return invokeOnRoot(driver, m, args);
 
 		if (MethodInheritanceUtil.isOverriddenFrom(m, SearchContext.class)) {
 			final List<Object> result = new ArrayList<>();
@@ -82,7 +124,7 @@ class SearchContextProxyHandler implements InvocationHandler {
 						result.add(m.invoke(driver,
 								new Object[] { (By) args[0] }));
 					if (o instanceof WebElement)
-						result.add(m.invoke(driver.findElement(handle.by),
+						result.add(invokeOnRoot(driver, m,
 								new Object[] { (By) args[0] }));
 				} catch (InvocationTargetException | IllegalAccessException e) {
 					throw new RuntimeException(e);
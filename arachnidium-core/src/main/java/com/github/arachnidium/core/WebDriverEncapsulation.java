@@ -21,19 +21,22 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.internal.WrapsDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.support.AbstractApplicationContext;
 
 import com.github.arachnidium.core.bean.MainBeanConfiguration;
+import com.github.arachnidium.core.bean.WebDriverScope;
 import com.github.arachnidium.core.components.ComponentFactory;
 import com.github.arachnidium.core.components.WebdriverComponent;
 import com.github.arachnidium.core.components.common.TimeOut;
+import com.github.arachnidium.core.components.common.polling.PollingWait;
+import com.github.arachnidium.core.highlighting.IWebElementHighlighter;
 import com.github.arachnidium.core.interfaces.IDestroyable;
 import com.github.arachnidium.core.settings.supported.ESupportedDrivers;
 import com.github.arachnidium.util.configuration.Configuration;
 import com.github.arachnidium.util.configuration.interfaces.IConfigurable;
 import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
 import com.github.arachnidium.util.logging.Log;
+import com.github.arachnidium.util.logging.latency.Latencies;
 
 /**
  * This class creates an instance of required {@link WebDriver} implementor,
@@ -46,9 +49,10 @@ public class WebDriverEncapsulation implements IDestroyable, IConfigurable,
 	private final RemoteWebDriver enclosedDriver;
 
 	private Configuration configuration = Configuration.byDefault;
-	final AbstractApplicationContext context = new AnnotationConfigApplicationContext(
-			MainBeanConfiguration.class);
+	final AbstractApplicationContext context = MainBeanConfiguration
+			.getSharedContext();
 	private final DestroyableObjects destroyableObjects = new DestroyableObjects();
+	final WebDriverScope scope = new WebDriverScope(this, destroyableObjects);
 	private final TimeOut timeOut;
 	private final ESupportedDrivers instantiatedESupportedDriver;
 
@@ -65,10 +69,16 @@ public class WebDriverEncapsulation implements IDestroyable, IConfigurable,
 			Class<? extends WebDriver> driverClass = supporteddriver.getUsingWebDriverClass();
 			
 			enclosedDriver = (RemoteWebDriver) context.getBean(
-					MainBeanConfiguration.WEBDRIVER_BEAN, context, this,
-					destroyableObjects, driverClass, values);
+					MainBeanConfiguration.WEBDRIVER_BEAN, scope, driverClass,
+					values);
 			Log.message("Getting started with " + driverClass.getSimpleName());
+			Latencies.bindDriver(driverClass.getSimpleName(), enclosedDriver,
+					scope.getDriver());
+			addDestroyable(() -> Latencies.releaseDriver(enclosedDriver));
 			timeOut = getComponent(TimeOut.class);
+			scope.setBeforeSearch(timeOut::applyPendingTimeOuts);
+			scope.setImplicitlyWait(timeOut::isImplicitlyWaiting);
+			scope.setOnTimeOutsAccess(timeOut::forgetSentValues);
 			resetAccordingTo(configuration);
 			this.instantiatedESupportedDriver = supporteddriver;
 			
@@ -87,12 +97,16 @@ public class WebDriverEncapsulation implements IDestroyable, IConfigurable,
 	 */
 	@Override
 	public void destroy() {
-		if (enclosedDriver == null)
+		if (enclosedDriver == null) {
+			scope.destroy();
 			return;
+		}
 		try {
 			enclosedDriver.quit();
 		} catch (WebDriverException e) { // it may be already dead
 			return;
+		} finally {
+			scope.destroy();
 		}
 	}
 
@@ -150,6 +164,11 @@ public class WebDriverEncapsulation implements IDestroyable, IConfigurable,
 	public synchronized void resetAccordingTo(Configuration config) {
 		configuration = config;
 		timeOut.resetAccordingTo(configuration);
+		scope.getHighlighter().resetAccordingTo(configuration);
+		scope.getWindowHandles().resetAccordingTo(configuration);
+		scope.getContextHandles().resetAccordingTo(configuration);
+		scope.getWindowMetadata().resetAccordingTo(configuration);
+		PollingWait.of(enclosedDriver).resetAccordingTo(configuration);
 	}
 
 	/**
@@ -162,6 +181,14 @@ public class WebDriverEncapsulation implements IDestroyable, IConfigurable,
 		return configuration;
 	}
 	
+	/**
+	 * @return The {@link IWebElementHighlighter} which is shared by 
+	 * everything that works with the wrapped {@link WebDriver}
+	 */
+	public IWebElementHighlighter getHighlighter(){
+		return scope.getHighlighter();
+	}
+	
 	public TimeOut getTimeOut(){
 		return timeOut;
 	}
@@ -0,0 +1,119 @@
+package com.github.arachnidium.core;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import com.github.arachnidium.core.bean.HandleSetSnapshot;
+import com.github.arachnidium.core.bean.WindowOpeningHints;
+import com.github.arachnidium.util.logging.latency.Latencies;
+import com.github.arachnidium.util.logging.latency.eLatencyCategories;
+
+/**
+ * Waits for the window which matches the given condition.<br/>
+ * <br/>
+ * The first probe is performed immediately. Then the interval between probes
+ * grows exponentially (with random jitter) while the set of window handles
+ * stays the same. It falls back to the shortest interval when the set is
+ * changed or when an action which is likely to open a window (click, submit,
+ * script) has been performed. Such action also interrupts the sleep and the
+ * interval stays short for a while after it.
+ */
+class WindowAppearanceDetector {
+	private final static long MIN_INTERVAL = TimeUnit.MILLISECONDS.toNanos(25);
+	private final static long MAX_INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+	/**
+	 * The window is likely to appear soon after the hint. So the interval
+	 * is limited during this time
+	 */
+	private final static long HINT_TIME = TimeUnit.SECONDS.toNanos(2);
+	private final static long MAX_INTERVAL_AFTER_HINT = TimeUnit.MILLISECONDS
+			.toNanos(100);
+	private final static double JITTER = 0.2;
+
+	private final WebDriver driver;
+	private final HandleSetSnapshot handleSnapshot;
+	private final WindowOpeningHints hints;
+
+	WindowAppearanceDetector(WebDriver driver, HandleSetSnapshot handleSnapshot,
+			WindowOpeningHints hints) {
+		this.driver = driver;
+		this.handleSnapshot = handleSnapshot;
+		this.hints = hints;
+	}
+
+	private static long withJitter(long interval) {
+		double factor = 1 + JITTER
+				* (2 * ThreadLocalRandom.current().nextDouble() - 1);
+		return (long) (interval * factor);
+	}
+
+	private static boolean isFound(Object result) {
+		return result != null && !Boolean.FALSE.equals(result);
+	}
+
+	/**
+	 * @param secTimeOut is the time to wait for (seconds)
+	 * @param condition is the condition which returns the window handle
+	 * @return the value returned by the condition
+	 * @throws TimeoutException if the window doesn't appear
+	 */
+	<T> T await(long secTimeOut, ExpectedCondition<T> condition)
+			throws TimeoutException {
+		long start = Latencies.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(secTimeOut);
+		long interval = MIN_INTERVAL;
+		Set<String> previous = null;
+		NotFoundException lastException = null;
+		try {
+			while (true) {
+				long probedAt = System.nanoTime();
+				try {
+					T result = condition.apply(driver);
+					if (isFound(result)) {
+						return result;
+					}
+					lastException = null;
+				} catch (NotFoundException e) { // window was closed meanwhile
+					lastException = e;
+				}
+
+				// the condition has requested handles. They are compared
+				// with the previous ones
+				Set<String> actual = handleSnapshot.getHandles();
+				if (actual == null || !actual.equals(previous)) {
+					interval = MIN_INTERVAL;
+				} else if (hints.isHintedWithin(HINT_TIME, TimeUnit.NANOSECONDS)) {
+					interval = Math.min(interval * 2, MAX_INTERVAL_AFTER_HINT);
+				} else {
+					interval = Math.min(interval * 2, MAX_INTERVAL);
+				}
+				previous = actual;
+
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new TimeoutException("Timed out after " + secTimeOut
+							+ " seconds waiting for " + condition, lastException);
+				}
+				if (hints.await(probedAt,
+						Math.min(withJitter(interval), remaining),
+						TimeUnit.NANOSECONDS)) {
+					interval = MIN_INTERVAL;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WebDriverException(e);
+		} finally {
+			Latencies.record(eLatencyCategories.WAIT,
+					WindowAppearanceDetector.class.getSimpleName(), driver,
+					start);
+		}
+	}
+}
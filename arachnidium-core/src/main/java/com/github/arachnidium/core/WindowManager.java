@@ -11,6 +11,7 @@ import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.UnreachableBrowserException;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
+import com.github.arachnidium.core.bean.HandleSetSnapshot;
 import com.github.arachnidium.core.bean.MainBeanConfiguration;
 import com.github.arachnidium.core.fluenthandle.FluentPageWaiting;
 import com.github.arachnidium.core.settings.WindowIsClosedTimeOut;
@@ -18,9 +19,13 @@ import com.github.arachnidium.core.settings.WindowIsClosedTimeOut;
 public final class WindowManager extends Manager<HowToGetPage, BrowserWindow> {
 
 	private static long TIME_OUT_TO_SWITCH_ON = 2; //two seconds
+	private final WindowAppearanceDetector appearanceDetector;
 	
 	public WindowManager(WebDriverEncapsulation initialDriverEncapsulation) {
 		super(initialDriverEncapsulation);
+		appearanceDetector = new WindowAppearanceDetector(getWrappedDriver(),
+				getHandleSnapshot(), initialDriverEncapsulation.scope
+						.getWindowOpeningHints());
 	}
 
 	/**
@@ -77,6 +82,7 @@ public final class WindowManager extends Manager<HowToGetPage, BrowserWindow> {
 		} catch (TimeoutException e) {
 			throw new UnclosedWindowException("Window hasn't been closed!", e);
 		}
+		getHandleRegistry().evict(handle);
 
 		int actualWinCount = 0;
 		try {
@@ -96,7 +102,15 @@ public final class WindowManager extends Manager<HowToGetPage, BrowserWindow> {
 	 */
 	@Override
 	Set<String> getHandles() {
-		return getWrappedDriver().getWindowHandles();
+		return updateHandles(getWrappedDriver().getWindowHandles());
+	}
+
+	/**
+	 * @see com.github.arachnidium.core.Manager#getHandleSnapshot()
+	 */
+	@Override
+	HandleSetSnapshot getHandleSnapshot() {
+		return getWebDriverEncapsulation().scope.getWindowHandles();
 	}
 
 	/**
@@ -111,8 +125,9 @@ public final class WindowManager extends Manager<HowToGetPage, BrowserWindow> {
 			throws NoSuchWindowException {
 		HowToGetPage clone = howToGet.cloneThis();
 		try {
-			return awaiting.awaitCondition(timeOut,
-					clone.getExpectedCondition(new FluentPageWaiting()));
+			return appearanceDetector.await(timeOut,
+					clone.getExpectedCondition(new FluentPageWaiting(
+							getWebDriverEncapsulation().scope.getWindowMetadata())));
 		} catch (TimeoutException e) {
 			throw new NoSuchWindowException("Can't find window! Condition is "
 					+ clone.toString(), e);
@@ -2,14 +2,6 @@ package com.github.arachnidium.core.bean;
 
 import io.appium.java_client.android.AndroidDriver;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ServiceLoader;
-
-import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
 import com.github.arachnidium.util.logging.Log;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -32,35 +24,11 @@ import com.github.arachnidium.core.settings.ScreenShots;
 class AspectContextListener extends DefaultHandleListener implements
 		IContextListener {
 
-	private final List<IContextListener> contextEventListeners = new ArrayList<IContextListener>() {
-		private static final long serialVersionUID = 1L;
-		{ // SPI
-			Iterator<?> providers = ServiceLoader.load(IContextListener.class)
-					.iterator();
-			while (providers.hasNext())
-				add((IContextListener) providers.next());
-		}
-	};
-	private final InvocationHandler contextListenerInvocationHandler = (proxy,
-			method, args) -> {
-		contextEventListeners.forEach((eventListener) -> {
-			try {
-				method.invoke(eventListener, args);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-			;
-		});
-		return null;
-	};
-
-	private final IContextListener contextListenerProxy = (IContextListener) Proxy
-			.newProxyInstance(IContextListener.class.getClassLoader(),
-					new Class[] { IContextListener.class },
-					contextListenerInvocationHandler);
+	private final IContextListener contextListenerProxy = ListenerRegistry
+			.getDispatcher(IContextListener.class, this);
 
-	public AspectContextListener(IConfigurationWrapper configurationWrapper) {
-		super(configurationWrapper);
+	public AspectContextListener() {
+		super();
 	}
 
 	/**
@@ -125,6 +93,7 @@ class AspectContextListener extends DefaultHandleListener implements
 			+ "execution(* com.github.arachnidium.core.interfaces.ISwitchesToItself.*(..)) || "
 			+ "execution(* org.openqa.selenium.Rotatable.*(..))")
 	public Object doAround(ProceedingJoinPoint point) throws Throwable {
+		resolveScope(point);
 		launchMethod(point, this, WhenLaunch.BEFORE);
 		Object result = null;
 		try {
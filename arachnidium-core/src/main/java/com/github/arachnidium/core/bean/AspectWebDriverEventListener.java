@@ -7,14 +7,15 @@ import io.appium.java_client.android.AndroidElement;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.IOSElement;
 
-import java.lang.reflect.Proxy;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
 import com.github.arachnidium.util.logging.Log;
+import com.github.arachnidium.util.logging.eAvailableLevels;
+import com.github.arachnidium.util.logging.latency.Latencies;
+import com.github.arachnidium.util.logging.latency.eLatencyCategories;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -22,17 +23,19 @@ import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.ContextAware;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchContextException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriver.Navigation;
 import org.openqa.selenium.WebDriver.Options;
 import org.openqa.selenium.WebDriver.TargetLocator;
 import org.openqa.selenium.WebElement;
-import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.ApplicationContext;
 
 import com.github.arachnidium.core.eventlisteners.IWebDriverEventListener;
 import com.github.arachnidium.core.highlighting.IWebElementHighlighter;
-import com.github.arachnidium.core.highlighting.WebElementHighLighter;
-import com.github.arachnidium.core.interfaces.IDestroyable;
 
 @Aspect
 class AspectWebDriverEventListener extends AbstractAspect implements
@@ -74,9 +77,29 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	};
 
 	@SupportField
-	private final WebDriver driver;
-	private final WebElementHighLighter highLighter = new WebElementHighLighter();
-	private final AbstractApplicationContext context;
+	private volatile WebDriver driver;
+	private final ElementDescriptionProvider descriptionProvider = new ElementDescriptionProvider();
+	private final ApplicationContext context;
+	private final static String FIND = "find";
+	private final static String GET_WINDOW_HANDLES = "getWindowHandles";
+	private final static String CLOSE = "close";
+	private final static String QUIT = "quit";
+	private final static String GET = "get";
+	private final static String WINDOW = "window";
+	private final static String CONTEXT = "context";
+	private final static String CLICK = "click";
+	private final static String SUBMIT = "submit";
+	private final static String TIME_OUTS = "timeouts";
+	private final static String EXECUTE_SCRIPT = "executeScript";
+	private final static String EXECUTE_ASYNC_SCRIPT = "executeAsyncScript";
+	private final static List<String> FRAME_SWITCHING = new ArrayList<String>() {
+		private static final long serialVersionUID = 1L;
+		{
+			add("frame");
+			add("defaultContent");
+			add("parentFrame");
+		}
+	};
 	private final String POINTCUT_VALUE = "execution(* org.openqa.selenium.WebDriver.*(..)) || "
 			+ "execution(* org.openqa.selenium.WebElement.*(..)) ||"
 			+ "execution(* org.openqa.selenium.WebDriver.Navigation.*(..)) || "
@@ -92,41 +115,38 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		    + "execution(* io.appium.java_client.android.AndroidElement.*(..)) || "
 			+ "execution(* io.appium.java_client.ios.IOSElement.*(..))"
 			;
-	private final IDestroyable destroyable;
+	private final IWebDriverEventListener proxyListener = ListenerRegistry
+			.getDispatcher(IWebDriverEventListener.class, this);
 
-	private final List<IWebDriverEventListener> additionalListeners = new ArrayList<IWebDriverEventListener>() {
-		private static final long serialVersionUID = 1L;
-		{
-			// it is filled by SPI
-			Iterator<?> providers = ServiceLoader.load(
-					IWebDriverEventListener.class).iterator();
-			while (providers.hasNext())
-				add((IWebDriverEventListener) providers.next());
+	/**
+	 * Bookkeeping which is required after the successful command. Most of
+	 * commands require nothing. Flags are calculated once per the target
+	 * class and the method name
+	 */
+	private final static int PREPARES_SEARCH = 1;
+	private final static int CHANGES_WINDOW_HANDLES = 2;
+	private final static int CHANGES_FOCUS = 4;
+	private final static int NAVIGATES = 8;
+	private final static int CHANGES_WINDOW_METADATA = 16;
+	private final static int MAY_OPEN_WINDOW = 32;
+	private final static int RUNS_SCRIPT = 64;
+	private final static int ACCESSES_TIME_OUTS = 128;
+	private final static ClassValue<ConcurrentHashMap<String, Integer>> BOOKKEEPING = new ClassValue<ConcurrentHashMap<String, Integer>>() {
+		@Override
+		protected ConcurrentHashMap<String, Integer> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<String, Integer>();
 		}
 	};
 
-	private final IWebDriverEventListener proxyListener = (IWebDriverEventListener) Proxy
-			.newProxyInstance(IWebDriverEventListener.class.getClassLoader(),
-					new Class[] { IWebDriverEventListener.class }, (proxy,
-							method, args) -> {
-						additionalListeners.forEach((eventListener) -> {
-							try {
-								method.invoke(eventListener, args);
-							} catch (Exception e) {
-								throw new RuntimeException(e);
-							}
-
-						});
-						return null;
-					});
-
-	public AspectWebDriverEventListener(final WebDriver driver,
-			IConfigurationWrapper configurationWrapper,
-			IDestroyable destroyable, AbstractApplicationContext context) {
-		super(configurationWrapper);
-		this.driver = driver;
+	public AspectWebDriverEventListener(ApplicationContext context) {
+		super();
 		this.context = context;
-		this.destroyable = destroyable;
+	}
+
+	@Override
+	void onScopeResolved(WebDriverScope scope) {
+		driver = scope.getDriver();
 	}
 
 	private static Class<?> getClassForProxy(Class<?> classOfObject) {
@@ -148,6 +168,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		return null;
 	}
 
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = WebDriver.class, targetMethod = "get")
 	@BeforeTarget(targetClass = Navigation.class, targetMethod = "to")
 	// url can be an instance of String of URL
@@ -156,6 +177,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		beforeNavigateTo(String.valueOf(url), driver);
 	}
 
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = WebDriver.class, targetMethod = "get")
 	@AfterTarget(targetClass = Navigation.class, targetMethod = "to")
 	// url can be an instance of String of URL
@@ -188,6 +210,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	/**
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#beforeNavigateBack(org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = Navigation.class, targetMethod = "back")
 	@Override
 	public void beforeNavigateBack(@SupportParam WebDriver driver) {
@@ -199,6 +222,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	/**
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#afterNavigateBack(org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = Navigation.class, targetMethod = "back")
 	@Override
 	public void afterNavigateBack(@SupportParam WebDriver driver) {
@@ -210,6 +234,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	/**
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#beforeNavigateForward(org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = Navigation.class, targetMethod = "forward")
 	@Override
 	public void beforeNavigateForward(@SupportParam WebDriver driver) {
@@ -221,6 +246,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	/**
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#afterNavigateForward(org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = Navigation.class, targetMethod = "forward")
 	@Override
 	public void afterNavigateForward(@SupportParam WebDriver driver) {
@@ -232,6 +258,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#beforeFindBy(org.openqa.selenium.By,
 	 *      org.openqa.selenium.WebElement, org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.FINE)
 	@BeforeTarget(targetClass = WebDriver.class, targetMethod = "findElement")
 	@BeforeTarget(targetClass = WebDriver.class, targetMethod = "findElements")
 	@BeforeTarget(targetClass = WebElement.class, targetMethod = "findElement")
@@ -252,6 +279,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#afterFindBy(org.openqa.selenium.By,
 	 *      org.openqa.selenium.WebElement, org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.FINE)
 	@AfterTarget(targetClass = WebDriver.class, targetMethod = "findElement")
 	@AfterTarget(targetClass = WebDriver.class, targetMethod = "findElements")
 	@AfterTarget(targetClass = WebElement.class, targetMethod = "findElement")
@@ -268,6 +296,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		proxyListener.afterFindBy(by, element, driver);
 	}
 
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = WebElement.class, targetMethod = "click")
 	@Override
 	public void beforeClickOn(@TargetParam WebElement element,
@@ -282,6 +311,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#afterClickOn(org.openqa.selenium.WebElement,
 	 *      org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = WebElement.class, targetMethod = "click")
 	@Override
 	public void afterClickOn(@TargetParam WebElement element,
@@ -294,6 +324,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#beforeChangeValueOf(org.openqa.selenium.WebElement,
 	 *      org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = WebElement.class, targetMethod = "sendKeys")
 	@BeforeTarget(targetClass = WebElement.class, targetMethod = "clear")
 	@BeforeTarget(targetClass = MobileElement.class, targetMethod = "setValue")
@@ -311,6 +342,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * org.openqa.selenium.support.events.WebDriverEventListener#afterChangeValueOf
 	 * (org.openqa.selenium.WebElement, org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = WebElement.class, targetMethod = "sendKeys")
 	@AfterTarget(targetClass = WebElement.class, targetMethod = "clear")
 	@AfterTarget(targetClass = MobileElement.class, targetMethod = "setValue")
@@ -327,6 +359,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#beforeScript(java.lang.String,
 	 *      org.openqa.selenium.WebDriver)
 	 */
+	@Observational
 	@BeforeTarget(targetClass = JavascriptExecutor.class, targetMethod = "executeAsyncScript")
 	@BeforeTarget(targetClass = JavascriptExecutor.class, targetMethod = "executeScript")
 	@Override
@@ -339,6 +372,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see org.openqa.selenium.support.events.WebDriverEventListener#afterScript(java.lang.String,
 	 *      org.openqa.selenium.WebDriver)
 	 */
+	@Observational
 	@AfterTarget(targetClass = JavascriptExecutor.class, targetMethod = "executeAsyncScript")
 	@AfterTarget(targetClass = JavascriptExecutor.class, targetMethod = "executeScript")
 	@Override
@@ -362,6 +396,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#afterAlertAccept(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.Alert)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = Alert.class, targetMethod = "accept")
 	@Override
 	public void afterAlertAccept(@SupportParam WebDriver driver,
@@ -375,6 +410,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#afterAlertDismiss
 	 * (org.openqa.selenium.WebDriver, org.openqa.selenium.Alert)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = Alert.class, targetMethod = "dismiss")
 	@Override
 	public void afterAlertDismiss(@SupportParam WebDriver driver,
@@ -387,6 +423,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#afterAlertSendKeys(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.Alert, java.lang.String)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = Alert.class, targetMethod = "sendKeys")
 	@Override
 	public void afterAlertSendKeys(@SupportParam WebDriver driver,
@@ -399,6 +436,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#afterSubmit(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.WebElement)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@AfterTarget(targetClass = WebElement.class, targetMethod = "submit")
 	@Override
 	public void afterSubmit(@SupportParam WebDriver driver,
@@ -411,6 +449,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#beforeAlertAccept(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.Alert)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = Alert.class, targetMethod = "accept")
 	@Override
 	public void beforeAlertAccept(@SupportParam WebDriver driver,
@@ -423,6 +462,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#beforeAlertDismiss(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.Alert)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = Alert.class, targetMethod = "dismiss")
 	@Override
 	public void beforeAlertDismiss(@SupportParam WebDriver driver,
@@ -435,6 +475,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#beforeAlertSendKeys(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.Alert, java.lang.String)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = Alert.class, targetMethod = "sendKeys")
 	@Override
 	public void beforeAlertSendKeys(@SupportParam WebDriver driver,
@@ -447,6 +488,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#beforeSubmit(org.openqa.selenium.WebDriver,
 	 *      org.openqa.selenium.WebElement)
 	 */
+	@Observational(logLevel = eAvailableLevels.INFO)
 	@BeforeTarget(targetClass = WebElement.class, targetMethod = "submit")
 	@Override
 	public void beforeSubmit(@SupportParam WebDriver driver,
@@ -461,6 +503,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#beforeFindBy(java.lang.String,
 	 *      org.openqa.selenium.WebElement, org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.FINE)
 	@BeforeTarget(targetClass = AndroidDriver.class, targetMethod = "findElementByAndroidUIAutomator")
 	@BeforeTarget(targetClass = AndroidDriver.class, targetMethod = "findElementsByAndroidUIAutomator")
 	@BeforeTarget(targetClass = IOSDriver.class, targetMethod = "findElementByIosUIAutomation")
@@ -489,6 +532,7 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	 * @see com.github.arachnidium.core.eventlisteners.IWebDriverEventListener#afterFindBy(java.lang.String,
 	 *      org.openqa.selenium.WebElement, org.openqa.selenium.WebDriver)
 	 */
+	@Observational(logLevel = eAvailableLevels.FINE)
 	@AfterTarget(targetClass = AndroidDriver.class, targetMethod = "findElementByAndroidUIAutomator")
 	@AfterTarget(targetClass = AndroidDriver.class, targetMethod = "findElementsByAndroidUIAutomator")
 	@AfterTarget(targetClass = IOSDriver.class, targetMethod = "findElementByIosUIAutomation")
@@ -513,43 +557,18 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		proxyListener.afterFindBy(byString, element, driver);
 	}
 
-	private String addToDescription(WebElement element, String attribute,
-			String description) {
-		try {
-			if (element.getAttribute(attribute) == null)
-				return description;
-			if (element.getAttribute(attribute).equals(""))
-				return description;
-			description += " " + attribute + ": "
-					+ String.valueOf(element.getAttribute(attribute));
-		} catch (Exception e) {
-		}
-		return description;
-	}
-
-	private String elementDescription(WebElement element) {
-		String description = "";
-		if (element == null)
-			return description;
-
-		if (!String.valueOf(element.getTagName()).equals(""))
-			description += "tag:" + String.valueOf(element.getTagName());
-		description = addToDescription(element, "id", description);
-		description = addToDescription(element, "name", description);
-		if (!"".equals(element.getText()))
-			description += " ('" + String.valueOf(element.getText()) + "')";
-		if (!description.equals(""))
-			description = " Element is: " + description;
-
-		return description;
-	}
-
 	private void highlightElementAndLogAction(WebElement element,
 			String logMessage, HowToHighLightElement howToHighLightElement) {
-		String elementDescription = elementDescription(element);
-		highLighter.resetAccordingTo(configurationWrapper
-				.getWrappedConfiguration());
-		howToHighLightElement.highLight(highLighter, driver, element,
+		WebDriverScope scope = this.scope;
+		String elementDescription = (scope == null) ? descriptionProvider
+				.describe(driver, element, null, new ScriptSupport())
+				: descriptionProvider.describe(driver, element, scope
+						.getFocus().getHandle(), scope.getScriptSupport());
+		if (scope == null) {
+			Log.debug(logMessage + elementDescription);
+			return;
+		}
+		howToHighLightElement.highLight(scope.getHighlighter(), driver, element,
 				logMessage + elementDescription);
 	}
 
@@ -559,27 +578,219 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 		}
 		Object o = getListenable(result);
 		if (o != null) { // ...so listenable object will be returned! ha-ha-ha
-			result = context.getBean(MainBeanConfiguration.COMPONENT_BEAN, o);
+			result = context.getBean(MainBeanConfiguration.COMPONENT_BEAN, o,
+					scope);
 		}
 		return result;
 	}
 
-	// List of WebElement
+	// List of WebElement. Items are made listenable when they are got
 	private List<Object> returnProxyList(List<Object> originalList) {
-		try {
-			List<Object> proxyList = new ArrayList<>();
-			for (Object o : originalList) {
-				if (getClassForProxy(o.getClass()) == null) {
-					proxyList.add(o);
-				}
-				proxyList.add(context.getBean(
-						MainBeanConfiguration.COMPONENT_BEAN, o));
+		return new LazyListenableList(originalList,
+				this::transformToListenable);
+	}
+
+	private static int calculateBookkeeping(Object target, String name) {
+		int flags = 0;
+		if (name.startsWith(FIND)) {
+			flags |= PREPARES_SEARCH;
+		}
+		boolean isDriverMethod = target instanceof WebDriver;
+		boolean isGet = isDriverMethod && GET.equals(name);
+		boolean isClosing = isDriverMethod
+				&& (CLOSE.equals(name) || QUIT.equals(name));
+		boolean isAction = target instanceof WebElement
+				&& (CLICK.equals(name) || SUBMIT.equals(name));
+		if (isClosing || (isDriverMethod && GET_WINDOW_HANDLES.equals(name))) {
+			flags |= CHANGES_WINDOW_HANDLES;
+		}
+		if (target instanceof Navigation || isGet) {
+			flags |= NAVIGATES | CHANGES_FOCUS | CHANGES_WINDOW_METADATA;
+		}
+		if (isClosing) {
+			flags |= CHANGES_FOCUS | CHANGES_WINDOW_METADATA;
+		}
+		if ((target instanceof TargetLocator && (WINDOW.equals(name) || FRAME_SWITCHING
+				.contains(name)))
+				|| (target instanceof ContextAware && CONTEXT.equals(name))) {
+			flags |= CHANGES_FOCUS;
+		}
+		if (isAction) {
+			flags |= CHANGES_FOCUS | CHANGES_WINDOW_METADATA | MAY_OPEN_WINDOW;
+		}
+		if (target instanceof JavascriptExecutor
+				&& (EXECUTE_SCRIPT.equals(name) || EXECUTE_ASYNC_SCRIPT
+						.equals(name))) {
+			flags |= MAY_OPEN_WINDOW | RUNS_SCRIPT;
+		}
+		if (target instanceof Options && TIME_OUTS.equals(name)) {
+			flags |= ACCESSES_TIME_OUTS;
+		}
+		return flags;
+	}
+
+	/**
+	 * @return flags of the bookkeeping which is required by the command
+	 */
+	private static int getBookkeeping(ProceedingJoinPoint point) {
+		Object target = point.getTarget();
+		String name = point.getSignature().getName();
+		if (target == null) {
+			return calculateBookkeeping(null, name);
+		}
+		ConcurrentHashMap<String, Integer> flags = BOOKKEEPING.get(target
+				.getClass());
+		Integer result = flags.get(name);
+		if (result == null) {
+			result = calculateBookkeeping(target, name);
+			flags.put(name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Keeps the last known set of window handles actual. It is updated by
+	 * results of <code>getWindowHandles</code>. It becomes unknown when a
+	 * window is closed or is not found.
+	 */
+	@SuppressWarnings("unchecked")
+	private void updateWindowHandles(ProceedingJoinPoint point, Object result,
+			Throwable t, int bookkeeping) {
+		if (scope == null
+				|| (t == null && (bookkeeping & CHANGES_WINDOW_HANDLES) == 0)) {
+			return;
+		}
+		HandleSetSnapshot windowHandles = scope.getWindowHandles();
+		if (t != null) {
+			if (getRootCause(t) instanceof NoSuchWindowException) {
+				windowHandles.invalidate();
 			}
-			return proxyList;
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+			return;
+		}
+		if (!(point.getTarget() instanceof WebDriver)) {
+			return;
 		}
+		String name = point.getSignature().getName();
+		if (GET_WINDOW_HANDLES.equals(name) && result instanceof Set) {
+			windowHandles.update((Set<String>) result);
+			return;
+		}
+		if (CLOSE.equals(name) || QUIT.equals(name)) {
+			windowHandles.invalidate();
+		}
+	}
+
+	/**
+	 * The focus becomes unknown when something switches it besides the
+	 * framework, the page is navigated, a window is closed or is not found
+	 * etc. Frames become unknown after clicks and submits because they may
+	 * reload the page. The framework records the focus after it has
+	 * switched it.
+	 *
+	 * @see FocusTracker
+	 */
+	private void updateFocus(ProceedingJoinPoint point, Throwable t,
+			int bookkeeping) {
+		if (scope == null || (t == null && (bookkeeping & CHANGES_FOCUS) == 0)) {
+			return;
+		}
+		FocusTracker focus = scope.getFocus();
+		if (t != null) {
+			Throwable rootCause = getRootCause(t);
+			if (rootCause instanceof NoSuchWindowException
+					|| rootCause instanceof NoSuchFrameException
+					|| rootCause instanceof NoSuchContextException
+					|| rootCause instanceof StaleElementReferenceException) {
+				focus.invalidate();
+			}
+			return;
+		}
+		Object target = point.getTarget();
+		String name = point.getSignature().getName();
+		if (target instanceof TargetLocator) {
+			if (WINDOW.equals(name)) {
+				focus.invalidate();
+			} else if (FRAME_SWITCHING.contains(name)) {
+				focus.invalidateFrames();
+			}
+			return;
+		}
+		if (target instanceof Navigation || target instanceof WebElement) {
+			focus.invalidateFrames();
+			return;
+		}
+		if (target instanceof ContextAware && CONTEXT.equals(name)) {
+			focus.invalidate();
+			return;
+		}
+		if (target instanceof WebDriver) {
+			if (GET.equals(name)) {
+				focus.invalidateFrames();
+			} else if (CLOSE.equals(name) || QUIT.equals(name)) {
+				focus.invalidate();
+			}
+		}
+	}
+
+	/**
+	 * Titles and URLs of windows become unknown after navigation and
+	 * actions which may cause it. Navigations are counted by the scope
+	 */
+	private void updateWindowMetadata(ProceedingJoinPoint point, Throwable t,
+			int bookkeeping) {
+		if (scope == null
+				|| (t == null && (bookkeeping & (NAVIGATES | CHANGES_WINDOW_METADATA)) == 0)) {
+			return;
+		}
+		WindowMetadataSnapshot metadata = scope.getWindowMetadata();
+		if (t != null) {
+			if (getRootCause(t) instanceof NoSuchWindowException) {
+				metadata.invalidate();
+			}
+			return;
+		}
+		if ((bookkeeping & NAVIGATES) != 0) {
+			scope.navigated();
+		}
+		if ((bookkeeping & CHANGES_WINDOW_METADATA) != 0) {
+			metadata.invalidate();
+		}
+	}
+
+	/**
+	 * Clicks, submits and scripts may open new windows. Waiting for a window
+	 * is notified about them. Scripts of the framework itself are ignored
+	 *
+	 * @see WindowOpeningHints#runWithoutHints(java.util.function.Supplier)
+	 */
+	private void hintWindowOpening(int bookkeeping) {
+		if (scope == null || (bookkeeping & MAY_OPEN_WINDOW) == 0) {
+			return;
+		}
+		if ((bookkeeping & RUNS_SCRIPT) != 0 && WindowOpeningHints.isSilent()) {
+			return;
+		}
+		scope.getWindowOpeningHints().hint();
+	}
+
+	/**
+	 * Time outs may be set by something else but the framework (e.g. page
+	 * factories). So values which have been sent by the framework are not
+	 * known anymore
+	 */
+	private void timeOutsAccessed(int bookkeeping) {
+		if (scope != null && (bookkeeping & ACCESSES_TIME_OUTS) != 0) {
+			scope.timeOutsAccessed();
+		}
+	}
 
+	/**
+	 * Searches may require time outs which have been postponed
+	 */
+	private void prepareSearch(int bookkeeping) {
+		if (scope != null && (bookkeeping & PREPARES_SEARCH) != 0) {
+			scope.beforeSearch();
+		}
 	}
 
 	/**
@@ -589,20 +800,54 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	@Override
 	@Around(POINTCUT_VALUE)
 	public Object doAround(ProceedingJoinPoint point) throws Throwable {
-		launchMethod(point, this, WhenLaunch.BEFORE);
+		resolveScope(point);
+		boolean isConsumed = isConsumed(point, this, !ListenerRegistry
+				.getListeners(IWebDriverEventListener.class).isEmpty());
+		int bookkeeping = getBookkeeping(point);
+		// the search which is performed by the script of the framework
+		ScriptedSearch search = ((bookkeeping & RUNS_SCRIPT) != 0) ? ScriptedSearch
+				.take() : null;
+		if (isConsumed) {
+			descriptionProvider.invalidate();
+			if (search != null) {
+				beforeFindBy(search.getBy(), search.getRoot(), driver);
+			} else {
+				launchMethod(point, this, WhenLaunch.BEFORE);
+			}
+		}
+		prepareSearch(bookkeeping);
 		Throwable t = null;
 		Object result = null;
+		long start = Latencies.start();
 		try {
 			result = point.proceed();
 		} catch (Exception e) {
 			onException(e, driver);
 			t = e;
 			;
+		} finally {
+			Latencies.record(eLatencyCategories.COMMAND, point.getSignature()
+					.getName(), driver, start);
+		}
+		if (t != null || bookkeeping != 0) {
+			updateWindowHandles(point, result, t, bookkeeping);
+			updateFocus(point, t, bookkeeping);
+			updateWindowMetadata(point, t, bookkeeping);
+			hintWindowOpening(bookkeeping);
+			timeOutsAccessed(bookkeeping);
 		}
 		if (t != null) {
 			throw getRootCause(t);
 		}
-		launchMethod(point, this, WhenLaunch.AFTER);
+		if (isConsumed && search != null) {
+			afterFindBy(search.getBy(), search.getRoot(), driver);
+		} else if (isConsumed) {
+			if (!point.getSignature().getName().startsWith(FIND)) {
+				// the action may have changed the element state
+				descriptionProvider.invalidate();
+			}
+			launchMethod(point, this, WhenLaunch.AFTER);
+		}
 
 		if (result == null) { // maybe it was "void"
 			return result;
@@ -619,8 +864,14 @@ class AspectWebDriverEventListener extends AbstractAspect implements
 	@Override
 	@BeforeTarget(targetClass = WebDriver.class, targetMethod = "quit")
 	public void beforeQuit(@SupportParam WebDriver driver) {
-		destroyable.destroy();
+		if (scope != null) {
+			scope.getDestroyable().destroy();
+		}
 		proxyListener.beforeQuit(driver);
+		if (scope != null) {
+			// queued events are delivered while the driver is alive
+			scope.flushEvents();
+		}
 	}
 
 }
@@ -1,13 +1,5 @@
 package com.github.arachnidium.core.bean;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ServiceLoader;
-
-import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
 import com.github.arachnidium.util.logging.Log;
 
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -31,34 +23,11 @@ import com.github.arachnidium.core.settings.ScreenShots;
 class AspectWindowListener extends DefaultHandleListener implements
 		IWindowListener {
 	
-	private final List<IWindowListener> windowEventListeners = new ArrayList<IWindowListener>(){
-		private static final long serialVersionUID = 1L;
-		{   //SPI
-			Iterator<?> providers = ServiceLoader.load(
-					IWindowListener.class).iterator();
-			while (providers.hasNext())
-				add((IWindowListener) providers.next());	
-		}		
-	};
-	private final InvocationHandler windowListenerInvocationHandler = (proxy,
-			method, args) -> {
-		windowEventListeners.forEach((eventListener) -> {
-			try {
-				method.invoke(eventListener, args);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			};
-		});
-		return null;
-	};
+	private final IWindowListener windowListenerProxy = ListenerRegistry
+			.getDispatcher(IWindowListener.class, this);
 
-	private final IWindowListener windowListenerProxy = (IWindowListener) Proxy
-			.newProxyInstance(IWindowListener.class.getClassLoader(),
-					new Class[] { IWindowListener.class },
-					windowListenerInvocationHandler);	
-	
-	public AspectWindowListener(IConfigurationWrapper configurationWrapper) {
-		super(configurationWrapper);
+	public AspectWindowListener() {
+		super();
 	}
 
 	/**
@@ -251,6 +220,7 @@ class AspectWindowListener extends DefaultHandleListener implements
 			+ "execution(* com.github.arachnidium.core.interfaces.ISwitchesToItself.*(..)) || " +
 			"execution(* org.openqa.selenium.WebDriver.Window.*(..))")
 	public Object doAround(ProceedingJoinPoint point) throws Throwable {
+		resolveScope(point);
 		launchMethod(point, this, WhenLaunch.BEFORE);
 		Object result = null;
 		try {
@@ -1,7 +1,5 @@
 package com.github.arachnidium.core.bean;
 
-import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
-
 import com.github.arachnidium.core.eventlisteners.IHandletListener;
 import com.github.arachnidium.core.interfaces.IHasHandle;
 
@@ -12,8 +10,8 @@ import com.github.arachnidium.core.interfaces.IHasHandle;
  */
 abstract class DefaultHandleListener extends AbstractAspect implements IHandletListener {
 
-	public DefaultHandleListener(IConfigurationWrapper configurationWrapper) {
-		super(configurationWrapper);
+	public DefaultHandleListener() {
+		super();
 	}
 
 	
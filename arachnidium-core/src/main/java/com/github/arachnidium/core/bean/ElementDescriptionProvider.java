@@ -0,0 +1,217 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.List;
+
+import org.openqa.selenium.ContextAware;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import com.github.arachnidium.core.MobileContextNamePatterns;
+
+/**
+ * Describes {@link WebElement} for logging and highlighting.<br/>
+ * <br/>
+ * Tag, id, name, class, value and the truncated text are collected by the
+ * only script call. If scripts are not supported (e.g. by native mobile
+ * contexts) then the element is described by separated commands. Scripts
+ * are turned off only when the driver doesn't support them at all or inside
+ * native contexts. It is remembered per driver ({@link ScriptSupport}). Other
+ * failures of the script (e.g. a script error) affect only the current
+ * description.<br/>
+ * <br/>
+ * The stale element is described by the placeholder.<br/>
+ * <br/>
+ * The last description is cached. It is reused while the same element is
+ * described during the same action.
+ */
+class ElementDescriptionProvider {
+
+	private final static int MAX_TEXT_LENGTH = 64;
+	private final static String TRUNCATED = "...";
+	private final static String STALE_ELEMENT = "stale element";
+	private final static String DESCRIPTION_SCRIPT = "var e = arguments[0];"
+			+ "var text = e.innerText;"
+			+ "if (text === undefined || text === null) {text = e.textContent || '';}"
+			+ "text = String(text).replace(/\\s+/g, ' ').trim();"
+			+ "return [String(e.tagName || '').toLowerCase(), e.getAttribute('id'), "
+			+ "e.getAttribute('name'), e.getAttribute('class'), "
+			+ "(e.value === undefined || e.value === null) ? null : String(e.value), "
+			+ "text.substring(0, arguments[1] + 1)];";
+
+	private final static String[] ATTRIBUTES = new String[] { "id", "name",
+			"class", "value" };
+
+	private volatile CachedDescription cached;
+
+	private static class CachedDescription {
+		private final WebElement element;
+		private final String description;
+
+		private CachedDescription(WebElement element, String description) {
+			this.element = element;
+			this.description = description;
+		}
+	}
+
+	/**
+	 * The cached description is not valid anymore. It should be invoked when
+	 * the action is started or it has changed the element state
+	 */
+	void invalidate() {
+		cached = null;
+	}
+
+	private static String addToDescription(String description,
+			String attribute, Object value) {
+		if (value == null) {
+			return description;
+		}
+		String strValue = String.valueOf(value);
+		if ("".equals(strValue)) {
+			return description;
+		}
+		return description + " " + attribute + ": " + strValue;
+	}
+
+	private static String addText(String description, Object text) {
+		if (text == null) {
+			return description;
+		}
+		String strText = String.valueOf(text);
+		if ("".equals(strText)) {
+			return description;
+		}
+		if (strText.length() > MAX_TEXT_LENGTH) {
+			strText = strText.substring(0, MAX_TEXT_LENGTH) + TRUNCATED;
+		}
+		return description + " ('" + strText + "')";
+	}
+
+	private static String compose(List<?> values) {
+		String description = "";
+		String tag = String.valueOf(values.get(0));
+		if (!"".equals(tag) && values.get(0) != null) {
+			description += "tag:" + tag;
+		}
+		for (int i = 0; i < ATTRIBUTES.length; i++) {
+			description = addToDescription(description, ATTRIBUTES[i],
+					values.get(i + 1));
+		}
+		return addText(description, values.get(values.size() - 1));
+	}
+
+	/**
+	 * @return the name of the current context if it is native. Null is
+	 *         returned otherwise
+	 */
+	private static String getNativeContext(WebDriver driver) {
+		if (!(driver instanceof ContextAware)) {
+			return null;
+		}
+		try {
+			String context = ((ContextAware) driver).getContext();
+			if (context != null
+					&& context.contains(MobileContextNamePatterns.NATIVE)) {
+				return context;
+			}
+			return null;
+		} catch (WebDriverException e) {
+			return null;
+		}
+	}
+
+	private static String describeByScript(WebDriver driver,
+			WebElement element, String focus, ScriptSupport scriptSupport) {
+		if (!(driver instanceof JavascriptExecutor)
+				|| !scriptSupport.isSupported(focus)) {
+			return null;
+		}
+		try {
+			Object result = WindowOpeningHints
+					.runWithoutHints(() -> ((JavascriptExecutor) driver)
+							.executeScript(DESCRIPTION_SCRIPT, element,
+									MAX_TEXT_LENGTH));
+			if (!(result instanceof List)) {
+				return null;
+			}
+			List<?> values = (List<?>) result;
+			if (values.size() != ATTRIBUTES.length + 2) {
+				return null;
+			}
+			return compose(values);
+		} catch (StaleElementReferenceException e) {
+			throw e;
+		} catch (UnsupportedOperationException | UnsupportedCommandException e) {
+			scriptSupport.turnOff();
+			return null;
+		} catch (WebDriverException e) {
+			// the native context or something that is wrong with this
+			// element only
+			String context = getNativeContext(driver);
+			if (context != null) {
+				scriptSupport.turnOffInside(context);
+			}
+			return null;
+		}
+	}
+
+	private static String getAttribute(WebElement element, String attribute) {
+		try {
+			return element.getAttribute(attribute);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private static String describeByCommands(WebElement element) {
+		String description = "";
+		String tag = String.valueOf(element.getTagName());
+		if (!"".equals(tag)) {
+			description += "tag:" + tag;
+		}
+		description = addToDescription(description, "id",
+				getAttribute(element, "id"));
+		description = addToDescription(description, "name",
+				getAttribute(element, "name"));
+		return addText(description, element.getText());
+	}
+
+	/**
+	 * @param driver is the {@link WebDriver} the element belongs to
+	 * @param element is the element to be described
+	 * @param focus is the window/context the driver is focused on. It may be
+	 *            null if it is not known
+	 * @param scriptSupport is what is known about scripts of the driver
+	 * @return The description of the given element
+	 */
+	String describe(WebDriver driver, WebElement element, String focus,
+			ScriptSupport scriptSupport) {
+		if (element == null) {
+			return "";
+		}
+		CachedDescription current = cached;
+		if (current != null && current.element == element) {
+			return current.description;
+		}
+
+		String description;
+		try {
+			description = describeByScript(driver, element, focus,
+					scriptSupport);
+			if (description == null) {
+				description = describeByCommands(element);
+			}
+		} catch (StaleElementReferenceException e) {
+			description = STALE_ELEMENT;
+		}
+		if (!"".equals(description)) {
+			description = " Element is: " + description;
+		}
+		cached = new CachedDescription(element, description);
+		return description;
+	}
+}
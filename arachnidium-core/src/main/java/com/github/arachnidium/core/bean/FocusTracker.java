@@ -0,0 +1,124 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * The window handle/context name and the frame path the certain
+ * {@link WebDriver} is focused on.<br/>
+ * <br/>
+ * The state is recorded after the framework switches the focus. So repeated
+ * switching to the same window and frames can be skipped. The state becomes
+ * unknown when something else switches the focus (raw
+ * <code>switchTo()</code> calls, navigation, window closing etc.). Frames
+ * become unknown after clicks and submits.<br/>
+ * <br/>
+ * If the command fails after the skipped switching because the window,
+ * frame or element is not found then the focus is set again and the command
+ * is repeated once.
+ */
+public final class FocusTracker {
+
+	private static class Focus {
+		private final String handle;
+		/**
+		 * Null means that frames are not known
+		 */
+		private final List<Object> framePath;
+
+		private Focus(String handle, List<Object> framePath) {
+			this.handle = handle;
+			this.framePath = framePath;
+		}
+	}
+
+	/**
+	 * Null means that the focus is not known
+	 */
+	private volatile Focus focus;
+
+	FocusTracker() {
+		super();
+	}
+
+	/**
+	 * @return the window handle/context name the driver is focused on. Null
+	 *         is returned if it is not known
+	 */
+	public String getHandle() {
+		Focus current = focus;
+		return (current == null) ? null : current.handle;
+	}
+
+	/**
+	 * @return is the driver focused on the given window/context
+	 */
+	public boolean isFocusedOn(String handle) {
+		Focus current = focus;
+		return current != null && current.handle.equals(handle);
+	}
+
+	/**
+	 * The driver has been focused on the top level of the given
+	 * window/context
+	 */
+	public synchronized void focusedOn(String handle) {
+		focus = new Focus(handle, Collections.emptyList());
+	}
+
+	/**
+	 * @return the frame path inside the given window/context. Null is
+	 *         returned if the frame path is not known or the driver is
+	 *         focused on another window/context
+	 */
+	public List<Object> getFramePath(String handle) {
+		Focus current = focus;
+		if (current == null || !current.handle.equals(handle)) {
+			return null;
+		}
+		return current.framePath;
+	}
+
+	/**
+	 * The driver has been switched to the given frame path inside the
+	 * window/context it is focused on
+	 */
+	public synchronized void framesSwitched(String handle, List<Object> framePath) {
+		Focus current = focus;
+		if (current == null || !current.handle.equals(handle)) {
+			return;
+		}
+		focus = new Focus(handle, Collections
+				.unmodifiableList(new ArrayList<Object>(framePath)));
+	}
+
+	/**
+	 * Frames are changed in the unknown way. The window/context is the same
+	 */
+	public synchronized void invalidateFrames() {
+		Focus current = focus;
+		if (current != null) {
+			focus = new Focus(current.handle, null);
+		}
+	}
+
+	/**
+	 * The given window/context is closed
+	 */
+	public synchronized void closed(String handle) {
+		Focus current = focus;
+		if (current != null && current.handle.equals(handle)) {
+			focus = null;
+		}
+	}
+
+	/**
+	 * The focus is changed in the unknown way
+	 */
+	public synchronized void invalidate() {
+		focus = null;
+	}
+}
@@ -0,0 +1,117 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.github.arachnidium.core.settings.HandleSnapshot;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.interfaces.IConfigurable;
+
+/**
+ * The last known set of window handles/context names of the certain driver.<br/>
+ * <br/>
+ * It is updated by each received set of handles (e.g. results of
+ * <code>getWindowHandles</code>) and by events (a new handle is found, a
+ * window is closed, the driver quits). The set is trusted during the
+ * revalidation interval. So checks of handle existence don't require the
+ * round trip to the remote side.
+ *
+ * @see HandleSnapshot
+ */
+public final class HandleSetSnapshot implements IConfigurable {
+
+	/**
+	 * Null means that the set is not known
+	 */
+	private volatile Set<String> handles;
+	private volatile long validatedAt;
+	private volatile long revalidationInterval = TimeUnit.MILLISECONDS
+			.toNanos(1000);
+
+	HandleSetSnapshot() {
+		super();
+	}
+
+	/**
+	 * Stores the actual set of handles
+	 *
+	 * @param actual is the set which is received from the remote side
+	 * @return the given set
+	 */
+	public synchronized Set<String> update(Set<String> actual) {
+		if (actual == null) {
+			handles = null;
+			return null;
+		}
+		handles = Collections.unmodifiableSet(new HashSet<String>(actual));
+		validatedAt = System.nanoTime();
+		return actual;
+	}
+
+	/**
+	 * The new handle is found
+	 */
+	public synchronized void added(String handle) {
+		Set<String> current = handles;
+		if (current == null || current.contains(handle)) {
+			return;
+		}
+		Set<String> result = new HashSet<String>(current);
+		result.add(handle);
+		handles = Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * The handle is closed
+	 */
+	public synchronized void removed(String handle) {
+		Set<String> current = handles;
+		if (current == null || !current.contains(handle)) {
+			return;
+		}
+		Set<String> result = new HashSet<String>(current);
+		result.remove(handle);
+		handles = Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * The set of handles may have changed in the unknown way
+	 */
+	public synchronized void invalidate() {
+		handles = null;
+	}
+
+	/**
+	 * @return the last known set of handles even if it is expired. Null is
+	 *         returned if the set is not known
+	 */
+	public Set<String> getHandles() {
+		return handles;
+	}
+
+	/**
+	 * @return {@link Boolean#TRUE} if the handle is present,
+	 *         {@link Boolean#FALSE} if it is absent and null if the set should
+	 *         be requested from the remote side
+	 */
+	public Boolean contains(String handle) {
+		Set<String> current = handles;
+		long interval = revalidationInterval;
+		if (current == null || interval <= 0
+				|| System.nanoTime() - validatedAt > interval) {
+			return null;
+		}
+		return current.contains(handle);
+	}
+
+	/**
+	 * @see com.github.arachnidium.util.configuration.interfaces.IConfigurable#resetAccordingTo(com.github.arachnidium.util.configuration.Configuration)
+	 */
+	@Override
+	public void resetAccordingTo(Configuration config) {
+		revalidationInterval = TimeUnit.MILLISECONDS.toNanos(config
+				.getSection(HandleSnapshot.class).getRevalidationInterval());
+	}
+}
@@ -0,0 +1,89 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * This is the view of the list which is returned by the target method (e.g.
+ * <code>findElements</code>). Items are made listenable only when they are
+ * accessed at the first time. So large lists do not produce proxies which are
+ * never used. The size of the list is the size of the original list.
+ */
+class LazyListenableList extends AbstractList<Object> implements
+		RandomAccess {
+
+	/**
+	 * It marks items which have not been made listenable yet
+	 */
+	private final static Object NOT_TRANSFORMED = new Object();
+
+	private final List<Object> originalItems;
+	private final List<Object> transformedItems;
+	private final Function<Object, Object> toListenable;
+
+	/**
+	 * @param originalItems is the list which is returned by the target method
+	 * @param toListenable makes an item listenable. It returns the given item
+	 * if it can't be listenable
+	 */
+	LazyListenableList(List<Object> originalItems,
+			Function<Object, Object> toListenable) {
+		this.originalItems = new ArrayList<Object>(originalItems);
+		this.toListenable = toListenable;
+		int size = originalItems.size();
+		transformedItems = new ArrayList<Object>(size);
+		for (int i = 0; i < size; i++) {
+			transformedItems.add(NOT_TRANSFORMED);
+		}
+	}
+
+	@Override
+	public Object get(int index) {
+		Object item = transformedItems.get(index);
+		if (item != NOT_TRANSFORMED) {
+			return item;
+		}
+		Object original = originalItems.get(index);
+		item = (original == null) ? null : toListenable.apply(original);
+		transformedItems.set(index, item);
+		return item;
+	}
+
+	@Override
+	public int size() {
+		return originalItems.size();
+	}
+
+	/**
+	 * The given item is stored as is
+	 */
+	@Override
+	public Object set(int index, Object element) {
+		Object previous = get(index);
+		originalItems.set(index, element);
+		transformedItems.set(index, element);
+		return previous;
+	}
+
+	/**
+	 * The given item is stored as is
+	 */
+	@Override
+	public void add(int index, Object element) {
+		originalItems.add(index, element);
+		transformedItems.add(index, element);
+		modCount++;
+	}
+
+	@Override
+	public Object remove(int index) {
+		Object removed = get(index);
+		originalItems.remove(index);
+		transformedItems.remove(index);
+		modCount++;
+		return removed;
+	}
+}
@@ -0,0 +1,336 @@
+package com.github.arachnidium.core.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+
+import com.github.arachnidium.core.bean.AbstractAspect.AfterTarget;
+import com.github.arachnidium.core.bean.AbstractAspect.BeforeTarget;
+import com.github.arachnidium.core.bean.AbstractAspect.Observational;
+import com.github.arachnidium.core.bean.AbstractAspect.SupportField;
+import com.github.arachnidium.core.bean.AbstractAspect.SupportParam;
+import com.github.arachnidium.core.bean.AbstractAspect.TargetParam;
+import com.github.arachnidium.core.bean.AbstractAspect.UseParameter;
+import com.github.arachnidium.core.bean.AbstractAspect.WhenLaunch;
+import com.github.arachnidium.util.logging.Log;
+import com.github.arachnidium.util.logging.eAvailableLevels;
+
+/**
+ * Precompiled dispatch tables of listener methods.<br/>
+ * <br/>
+ * The listener method which should be invoked before/after the target method
+ * depends only on the listener class, {@link WhenLaunch}, the target class and
+ * the target method name. So all the reflection (annotation reading, parameter
+ * resolution, support field lookup) is performed only once per this
+ * combination. The result is a {@link MethodHandle} and an array of argument
+ * resolvers which are cached and reused by every next invocation.
+ *
+ * @see AbstractAspect#launchMethod(JoinPoint, Object, WhenLaunch)
+ */
+final class ListenerDispatchTable {
+
+	private final static ConcurrentHashMap<DispatchKey, ListenerInvoker> TABLE = new ConcurrentHashMap<>();
+	private final static MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private ListenerDispatchTable() {
+		super();
+	}
+
+	/**
+	 * Returns the precompiled invoker of the listener method. If there is no
+	 * suitable listener method {@link ListenerInvoker#NONE} is returned.
+	 */
+	static ListenerInvoker getInvoker(Class<?> listenerClass, WhenLaunch when,
+			Class<?> targetClass, String methodName) {
+		DispatchKey key = new DispatchKey(listenerClass, when, targetClass,
+				methodName);
+		ListenerInvoker invoker = TABLE.get(key);
+		if (invoker != null) {
+			return invoker;
+		}
+		invoker = compile(listenerClass, when, targetClass, methodName);
+		ListenerInvoker previous = TABLE.putIfAbsent(key, invoker);
+		if (previous != null) {
+			return previous;
+		}
+		return invoker;
+	}
+
+	/**
+	 * Invokes the listener method which is suitable for the given join point
+	 */
+	static void dispatch(JoinPoint joinPoint, Object aspectObject,
+			WhenLaunch when) {
+		Object target = joinPoint.getTarget();
+		getInvoker(aspectObject.getClass(), when, target.getClass(),
+				joinPoint.getSignature().getName()).invoke(aspectObject,
+				target, joinPoint.getArgs());
+	}
+
+	private static Class<?> getTargetClass(Annotation a) {
+		if (a instanceof BeforeTarget) {
+			return ((BeforeTarget) a).targetClass();
+		}
+		return ((AfterTarget) a).targetClass();
+	}
+
+	private static String getTargetMethod(Annotation a) {
+		if (a instanceof BeforeTarget) {
+			return ((BeforeTarget) a).targetMethod();
+		}
+		return ((AfterTarget) a).targetMethod();
+	}
+
+	private static boolean isSuitable(Annotation[] annotations,
+			Class<?> targetClass, String methodName) {
+		boolean isAssignable = false;
+		boolean isNamed = false;
+		for (Annotation a : annotations) {
+			isAssignable = isAssignable
+					|| getTargetClass(a).isAssignableFrom(targetClass);
+			isNamed = isNamed || getTargetMethod(a).equals(methodName);
+		}
+		return isAssignable && isNamed;
+	}
+
+	private static ListenerInvoker compile(Class<?> listenerClass,
+			WhenLaunch when, Class<?> targetClass, String methodName) {
+		for (Method m : listenerClass.getDeclaredMethods()) {
+			Annotation[] annotations = when.getAnnotations(m);
+			if (annotations.length == 0) {
+				continue;
+			}
+			if (!isSuitable(annotations, targetClass, methodName)) {
+				continue;
+			}
+			return new ListenerInvoker(toHandle(m), getResolvers(
+					listenerClass, m, targetClass),
+					m.getAnnotation(Observational.class));
+		}
+		return ListenerInvoker.NONE;
+	}
+
+	/**
+	 * The handle of the listener method is adapted to the
+	 * (Object, Object[])Object signature
+	 */
+	private static MethodHandle toHandle(Method m) {
+		try {
+			m.setAccessible(true);
+			int count = m.getParameterCount();
+			return LOOKUP.unreflect(m)
+					.asType(MethodType.genericMethodType(count + 1))
+					.asSpreader(Object[].class, count);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static MethodHandle getSupportFieldGetter(Class<?> listenerClass,
+			Class<?> requiredClass) {
+		for (Field f : listenerClass.getDeclaredFields()) {
+			if (!f.isAnnotationPresent(SupportField.class)) {
+				continue;
+			}
+			if (!requiredClass.isAssignableFrom(f.getType())) {
+				continue;
+			}
+			try {
+				f.setAccessible(true);
+				return LOOKUP.unreflectGetter(f).asType(
+						MethodType.genericMethodType(1));
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return null;
+	}
+
+	private static ArgumentResolver[] getResolvers(Class<?> listenerClass,
+			Method m, Class<?> targetClass) {
+		Parameter[] params = m.getParameters();
+		ArgumentResolver[] resolvers = new ArgumentResolver[params.length];
+		for (int i = 0; i < params.length; i++) {
+			Parameter p = params[i];
+			ArgumentResolver resolver = ArgumentResolver.NULL;
+			if (p.isAnnotationPresent(TargetParam.class)
+					&& p.getType().isAssignableFrom(targetClass)) {
+				resolver = ArgumentResolver.TARGET;
+			}
+			if (p.isAnnotationPresent(SupportParam.class)) {
+				MethodHandle getter = getSupportFieldGetter(listenerClass,
+						p.getType());
+				if (getter != null) {
+					resolver = new ArgumentResolver(getter);
+				}
+			}
+			if (p.isAnnotationPresent(UseParameter.class)) {
+				resolver = new ArgumentResolver(p.getAnnotation(
+						UseParameter.class).number());
+			}
+			resolvers[i] = resolver;
+		}
+		return resolvers;
+	}
+
+	/**
+	 * Resolves the value of one parameter of the listener method
+	 */
+	static final class ArgumentResolver {
+		private final static int NULL_VALUE = -1;
+		private final static int TARGET_VALUE = -2;
+		private final static int SUPPORT_FIELD_VALUE = -3;
+
+		final static ArgumentResolver NULL = new ArgumentResolver(NULL_VALUE,
+				null);
+		final static ArgumentResolver TARGET = new ArgumentResolver(
+				TARGET_VALUE, null);
+
+		/**
+		 * The index of target method parameter or one of the negative
+		 * constants above
+		 */
+		private final int index;
+		private final MethodHandle supportFieldGetter;
+
+		private ArgumentResolver(int index, MethodHandle supportFieldGetter) {
+			this.index = index;
+			this.supportFieldGetter = supportFieldGetter;
+		}
+
+		private ArgumentResolver(int parameterIndex) {
+			this(parameterIndex, null);
+		}
+
+		private ArgumentResolver(MethodHandle supportFieldGetter) {
+			this(SUPPORT_FIELD_VALUE, supportFieldGetter);
+		}
+
+		Object resolve(Object aspectObject, Object target, Object[] args)
+				throws Throwable {
+			switch (index) {
+			case NULL_VALUE:
+				return null;
+			case TARGET_VALUE:
+				return target;
+			case SUPPORT_FIELD_VALUE:
+				return (Object) supportFieldGetter.invokeExact(aspectObject);
+			default:
+				return args[index];
+			}
+		}
+	}
+
+	/**
+	 * Precompiled invocation of the listener method
+	 */
+	static final class ListenerInvoker {
+		final static ListenerInvoker NONE = new ListenerInvoker(null,
+				new ArgumentResolver[] {}, null);
+
+		private final MethodHandle handle;
+		private final ArgumentResolver[] resolvers;
+		/**
+		 * Null means that the listener method does something besides
+		 * observation
+		 */
+		private final Observational observational;
+
+		private ListenerInvoker(MethodHandle handle,
+				ArgumentResolver[] resolvers, Observational observational) {
+			this.handle = handle;
+			this.resolvers = resolvers;
+			this.observational = observational;
+		}
+
+		boolean isEmpty() {
+			return handle == null;
+		}
+
+		/**
+		 * @param hasListeners are there SPI listeners
+		 * @return is there something that consumes the event
+		 */
+		boolean isConsumed(boolean hasListeners) {
+			if (handle == null) {
+				return false;
+			}
+			if (observational == null || hasListeners) {
+				return true;
+			}
+			for (eAvailableLevels level : observational.logLevel()) {
+				if (Log.isLoggable(level)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		void invoke(Object aspectObject, Object target, Object[] args) {
+			if (handle == null) {
+				return;
+			}
+			try {
+				Object[] values = new Object[resolvers.length];
+				for (int i = 0; i < resolvers.length; i++) {
+					values[i] = resolvers[i].resolve(aspectObject, target,
+							args);
+				}
+				Object ignored = (Object) handle.invokeExact(aspectObject,
+						values);
+			} catch (Throwable t) {
+				throw new RuntimeException(t);
+			}
+		}
+	}
+
+	/**
+	 * listener class + {@link WhenLaunch} + target class + target method name
+	 */
+	private static final class DispatchKey {
+		private final Class<?> listenerClass;
+		private final WhenLaunch when;
+		private final Class<?> targetClass;
+		private final String methodName;
+		private final int hash;
+
+		private DispatchKey(Class<?> listenerClass, WhenLaunch when,
+				Class<?> targetClass, String methodName) {
+			this.listenerClass = listenerClass;
+			this.when = when;
+			this.targetClass = targetClass;
+			this.methodName = methodName;
+			int h = listenerClass.hashCode();
+			h = 31 * h + when.hashCode();
+			h = 31 * h + targetClass.hashCode();
+			h = 31 * h + methodName.hashCode();
+			this.hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof DispatchKey)) {
+				return false;
+			}
+			DispatchKey other = (DispatchKey) o;
+			return listenerClass == other.listenerClass && when == other.when
+					&& targetClass == other.targetClass
+					&& methodName.equals(other.methodName);
+		}
+	}
+}
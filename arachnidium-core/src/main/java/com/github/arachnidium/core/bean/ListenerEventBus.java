@@ -0,0 +1,203 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.arachnidium.core.settings.ListenerDelivery;
+import com.github.arachnidium.core.settings.ListenerDelivery.OverflowPolicy;
+import com.github.arachnidium.util.logging.Log;
+
+/**
+ * Delivers events to SPI listeners asynchronously.<br/>
+ * <br/>
+ * Events are put into the bounded ring buffer and are delivered by the only
+ * daemon thread in the order they were posted. When the buffer is full the
+ * {@link OverflowPolicy} is applied.<br/>
+ * <br/>
+ * The flushing doesn't put anything into the buffer. It waits until the
+ * number of delivered and discarded events reaches the number of events
+ * which have been posted before. So it can't be discarded by the policy.<br/>
+ * <br/>
+ * Event arguments (the driver, elements etc.) are handed to the delivery
+ * thread as they are. So listeners should only read them. They must not call
+ * the driver because it is used by the test thread at the same time.
+ *
+ * @see ListenerDelivery
+ */
+class ListenerEventBus {
+
+	private final static AtomicInteger BUS_NUMBER = new AtomicInteger();
+
+	private final BlockingQueue<Runnable> ringBuffer;
+	private final OverflowPolicy overflowPolicy;
+	private final long flushTimeOut;
+	private final AtomicLong discarded = new AtomicLong();
+	// events which have been posted to the buffer
+	private final AtomicLong posted = new AtomicLong();
+	// events which have been delivered or discarded
+	private final AtomicLong completed = new AtomicLong();
+	private final Object completion = new Object();
+	private volatile int flushers;
+	private final Thread worker;
+	private volatile boolean isStopped;
+
+	ListenerEventBus(ListenerDelivery delivery) {
+		this(delivery.getQueueCapacity(), delivery.getOverflowPolicy(),
+				delivery.getFlushTimeOut());
+	}
+
+	/**
+	 * @param capacity is the size of the ring buffer
+	 * @param overflowPolicy is applied when the buffer is full
+	 * @param flushTimeOut is the time (seconds) the flushing waits for
+	 */
+	ListenerEventBus(int capacity, OverflowPolicy overflowPolicy,
+			long flushTimeOut) {
+		ringBuffer = new ArrayBlockingQueue<Runnable>(capacity);
+		this.overflowPolicy = overflowPolicy;
+		this.flushTimeOut = flushTimeOut;
+		worker = new Thread(this::deliver, "arachnidium-listener-bus-"
+				+ BUS_NUMBER.incrementAndGet());
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	private void deliver() {
+		while (!isStopped || !ringBuffer.isEmpty()) {
+			Runnable event;
+			try {
+				event = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (event == null) {
+				continue;
+			}
+			try {
+				event.run();
+			} catch (RuntimeException e) {
+				Log.warning("A listener has thrown an exception. "
+						+ e.getClass().getName() + ": " + e.getMessage(), e);
+			} finally {
+				complete();
+			}
+		}
+	}
+
+	/**
+	 * The posted event has been delivered or discarded. Waiting flushes are
+	 * notified
+	 */
+	private void complete() {
+		completed.incrementAndGet();
+		if (flushers > 0) {
+			synchronized (completion) {
+				completion.notifyAll();
+			}
+		}
+	}
+
+	private void discard() {
+		if (discarded.incrementAndGet() == 1) {
+			Log.warning("The queue of listener events is full. "
+					+ "Some events are discarded according to the policy "
+					+ overflowPolicy.toString());
+		}
+	}
+
+	/**
+	 * Puts the event into the buffer
+	 */
+	void post(Runnable event) {
+		if (isStopped) {
+			event.run();
+			return;
+		}
+		// the event is counted before it can be delivered
+		posted.incrementAndGet();
+		switch (overflowPolicy) {
+		case DISCARD_NEWEST:
+			if (!ringBuffer.offer(event)) {
+				discard();
+				complete();
+			}
+			return;
+		case DISCARD_OLDEST:
+			while (!ringBuffer.offer(event)) {
+				if (ringBuffer.poll() != null) {
+					discard();
+					complete();
+				}
+			}
+			return;
+		case CALLER_RUNS:
+			if (!ringBuffer.offer(event)) {
+				try {
+					event.run();
+				} finally {
+					complete();
+				}
+			}
+			return;
+		default:
+			try {
+				ringBuffer.put(event);
+			} catch (InterruptedException e) {
+				complete();
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * This is the barrier. It waits until all the events which have been
+	 * posted before are delivered. It waits no longer than the flush time
+	 * out.
+	 */
+	void flush() {
+		if (isStopped || Thread.currentThread() == worker) {
+			return;
+		}
+		long target = posted.get();
+		long deadline = System.nanoTime()
+				+ TimeUnit.SECONDS.toNanos(flushTimeOut);
+		synchronized (completion) {
+			flushers++;
+			try {
+				while (completed.get() < target) {
+					long left = deadline - System.nanoTime();
+					if (left <= 0) {
+						Log.warning("Listener events have not been delivered in "
+								+ flushTimeOut + " seconds");
+						return;
+					}
+					TimeUnit.NANOSECONDS.timedWait(completion, left);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				flushers--;
+			}
+		}
+	}
+
+	/**
+	 * Delivers queued events and stops the delivery thread. Events which are
+	 * posted after that are delivered synchronously
+	 */
+	void stop() {
+		flush();
+		isStopped = true;
+		if (discarded.get() > 0) {
+			Log.warning(discarded.get() + " listener events were discarded");
+		}
+	}
+
+	long getDiscardedCount() {
+		return discarded.get();
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.arachnidium.core.bean;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.arachnidium.core.eventlisteners.IContextListener;
+import com.github.arachnidium.core.eventlisteners.IWebDriverEventListener;
+import com.github.arachnidium.core.eventlisteners.IWindowListener;
+
+/**
+ * Listeners which are provided by SPI ({@link IWebDriverEventListener},
+ * {@link IWindowListener}, {@link IContextListener}). They are discovered
+ * only once per JVM and are shared by all the aspects.
+ */
+final class ListenerRegistry {
+
+	private final static ConcurrentHashMap<Class<?>, List<?>> LISTENERS = new ConcurrentHashMap<>();
+
+	private ListenerRegistry() {
+		super();
+	}
+
+	private static <T> List<T> discover(Class<T> listenerInterface) {
+		List<T> result = new ArrayList<T>();
+		Iterator<T> providers = ServiceLoader.load(listenerInterface)
+				.iterator();
+		while (providers.hasNext()) {
+			result.add(providers.next());
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * @return listeners which implement the given interface
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> List<T> getListeners(Class<T> listenerInterface) {
+		return (List<T>) LISTENERS.computeIfAbsent(listenerInterface,
+				ListenerRegistry::discover);
+	}
+
+	private static void fanOut(List<?> listeners, Method method, Object[] args) {
+		for (Object listener : listeners) {
+			try {
+				method.invoke(listener, args);
+			} catch (IllegalAccessException | IllegalArgumentException
+					| InvocationTargetException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the object which delivers each event to all the listeners. If
+	 * the asynchronous delivery is turned on for the driver the aspect
+	 * belongs to then events are posted to the {@link ListenerEventBus}.
+	 *
+	 * @param listenerInterface is the SPI interface
+	 * @param aspect the aspect which fires events
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T getDispatcher(Class<T> listenerInterface,
+			final AbstractAspect aspect) {
+		final List<T> listeners = getListeners(listenerInterface);
+		return (T) Proxy.newProxyInstance(listenerInterface.getClassLoader(),
+				new Class[] { listenerInterface }, (proxy, method, args) -> {
+					if (method.getDeclaringClass().equals(Object.class)) {
+						return method.invoke(listeners, args);
+					}
+					if (listeners.isEmpty()) {
+						return null;
+					}
+					WebDriverScope scope = aspect.scope;
+					ListenerEventBus bus = (scope == null) ? null : scope
+							.getEventBus();
+					if (bus == null) {
+						fanOut(listeners, method, args);
+					} else {
+						bus.post(() -> fanOut(listeners, method, args));
+					}
+					return null;
+				});
+	}
+}
@@ -7,7 +7,6 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 
-import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
 import com.github.arachnidium.util.reflect.executable.ExecutableUtil;
 
 import org.openqa.selenium.Alert;
@@ -19,6 +18,8 @@ import org.openqa.selenium.WebDriver.Options;
 import org.openqa.selenium.WebDriver.TargetLocator;
 import org.openqa.selenium.WebElement;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -27,35 +28,63 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.context.support.AbstractApplicationContext;
 
 import com.github.arachnidium.core.interfaces.IContext;
-import com.github.arachnidium.core.interfaces.IDestroyable;
 import com.github.arachnidium.core.interfaces.IExtendedWindow;
 
 
 /**
- * This is {@link AnnotationConfigApplicationContext}
+ * This is {@link AnnotationConfigApplicationContext}.<br/>
+ * <br/>
+ * The context is shared by all the {@link WebDriver} instances of the JVM. So
+ * pointcuts are parsed and advisors are built only once. The per-driver state
+ * is kept by {@link WebDriverScope} instances which are given to bean
+ * factory methods.
  * 
+ * @see #getSharedContext()
  */
 @Configuration
 @EnableAspectJAutoProxy(proxyTargetClass = true)
-public class MainBeanConfiguration {
-	private IConfigurationWrapper wrapper;
-	private WebDriver driver;
-	private AbstractApplicationContext context;
-	private IDestroyable destroyable;
+public class MainBeanConfiguration implements ApplicationContextAware {
+	private ApplicationContext context;
+	
+	private static class SharedContextHolder {
+		private final static AbstractApplicationContext CONTEXT = createContext();
+
+		private static AbstractApplicationContext createContext() {
+			AbstractApplicationContext context = new AnnotationConfigApplicationContext(
+					MainBeanConfiguration.class);
+			context.registerShutdownHook();
+			return context;
+		}
+	}
 	
 	public final static String COMPONENT_BEAN = "component";
 	public final static String WEBDRIVER_BEAN = "webdriver";
 	public final static String WINDOW_BEAN    = "window";
 	public final static String MOBILE_CONTEXT_BEAN    = "mobile_context";
 	
+	/**
+	 * @return The {@link AbstractApplicationContext} which is shared by 
+	 * all the {@link WebDriver} instances. It is created once and closed 
+	 * when JVM shuts down.
+	 */
+	public static AbstractApplicationContext getSharedContext() {
+		return SharedContextHolder.CONTEXT;
+	}
+	
+	/**
+	 * @see org.springframework.context.ApplicationContextAware#setApplicationContext(org.springframework.context.ApplicationContext)
+	 */
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) {
+		this.context = applicationContext;
+	}
+	
 	/**
 	 * Creates {@link WebDriver} instance and makes it listenable.
 	 * 
-	 * @param context instantiated {@link AbstractApplicationContext} 
-	 * which is used by {@link AspectWebDriverEventListener}
-	 * @param configurationWrapper something that wraps {@link Configuration}
+	 * @param scope is the {@link WebDriverScope} of the new {@link WebDriver}.
+	 * It keeps the configuration and objects which should be destroyed after quit.
 	 * {@link AspectWebDriverEventListener} needs it
-	 * @param destroyable Something that implements {@link IDestroyable}
 	 * @param required Class of {@link WebDriver} implementor
 	 * @param paramClasses  Are constructor parameters
 	 * @param paramValues Are constructor parameter values
@@ -65,9 +94,7 @@ public class MainBeanConfiguration {
 	@SuppressWarnings("unchecked")
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = WEBDRIVER_BEAN)
-	public <T extends WebDriver> T getWebdriver(AbstractApplicationContext context, 
-			IConfigurationWrapper configurationWrapper,
-			IDestroyable destroyable,
+	public <T extends WebDriver> T getWebdriver(WebDriverScope scope,
 			Class<T> required,
 			Object[] paramValues) {
 		try {
@@ -78,7 +105,8 @@ public class MainBeanConfiguration {
 						"given parameters " + Arrays.asList(paramValues).toString());
 			}
 			T result = (T) c.newInstance(paramValues);
-			return (T) populate(context, configurationWrapper, destroyable, result);
+			scope.setDriver(result);
+			return scope.bind(result);
 		} catch (NoSuchMethodException | SecurityException
 				| InstantiationException | IllegalAccessException
 				| IllegalArgumentException | InvocationTargetException e) {
@@ -86,20 +114,10 @@ public class MainBeanConfiguration {
 		}
 	}
 	
-	private WebDriver populate(AbstractApplicationContext context, 
-			IConfigurationWrapper configurationWrapper,
-			IDestroyable destroyable,
-			WebDriver driver){
-		this.driver = driver;
-		wrapper = configurationWrapper;
-		this.destroyable = destroyable;
-		this.context = context;
-		return driver;
-	}
-	
 	/**
 	 * Makes an instance of {@link IExtendedWindow} listenable
 	 * @param window An original instance of {@link IExtendedWindow}
+	 * @param scope is the {@link WebDriverScope} the window belongs to
 	 * @return The listenable instance of {@link IExtendedWindow}
 	 * 
 	 * @see Bean
@@ -107,13 +125,15 @@ public class MainBeanConfiguration {
 	@SuppressWarnings("unchecked")
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = WINDOW_BEAN)
-	public <T extends IExtendedWindow> T getWindow(IExtendedWindow window) {
-		return (T) window;
+	public <T extends IExtendedWindow> T getWindow(IExtendedWindow window,
+			WebDriverScope scope) {
+		return (T) scope.bind(window);
 	}	
 	
 	/**
 	 * Makes an instance of {@link IContext} listenable
 	 * @param window An original instance of {@link IContext}
+	 * @param scope is the {@link WebDriverScope} the context belongs to
 	 * @return The listenable instance of {@link IContext}
 	 * 
 	 * @see Bean
@@ -121,8 +141,9 @@ public class MainBeanConfiguration {
 	@SuppressWarnings("unchecked")
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = MOBILE_CONTEXT_BEAN)
-	public <T extends IContext> T getContext(IContext context) {
-		return (T) context;
+	public <T extends IContext> T getContext(IContext context,
+			WebDriverScope scope) {
+		return (T) scope.bind(context);
 	}		
 	
 	/**
@@ -140,32 +161,33 @@ public class MainBeanConfiguration {
 	 * @see AppiumDriver
 	 *  
 	 * @param component It is an object of types above
+	 * @param scope is the {@link WebDriverScope} the component belongs to
 	 * @return The listenable object of types above
 	 * 
 	 * @see Bean
 	 */
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = COMPONENT_BEAN)
-	Object  getComponent(Object component) {
-		return component;
+	Object  getComponent(Object component, WebDriverScope scope) {
+		return scope.bind(component);
 	}	
 	
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = "webdriverAspect")
 	AspectWebDriverEventListener getWebdriverAspect(){
-		return new AspectWebDriverEventListener(driver, wrapper, destroyable, context);
+		return new AspectWebDriverEventListener(context);
 	}
 	
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = "windowAspect")
 	AspectWindowListener getWindowAspect(){
-		return new AspectWindowListener(wrapper);
+		return new AspectWindowListener();
 	}	
 	
 	@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 	@Bean(name = "contextAspect")
 	AspectContextListener getContextAspect(){
-		return new AspectContextListener(wrapper);
+		return new AspectContextListener();
 	}		
 
 }
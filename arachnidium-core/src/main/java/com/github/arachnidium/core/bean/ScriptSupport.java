@@ -0,0 +1,54 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+
+import com.github.arachnidium.core.MobileContextNamePatterns;
+
+/**
+ * What is known about the support of scripts by the certain
+ * {@link WebDriver}. It is kept by {@link WebDriverScope}. So it is shared by
+ * all the elements of the driver.<br/>
+ * <br/>
+ * Scripts are not run inside native mobile contexts and after the driver has
+ * rejected them at all.
+ */
+final class ScriptSupport {
+
+	private volatile boolean areScriptsSupported = true;
+	// native mobile contexts where scripts have failed
+	private final Set<String> contextsWithoutScripts = ConcurrentHashMap
+			.newKeySet();
+
+	/**
+	 * @param focus is the window/context the driver is focused on. It may be
+	 *            null if it is not known
+	 * @return true if the script can be run
+	 */
+	boolean isSupported(String focus) {
+		if (!areScriptsSupported) {
+			return false;
+		}
+		if (focus == null) {
+			return true;
+		}
+		return !focus.contains(MobileContextNamePatterns.NATIVE)
+				&& !contextsWithoutScripts.contains(focus);
+	}
+
+	/**
+	 * The driver doesn't support scripts at all
+	 */
+	void turnOff() {
+		areScriptsSupported = false;
+	}
+
+	/**
+	 * Scripts have failed inside the given native context
+	 */
+	void turnOffInside(String context) {
+		contextsWithoutScripts.add(context);
+	}
+}
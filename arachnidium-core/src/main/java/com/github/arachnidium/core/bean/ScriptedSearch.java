@@ -0,0 +1,75 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.function.Supplier;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * The search for elements which is performed by the script of the framework
+ * (e.g. the compiled locator). Listeners are notified about it as about the
+ * usual search by the given locator instead of the script.
+ *
+ * @see #run(By, WebElement, Supplier)
+ */
+public final class ScriptedSearch {
+
+	/**
+	 * The search which is being performed by the current thread
+	 */
+	private final static ThreadLocal<ScriptedSearch> CURRENT = new ThreadLocal<ScriptedSearch>();
+
+	private final By by;
+	private final WebElement root;
+
+	private ScriptedSearch(By by, WebElement root) {
+		this.by = by;
+		this.root = root;
+	}
+
+	/**
+	 * Runs the script which searches for elements. It is not considered as
+	 * the action which may open new windows
+	 *
+	 * @param by is the locator which is performed by the script
+	 * @param root is the element which is searched. It is null if the
+	 *            whole document is searched
+	 * @param search executes the script
+	 * @return the result of the search
+	 */
+	public static <T> T run(By by, WebElement root, Supplier<T> search) {
+		ScriptedSearch previous = CURRENT.get();
+		CURRENT.set(new ScriptedSearch(by, root));
+		try {
+			return WindowOpeningHints.runWithoutHints(search);
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * @return the search which is performed by the script the current thread
+	 *         is going to execute. Null is returned if there is no such
+	 *         search. Nested scripts (e.g. descriptions of elements) are not
+	 *         considered as the search
+	 */
+	static ScriptedSearch take() {
+		ScriptedSearch result = CURRENT.get();
+		if (result != null) {
+			CURRENT.remove();
+		}
+		return result;
+	}
+
+	By getBy() {
+		return by;
+	}
+
+	WebElement getRoot() {
+		return root;
+	}
+}
@@ -0,0 +1,302 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.openqa.selenium.WebDriver;
+
+import com.github.arachnidium.core.highlighting.WebElementHighLighter;
+import com.github.arachnidium.core.interfaces.IDestroyable;
+import com.github.arachnidium.core.settings.ListenerDelivery;
+import com.github.arachnidium.util.configuration.interfaces.IConfigurationWrapper;
+import com.google.common.collect.MapMaker;
+
+/**
+ * This is the lightweight per-driver state.<br/>
+ * <br/>
+ * The bean and aspect infrastructure ({@link MainBeanConfiguration}) is shared
+ * by all the {@link WebDriver} instances of the JVM. So everything that belongs
+ * to the certain {@link WebDriver} (configuration, objects that should be
+ * destroyed after quit etc.) is kept here. Each object which is made listenable
+ * is bound to the scope. Aspects find the scope by the target object.<br/>
+ * <br/>
+ * Bound objects and scopes are weakly referenced by the global map. The
+ * scope is kept by its owner (the encapsulation of the driver) and by
+ * aspects which have found it. So the driver which is abandoned without
+ * quitting is collected with everything that is bound to it.
+ */
+public final class WebDriverScope implements IDestroyable {
+
+	/**
+	 * Listenable targets are weakly referenced and compared by identity.
+	 * Scopes are weakly referenced too because they reach their targets
+	 */
+	private final static ConcurrentMap<Object, WebDriverScope> BOUND = new MapMaker()
+			.weakKeys().weakValues().makeMap();
+
+	// targets which are bound to this scope. They are weakly referenced
+	private final Set<Object> targets = Collections
+			.newSetFromMap(new MapMaker().weakKeys()
+					.<Object, Boolean> makeMap());
+	private final IConfigurationWrapper configurationWrapper;
+	private final IDestroyable destroyable;
+	private volatile WebDriver driver;
+	private volatile boolean isClosed;
+	private volatile boolean isDeliveryResolved;
+	private volatile ListenerEventBus eventBus;
+	private final WebElementHighLighter highlighter = new WebElementHighLighter();
+	private final HandleSetSnapshot windowHandles = new HandleSetSnapshot();
+	private final HandleSetSnapshot contextHandles = new HandleSetSnapshot();
+	private final FocusTracker focus = new FocusTracker();
+	private final WindowMetadataSnapshot windowMetadata = new WindowMetadataSnapshot();
+	private final WindowOpeningHints windowOpeningHints = new WindowOpeningHints();
+	private final ScriptSupport scriptSupport = new ScriptSupport();
+	private volatile Runnable beforeSearch;
+	private volatile BooleanSupplier implicitlyWait;
+	private volatile Runnable onTimeOutsAccess;
+	private final AtomicLong navigations = new AtomicLong();
+
+	/**
+	 * @param configurationWrapper something that wraps the configuration
+	 * @param destroyable something that should be destroyed when
+	 * {@link WebDriver} quits
+	 */
+	public WebDriverScope(IConfigurationWrapper configurationWrapper,
+			IDestroyable destroyable) {
+		this.configurationWrapper = configurationWrapper;
+		this.destroyable = destroyable;
+	}
+
+	/**
+	 * @return The scope the given object is bound to. Null is returned if the
+	 *         object is not bound to any scope
+	 */
+	static WebDriverScope of(Object target) {
+		if (target == null) {
+			return null;
+		}
+		return BOUND.get(target);
+	}
+
+	/**
+	 * Binds the given object to this scope
+	 *
+	 * @return the given object
+	 */
+	<T> T bind(T target) {
+		if (!isClosed) {
+			targets.add(target);
+			BOUND.put(target, this);
+		}
+		return target;
+	}
+
+	void setDriver(WebDriver driver) {
+		this.driver = driver;
+	}
+
+	public WebDriver getDriver() {
+		return driver;
+	}
+
+	public IConfigurationWrapper getConfigurationWrapper() {
+		return configurationWrapper;
+	}
+
+	/**
+	 * @return the {@link WebElementHighLighter} which is shared by everything
+	 *         that works with the driver
+	 */
+	public WebElementHighLighter getHighlighter() {
+		return highlighter;
+	}
+
+	/**
+	 * @return the last known set of window handles
+	 */
+	public HandleSetSnapshot getWindowHandles() {
+		return windowHandles;
+	}
+
+	/**
+	 * @return the last known set of mobile context names
+	 */
+	public HandleSetSnapshot getContextHandles() {
+		return contextHandles;
+	}
+
+	/**
+	 * @return the window/context and frames the driver is focused on
+	 */
+	public FocusTracker getFocus() {
+		return focus;
+	}
+
+	/**
+	 * @return the last known titles and URLs of windows
+	 */
+	public WindowMetadataSnapshot getWindowMetadata() {
+		return windowMetadata;
+	}
+
+	/**
+	 * @return actions which are likely to open new windows
+	 */
+	public WindowOpeningHints getWindowOpeningHints() {
+		return windowOpeningHints;
+	}
+
+	/**
+	 * @return what is known about the support of scripts by the driver
+	 */
+	ScriptSupport getScriptSupport() {
+		return scriptSupport;
+	}
+
+	/**
+	 * @return the number of navigations which have been performed by the
+	 *         driver. Elements which have been found before the last
+	 *         navigation are likely to be stale
+	 */
+	public long getNavigations() {
+		return navigations.get();
+	}
+
+	/**
+	 * The driver has navigated
+	 */
+	void navigated() {
+		navigations.incrementAndGet();
+	}
+
+	/**
+	 * Sets the action which is performed before each search of elements
+	 * (e.g. sending of time outs which have been postponed)
+	 */
+	public void setBeforeSearch(Runnable action) {
+		beforeSearch = action;
+	}
+
+	/**
+	 * Performs the action which should precede the search of elements
+	 */
+	void beforeSearch() {
+		Runnable action = beforeSearch;
+		if (action != null) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Sets the action which is performed when time outs of the driver are
+	 * accessed (e.g. the known time outs become unknown)
+	 */
+	public void setOnTimeOutsAccess(Runnable action) {
+		onTimeOutsAccess = action;
+	}
+
+	/**
+	 * Time outs of the driver have been accessed. They may be changed
+	 */
+	void timeOutsAccessed() {
+		Runnable action = onTimeOutsAccess;
+		if (action != null) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Sets something that tells whether searches of the driver wait for
+	 * elements implicitly
+	 */
+	public void setImplicitlyWait(BooleanSupplier isWaiting) {
+		implicitlyWait = isWaiting;
+	}
+
+	/**
+	 * @return true if searches of the driver which the given object belongs
+	 *         to wait for elements implicitly. Searches which are not
+	 *         performed by the driver itself (e.g. scripts) should wait the
+	 *         same way
+	 */
+	public static boolean isImplicitlyWaiting(Object target) {
+		WebDriverScope scope = of(target);
+		if (scope == null) {
+			return false;
+		}
+		BooleanSupplier isWaiting = scope.implicitlyWait;
+		return isWaiting != null && isWaiting.getAsBoolean();
+	}
+
+	IDestroyable getDestroyable() {
+		return destroyable;
+	}
+
+	/**
+	 * @return the {@link ListenerEventBus} if the asynchronous delivery of
+	 *         events is turned on. Null is returned otherwise
+	 *
+	 * @see ListenerDelivery
+	 */
+	ListenerEventBus getEventBus() {
+		if (isDeliveryResolved) {
+			return eventBus;
+		}
+		synchronized (this) {
+			if (!isDeliveryResolved && !isClosed) {
+				ListenerDelivery delivery = configurationWrapper
+						.getWrappedConfiguration().getSection(
+								ListenerDelivery.class);
+				if (delivery.isAsynchronous()) {
+					eventBus = new ListenerEventBus(delivery);
+				}
+				isDeliveryResolved = true;
+			}
+			return eventBus;
+		}
+	}
+
+	/**
+	 * Waits until the queued events are delivered to listeners
+	 */
+	void flushEvents() {
+		ListenerEventBus bus = eventBus;
+		if (bus != null) {
+			bus.flush();
+		}
+	}
+
+	public boolean isClosed() {
+		return isClosed;
+	}
+
+	/**
+	 * Delivers the queued events and unbinds all the objects which belong to
+	 * this scope. It is invoked after the {@link WebDriver} quits
+	 *
+	 * @see com.github.arachnidium.core.interfaces.IDestroyable#destroy()
+	 */
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			isClosed = true;
+			isDeliveryResolved = true;
+		}
+		ListenerEventBus bus = eventBus;
+		if (bus != null) {
+			bus.stop();
+		}
+		windowHandles.invalidate();
+		contextHandles.invalidate();
+		focus.invalidate();
+		windowMetadata.invalidate();
+		for (Object target : targets) {
+			BOUND.remove(target, this);
+		}
+		targets.clear();
+		driver = null;
+	}
+}
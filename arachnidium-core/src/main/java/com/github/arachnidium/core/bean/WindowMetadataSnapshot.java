@@ -0,0 +1,124 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.github.arachnidium.core.settings.HandleSnapshot;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.interfaces.IConfigurable;
+
+/**
+ * The last known titles and URLs of browser windows.<br/>
+ * <br/>
+ * Reading of them requires switching to each window. So values which have
+ * been read are reused by next polls while they are not expired and the
+ * window has not navigated. Windows which are still loading
+ * (<code>about:blank</code> or the empty title) are not cached.
+ *
+ * @see HandleSnapshot
+ */
+public final class WindowMetadataSnapshot implements IConfigurable {
+
+	private final static String BLANK = "about:blank";
+
+	/**
+	 * Title and URL of the certain window. Null means that the value has
+	 * not been read
+	 */
+	public static final class Metadata {
+		private final String title;
+		private final String url;
+		private final long readAt;
+
+		private Metadata(String title, String url, long readAt) {
+			this.title = title;
+			this.url = url;
+			this.readAt = readAt;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+	}
+
+	private final ConcurrentHashMap<String, Metadata> windows = new ConcurrentHashMap<String, Metadata>();
+	private volatile long revalidationInterval = TimeUnit.MILLISECONDS
+			.toNanos(1000);
+
+	public WindowMetadataSnapshot() {
+		super();
+	}
+
+	/**
+	 * @return the known title and URL of the window. Null is returned if they
+	 *         should be read again
+	 */
+	public Metadata get(String handle) {
+		Metadata result = windows.get(handle);
+		long interval = revalidationInterval;
+		if (result == null) {
+			return null;
+		}
+		if (interval <= 0 || System.nanoTime() - result.readAt > interval) {
+			windows.remove(handle, result);
+			return null;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores values which have been read. Values which are not read are null.
+	 * They are merged with values which are known
+	 *
+	 * @return actual metadata of the window
+	 */
+	public Metadata update(String handle, String title, String url) {
+		Metadata known = get(handle);
+		if (known != null) {
+			title = (title == null) ? known.title : title;
+			url = (url == null) ? known.url : url;
+		}
+		Metadata result = new Metadata(title, url, (known == null) ? System
+				.nanoTime() : known.readAt);
+		if (isLoading(result)) {
+			windows.remove(handle);
+			return result;
+		}
+		windows.put(handle, result);
+		return result;
+	}
+
+	private static boolean isLoading(Metadata metadata) {
+		if (metadata.url != null) {
+			return metadata.url.isEmpty() || BLANK.equals(metadata.url);
+		}
+		return metadata.title == null || metadata.title.isEmpty();
+	}
+
+	/**
+	 * The window has navigated or it is closed
+	 */
+	public void invalidate(String handle) {
+		windows.remove(handle);
+	}
+
+	/**
+	 * Some window may have navigated
+	 */
+	public void invalidate() {
+		windows.clear();
+	}
+
+	/**
+	 * @see com.github.arachnidium.util.configuration.interfaces.IConfigurable#resetAccordingTo(com.github.arachnidium.util.configuration.Configuration)
+	 */
+	@Override
+	public void resetAccordingTo(Configuration config) {
+		revalidationInterval = TimeUnit.MILLISECONDS.toNanos(config
+				.getSection(HandleSnapshot.class).getRevalidationInterval());
+	}
+}
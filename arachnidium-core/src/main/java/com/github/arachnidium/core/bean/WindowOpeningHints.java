@@ -0,0 +1,106 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Actions of the certain {@link WebDriver} which are likely to open new
+ * windows (clicks, submits, scripts).<br/>
+ * <br/>
+ * Waiting for a window polls the driver right after such action instead of
+ * the next scheduled poll.<br/>
+ * <br/>
+ * Scripts of the framework itself (searches, reading of element states,
+ * highlighting, descriptions) are not hints. They are run by
+ * {@link #runWithoutHints(Supplier)}.
+ */
+public final class WindowOpeningHints {
+
+	/**
+	 * The depth of nested {@link #runWithoutHints(Supplier)} calls of the
+	 * current thread
+	 */
+	private final static ThreadLocal<int[]> SILENCE = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[] { 0 };
+		}
+	};
+
+	private long lastHint;
+	private boolean isHinted;
+
+	WindowOpeningHints() {
+		super();
+	}
+
+	/**
+	 * Runs the action which executes scripts of the framework. These scripts
+	 * are not considered as actions which may open new windows
+	 *
+	 * @param action which executes scripts
+	 * @return the result of the action
+	 */
+	public static <T> T runWithoutHints(Supplier<T> action) {
+		int[] depth = SILENCE.get();
+		depth[0]++;
+		try {
+			return action.get();
+		} finally {
+			depth[0]--;
+		}
+	}
+
+	/**
+	 * @return is the current thread running scripts of the framework
+	 *
+	 * @see #runWithoutHints(Supplier)
+	 */
+	public static boolean isSilent() {
+		return SILENCE.get()[0] > 0;
+	}
+
+	/**
+	 * The action which may open a new window has been performed
+	 */
+	public synchronized void hint() {
+		lastHint = System.nanoTime();
+		isHinted = true;
+		notifyAll();
+	}
+
+	/**
+	 * @return true if there is a hint which has been received during the
+	 *         given time
+	 */
+	public synchronized boolean isHintedWithin(long time, TimeUnit timeUnit) {
+		return isHinted
+				&& System.nanoTime() - lastHint < timeUnit.toNanos(time);
+	}
+
+	/**
+	 * Sleeps until the given timeout is expired or the hint is received
+	 *
+	 * @param since the time ({@link System#nanoTime()}) hints are
+	 *            taken into account after
+	 * @param timeOut is the time to sleep
+	 * @param timeUnit is the time unit
+	 * @return true if there is a hint which has been received after the
+	 *         given time
+	 * @throws InterruptedException
+	 */
+	public synchronized boolean await(long since, long timeOut,
+			TimeUnit timeUnit) throws InterruptedException {
+		long deadline = System.nanoTime() + timeUnit.toNanos(timeOut);
+		while (!isHinted || lastHint - since <= 0) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return false;
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		return true;
+	}
+}
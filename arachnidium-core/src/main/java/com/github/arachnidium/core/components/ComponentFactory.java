@@ -1,9 +1,5 @@
 package com.github.arachnidium.core.components;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 import com.github.arachnidium.util.proxy.EnhancedProxyFactory;
 import org.openqa.selenium.WebDriver;
 
@@ -13,6 +9,11 @@ import org.openqa.selenium.WebDriver;
  */
 public final class ComponentFactory {
 	
+	/**
+	 * It has no state so it is shared by all the components
+	 */
+	private final static ComponentInterceptor interceptor = new ComponentInterceptor();
+	
 	/**
 	 * Creates objects of the class which extends {@link WebdriverComponent}
 	 * by the default constructor {@link WebdriverComponent#WebdriverComponent(WebDriver)}.
@@ -45,25 +46,15 @@ public final class ComponentFactory {
 	public static <T extends WebdriverComponent> T getComponent(
 			Class<T> required, final WebDriver driver, Class<?>[] types,
 			Object[] args) {
-		List<Class<?>> typeList = new ArrayList<Class<?>>() {
-			private static final long serialVersionUID = 1L;
-			{
-				add(WebDriver.class);
-			}
-		};
-		typeList.addAll(Arrays.asList(types));
-
-		List<Object> valueList = new ArrayList<Object>() {
-			private static final long serialVersionUID = 1L;
+		Class<?>[] typeArray = new Class<?>[types.length + 1];
+		typeArray[0] = WebDriver.class;
+		System.arraycopy(types, 0, typeArray, 1, types.length);
 
-			{
-				add(driver);
-			}
-		};
-		valueList.addAll(Arrays.asList(args));
-		return EnhancedProxyFactory.getProxy(required,
-				typeList.toArray(new Class<?>[] {}),
-				valueList.toArray(new Object[] {}), new ComponentInterceptor());
+		Object[] valueArray = new Object[args.length + 1];
+		valueArray[0] = driver;
+		System.arraycopy(args, 0, valueArray, 1, args.length);
+		return EnhancedProxyFactory.getProxy(required, typeArray, valueArray,
+				interceptor);
 	}
 
 	private ComponentFactory() {
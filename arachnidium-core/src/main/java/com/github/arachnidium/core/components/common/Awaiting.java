@@ -1,32 +1,63 @@
 package com.github.arachnidium.core.components.common;
 
+import java.util.concurrent.TimeUnit;
+
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.github.arachnidium.core.components.common.polling.FixedPolling;
+import com.github.arachnidium.core.components.common.polling.PollingWait;
+import com.github.arachnidium.util.logging.latency.Latencies;
+import com.github.arachnidium.util.logging.latency.eLatencyCategories;
 
 /**
  * Just a simple tool to 
- * perform waiting for something by {@link ExpectedCondition}
+ * perform waiting for something by {@link ExpectedCondition}.<br/>
+ * Conditions are polled by the {@link PollingWait} of the driver
  */
 public class Awaiting {
     private final WebDriver driver;
+    private final PollingWait wait;
     
 	public Awaiting(WebDriver driver) {
 		this.driver = driver;
+		this.wait = PollingWait.of(driver);
+	}
+
+	/**
+	 * Conditions are often anonymous classes. So the name
+	 * is the class name without the package
+	 */
+	private static String getConditionName(ExpectedCondition<?> condition) {
+		String name = condition.getClass().getName();
+		return name.substring(name.lastIndexOf('.') + 1);
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T> T awaitCondition(long secTimeOut, ExpectedCondition<?> condition)
 			throws TimeoutException {
-		return (T) new WebDriverWait(driver, secTimeOut).until(condition);
+		long start = Latencies.start();
+		try {
+			return (T) wait.until(driver, secTimeOut, TimeUnit.SECONDS,
+					condition);
+		} finally {
+			Latencies.record(eLatencyCategories.WAIT,
+					getConditionName(condition), driver, start);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T> T awaitCondition(long secTimeOut, long sleepInMillis,
 			ExpectedCondition<?> condition) throws TimeoutException {
-		return (T) new WebDriverWait(driver, secTimeOut, sleepInMillis)
-		.until(condition);
+		long start = Latencies.start();
+		try {
+			return (T) wait.until(driver, secTimeOut, TimeUnit.SECONDS,
+					new FixedPolling(sleepInMillis), condition);
+		} finally {
+			Latencies.record(eLatencyCategories.WAIT,
+					getConditionName(condition), driver, start);
+		}
 	}
 
 }
@@ -0,0 +1,94 @@
+package com.github.arachnidium.core.components.common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebElement;
+
+/**
+ * The state of the {@link WebElement} which has been read by
+ * {@link ScriptExecutor#readStates(java.util.List, String...)}: text,
+ * requested attributes, visibility, location and size.<br/>
+ * <br/>
+ * It is the snapshot. It is not changed when the element is changed.
+ */
+public final class ElementState {
+
+	private final String text;
+	private final Map<String, String> attributes;
+	private final boolean isDisplayed;
+	private final Point location;
+	private final Dimension size;
+
+	ElementState(String text, Map<String, String> attributes,
+			boolean isDisplayed, Point location, Dimension size) {
+		this.text = text;
+		this.attributes = Collections
+				.unmodifiableMap(new LinkedHashMap<String, String>(attributes));
+		this.isDisplayed = isDisplayed;
+		this.location = location;
+		this.size = size;
+	}
+
+	/**
+	 * @return the rendered text of the element
+	 *
+	 * @see WebElement#getText()
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return the value of the DOM attribute which has been requested. Null
+	 *         is returned if there is no such attribute
+	 */
+	public String getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	/**
+	 * @return values of requested DOM attributes
+	 */
+	public Map<String, String> getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * @return true if the element has rendered boxes and it is not hidden by
+	 *         styles
+	 *
+	 * @see WebElement#isDisplayed()
+	 */
+	public boolean isDisplayed() {
+		return isDisplayed;
+	}
+
+	/**
+	 * @return the location of the element on the page
+	 *
+	 * @see WebElement#getLocation()
+	 */
+	public Point getLocation() {
+		return location;
+	}
+
+	/**
+	 * @return the size of the element
+	 *
+	 * @see WebElement#getSize()
+	 */
+	public Dimension getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "text: " + text + ", attributes: " + attributes
+				+ ", displayed: " + isDisplayed + ", location: " + location
+				+ ", size: " + size;
+	}
+}
@@ -1,18 +1,142 @@
 package com.github.arachnidium.core.components.common;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Point;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 
+import com.github.arachnidium.core.bean.WindowOpeningHints;
 import com.github.arachnidium.core.components.WebdriverComponent;
 
 /**
- * {@link JavascriptExecutor} implementor
+ * {@link JavascriptExecutor} implementor<br/>
+ * New possibilities: It reads states of many elements by one script.
  */
 public abstract class ScriptExecutor extends WebdriverComponent
 		implements JavascriptExecutor {
 
+	/**
+	 * arguments[0] is the list of elements, arguments[1] is the list of
+	 * attribute names
+	 */
+	private final static String READ_STATES = "var elements = arguments[0], names = arguments[1], result = [];"
+			+ "for (var i = 0; i < elements.length; i++) {"
+			+ "  var e = elements[i], box = e.getBoundingClientRect(), attributes = {};"
+			+ "  var style = window.getComputedStyle(e);"
+			+ "  for (var j = 0; j < names.length; j++) attributes[names[j]] = e.getAttribute(names[j]);"
+			+ "  var displayed = (e.offsetWidth > 0 || e.offsetHeight > 0 || (e.getClientRects && e.getClientRects().length > 0))"
+			+ "      && style.visibility != 'hidden' && style.display != 'none';"
+			+ "  var text = displayed ? ((e.innerText === undefined) ? e.textContent : e.innerText) : '';"
+			+ "  result.push({"
+			// white spaces are collapsed inside lines like WebElement#getText() does
+			+ "    text: (text || '').replace(/[^\\S\\n]+/g, ' ').replace(/ ?\\n[\\s]*/g, '\\n').replace(/^\\s+|\\s+$/g, ''),"
+			+ "    attributes: attributes,"
+			+ "    displayed: displayed,"
+			+ "    x: Math.round(box.left + (window.pageXOffset || 0)),"
+			+ "    y: Math.round(box.top + (window.pageYOffset || 0)),"
+			+ "    width: Math.round(box.width),"
+			+ "    height: Math.round(box.height)"
+			+ "  });"
+			+ "}"
+			+ "return result;";
+
 	public ScriptExecutor(WebDriver driver) {
 		super(driver);
-		delegate = this.driver;
+		delegate = this;
+	}
+
+	@Override
+	public Object executeScript(String script, Object... args) {
+		return ((JavascriptExecutor) driver).executeScript(script, args);
+	}
+
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		return ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+	}
+
+	private static int toInt(Object value) {
+		return (value instanceof Number) ? ((Number) value).intValue() : 0;
+	}
+
+	/**
+	 * Reads states of the given elements by one script instead of requesting
+	 * each property of each element
+	 *
+	 * @param elements are elements which should be read. Elements of the
+	 *            list are found once when the list is passed to the script
+	 * @param attributes are names of DOM attributes which should be read
+	 * @return states in the order of the given elements
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ElementState> readStates(List<? extends WebElement> elements,
+			String... attributes) {
+		List<ElementState> result = new ArrayList<ElementState>();
+		if (elements.isEmpty())
+			return result;
+
+		Object read = WindowOpeningHints.runWithoutHints(() -> executeScript(
+				READ_STATES, elements, Arrays.asList(attributes)));
+		if (!(read instanceof List))
+			throw new WebDriverException(
+					"States of elements can't be read. The script has returned "
+							+ read);
+		for (Object item : (List<Object>) read) {
+			Map<String, Object> state = (Map<String, Object>) item;
+			Map<String, String> values = new LinkedHashMap<String, String>();
+			Map<String, Object> readValues = (Map<String, Object>) state
+					.get("attributes");
+			for (String attribute : attributes) {
+				Object value = (readValues == null) ? null : readValues
+						.get(attribute);
+				values.put(attribute, (value == null) ? null : String
+						.valueOf(value));
+			}
+			result.add(new ElementState(String.valueOf(state.get("text")),
+					values, Boolean.TRUE.equals(state.get("displayed")),
+					new Point(toInt(state.get("x")), toInt(state.get("y"))),
+					new Dimension(toInt(state.get("width")), toInt(state
+							.get("height")))));
+		}
+		return result;
+	}
+
+	/**
+	 * Reads states of groups of elements (e.g. elements of different fields)
+	 * by one script
+	 *
+	 * @param groups are named lists of elements
+	 * @param attributes are names of DOM attributes which should be read
+	 * @return states of elements. Keys are names of groups in the given
+	 *         order
+	 *
+	 * @see #readStates(List, String...)
+	 */
+	public Map<String, List<ElementState>> readStatesOfGroups(
+			Map<String, ? extends List<? extends WebElement>> groups,
+			String... attributes) {
+		List<WebElement> elements = new ArrayList<WebElement>();
+		for (List<? extends WebElement> group : groups.values())
+			elements.addAll(group);
+
+		List<ElementState> states = readStates(elements, attributes);
+		Map<String, List<ElementState>> result = new LinkedHashMap<String, List<ElementState>>();
+		int from = 0;
+		for (Map.Entry<String, ? extends List<? extends WebElement>> group : groups
+				.entrySet()) {
+			int to = from + group.getValue().size();
+			result.put(group.getKey(), new ArrayList<ElementState>(states
+					.subList(from, to)));
+			from = to;
+		}
+		return result;
 	}
 }
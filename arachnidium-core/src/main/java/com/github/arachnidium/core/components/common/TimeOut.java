@@ -1,10 +1,13 @@
 package com.github.arachnidium.core.components.common;
 
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.github.arachnidium.util.configuration.Configuration;
 import com.github.arachnidium.util.configuration.interfaces.IConfigurable;
 import com.github.arachnidium.util.logging.Log;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriver.Timeouts;
 import org.openqa.selenium.WebDriverException;
@@ -14,7 +17,19 @@ import com.github.arachnidium.core.settings.WebDriverTimeOuts;
 
 /**
  * {@link Timeouts} implementor
- * New possibilities: It can pass out given time outs values.
+ * New possibilities: It can pass out given time outs values.<br/>
+ * <br/>
+ * It knows values which have been sent to the remote side. A time out is sent
+ * only when the value is actually changed. Searches which are performed
+ * {@link #withoutImplicitlyWait(Supplier)} don't restore the implicitly wait
+ * time out. It is restored by {@link #applyPendingTimeOuts()} before the next
+ * search which requires it. So sequential searches cost one command instead
+ * of three. Known values are dropped when something else accesses time outs
+ * of the driver ({@link #forgetSentValues()}).<br/>
+ * <br/>
+ * A time out is considered as not supported only if the driver rejects the
+ * command as unsupported. If the command fails for another reason then the
+ * value on the remote side becomes unknown and it is sent again next time.
  */
 public abstract class TimeOut extends WebdriverComponent implements Timeouts,
 		IConfigurable {
@@ -32,6 +47,36 @@ public abstract class TimeOut extends WebdriverComponent implements Timeouts,
 
 	private TimeUnit scriptTimeUnit = defaultTimeUnit;
 
+	/**
+	 * Values (nanoseconds) which have been sent to the remote side. They are
+	 * unknown at the beginning
+	 */
+	private final static long UNKNOWN = -1;
+	private long sentImplicitlyWait = UNKNOWN;
+	private long sentPageLoad = UNKNOWN;
+	private long sentScript = UNKNOWN;
+
+	/**
+	 * Outcomes of the time out command
+	 */
+	private static enum eSending {
+		SENT, UNSUPPORTED, FAILED
+	}
+
+	private boolean isImplicitlyWaitSupported = true;
+	private boolean isPageLoadSupported = true;
+	private boolean isScriptSupported = true;
+
+	/**
+	 * The number of searches which are performed without implicitly wait now
+	 */
+	private int searchesWithoutImplicitlyWait;
+
+	/**
+	 * It is true while this object sends a time out
+	 */
+	private boolean isSending;
+
 	public TimeOut(WebDriver driver) {
 		super(driver);
 		delegate = this;
@@ -67,79 +112,182 @@ public abstract class TimeOut extends WebdriverComponent implements Timeouts,
 		return longObjParam;
 	}
 
-	@Override
-	public Timeouts implicitlyWait(long timeOut, TimeUnit timeUnit) {
-		boolean timeOutsAreSetWell = true;
+	/**
+	 * Sends the time out command
+	 *
+	 * @return {@link eSending#UNSUPPORTED} if the driver doesn't support the
+	 *         time out. {@link eSending#FAILED} is returned if the command
+	 *         has failed for another reason
+	 */
+	private eSending send(Function<Timeouts, Timeouts> command,
+			String description) {
+		isSending = true;
 		try {
-			return driver.manage().timeouts().implicitlyWait(timeOut, timeUnit);
-
+			command.apply(driver.manage().timeouts());
+			return eSending.SENT;
+		} catch (UnsupportedCommandException | UnsupportedOperationException e) {
+			Log.debug("Setting of " + description + " is not supported.");
+			return eSending.UNSUPPORTED;
 		} catch (WebDriverException e) {
-			Log.debug("Setting of an implicitly wait timeout is not supported.");
-			timeOutsAreSetWell = false;
-			return null;
+			Log.debug("Setting of " + description + " has failed.", e);
+			return eSending.FAILED;
 		} finally {
-			if (timeOutsAreSetWell) {
-				implicitlyWaitTimeOut = timeOut;
-				implicitlyWaitTimeUnit = timeUnit;
-			}
+			isSending = false;
+		}
+	}
+
+	/**
+	 * Time outs have been accessed by something else (e.g. the element
+	 * locator of the page factory sets the implicitly wait directly). So
+	 * values on the remote side are not known and they are sent again next
+	 * time. Time outs which are sent by this object are ignored
+	 */
+	public synchronized void forgetSentValues() {
+		if (isSending) {
+			return;
+		}
+		sentImplicitlyWait = UNKNOWN;
+		sentPageLoad = UNKNOWN;
+		sentScript = UNKNOWN;
+	}
+
+	/**
+	 * Sends the implicitly wait time out if the remote side has another one
+	 *
+	 * @return false if the time out is not supported
+	 */
+	private boolean sendImplicitlyWait(long timeOut, TimeUnit timeUnit) {
+		long nanos = timeUnit.toNanos(timeOut);
+		if (nanos == sentImplicitlyWait) {
+			return true;
 		}
+		if (!isImplicitlyWaitSupported) {
+			return false;
+		}
+		eSending result = send(t -> t.implicitlyWait(timeOut, timeUnit),
+				"an implicitly wait timeout");
+		if (result != eSending.SENT) {
+			isImplicitlyWaitSupported = result != eSending.UNSUPPORTED;
+			sentImplicitlyWait = UNKNOWN;
+			return false;
+		}
+		sentImplicitlyWait = nanos;
+		return true;
 	}
 
 	@Override
-	public Timeouts pageLoadTimeout(long timeOut, TimeUnit timeUnit) {
-		boolean timeOutsAreSetWell = true;
+	public synchronized Timeouts implicitlyWait(long timeOut, TimeUnit timeUnit) {
+		// the value will be sent when searches without implicitly wait are
+		// finished
+		if (searchesWithoutImplicitlyWait > 0
+				|| sendImplicitlyWait(timeOut, timeUnit)) {
+			implicitlyWaitTimeOut = timeOut;
+			implicitlyWaitTimeUnit = timeUnit;
+			return this;
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized Timeouts pageLoadTimeout(long timeOut, TimeUnit timeUnit) {
+		long nanos = timeUnit.toNanos(timeOut);
+		if (nanos != sentPageLoad) {
+			if (!isPageLoadSupported) {
+				return null;
+			}
+			eSending result = send(t -> t.pageLoadTimeout(timeOut, timeUnit),
+					"a page load timeout");
+			if (result != eSending.SENT) {
+				isPageLoadSupported = result != eSending.UNSUPPORTED;
+				sentPageLoad = UNKNOWN;
+				return null;
+			}
+			sentPageLoad = nanos;
+		}
+		pageLoadTimeOut = timeOut;
+		pageLoadTimeUnit = timeUnit;
+		return this;
+	}
+
+	/**
+	 * Performs the action (searching) with zero implicitly wait time out. The
+	 * previous time out is not restored right after the action. It is applied
+	 * by {@link #applyPendingTimeOuts()} or by the next
+	 * {@link #implicitlyWait(long, TimeUnit)}
+	 *
+	 * @param action is something that searches for elements
+	 * @return the result of the action
+	 */
+	public <T> T withoutImplicitlyWait(Supplier<T> action) {
+		synchronized (this) {
+			searchesWithoutImplicitlyWait++;
+			sendImplicitlyWait(0, TimeUnit.SECONDS);
+		}
 		try {
-			return driver.manage().timeouts()
-					.pageLoadTimeout(timeOut, timeUnit);
-		} catch (WebDriverException e) {
-			Log.debug("Setting of a page load timeout is not supported.");
-			timeOutsAreSetWell = false;
-			return null;
+			return action.get();
 		} finally {
-			if (timeOutsAreSetWell) {
-				pageLoadTimeOut = timeOut;
-				pageLoadTimeUnit = timeUnit;
+			synchronized (this) {
+				searchesWithoutImplicitlyWait--;
 			}
 		}
 	}
 
-	// set values of time outs according to configuration
+	/**
+	 * @return true if searches wait for elements implicitly. It is false
+	 *         inside {@link #withoutImplicitlyWait(Supplier)}
+	 */
+	public synchronized boolean isImplicitlyWaiting() {
+		return searchesWithoutImplicitlyWait == 0 && isImplicitlyWaitSupported
+				&& implicitlyWaitTimeOut > 0;
+	}
+
+	/**
+	 * Sends the implicitly wait time out which has been postponed by
+	 * {@link #withoutImplicitlyWait(Supplier)}. Nothing is sent if the remote
+	 * side already has the actual value. It should be invoked before searches
+	 */
+	public synchronized void applyPendingTimeOuts() {
+		if (searchesWithoutImplicitlyWait == 0) {
+			sendImplicitlyWait(implicitlyWaitTimeOut, implicitlyWaitTimeUnit);
+		}
+	}
+
+	// set values of time outs according to configuration. Only changed values
+	// are sent
 	@Override
 	public synchronized void resetAccordingTo(Configuration config) {
-		TimeUnit settingTimeUnit = config.getSection(WebDriverTimeOuts.class)
-				.getTimeUnit();
+		WebDriverTimeOuts timeOuts = config.getSection(WebDriverTimeOuts.class);
+		TimeUnit settingTimeUnit = timeOuts.getTimeUnit();
 		if (settingTimeUnit == null)
 			settingTimeUnit = defaultTimeUnit;
 
-		Long timeOut = getTimeOutValue(config.getSection(
-				WebDriverTimeOuts.class).getImplicitlyWaitTimeOut());
-		implicitlyWait(timeOut, settingTimeUnit);
-
-		timeOut = getTimeOutValue(config.getSection(WebDriverTimeOuts.class)
-				.getScriptTimeOut());
-		setScriptTimeout(timeOut, settingTimeUnit);
-
-		timeOut = getTimeOutValue(config.getSection(WebDriverTimeOuts.class)
-				.getLoadTimeout());
-		pageLoadTimeout(timeOut, settingTimeUnit);
+		implicitlyWait(getTimeOutValue(timeOuts.getImplicitlyWaitTimeOut()),
+				settingTimeUnit);
+		setScriptTimeout(getTimeOutValue(timeOuts.getScriptTimeOut()),
+				settingTimeUnit);
+		pageLoadTimeout(getTimeOutValue(timeOuts.getLoadTimeout()),
+				settingTimeUnit);
 	}
 
 	@Override
-	public Timeouts setScriptTimeout(long timeOut, TimeUnit timeUnit) {
-		boolean timeOutsAreSetWell = true;
-		try {
-			return driver.manage().timeouts()
-					.setScriptTimeout(timeOut, timeUnit);
-		} catch (WebDriverException e) {
-			Log.debug("Setting of a script execution timeout is not supported.");
-			timeOutsAreSetWell = false;
-			return null;
-		} finally {
-			if (timeOutsAreSetWell) {
-				scriptTimeOut = timeOut;
-				scriptTimeUnit = timeUnit;
+	public synchronized Timeouts setScriptTimeout(long timeOut, TimeUnit timeUnit) {
+		long nanos = timeUnit.toNanos(timeOut);
+		if (nanos != sentScript) {
+			if (!isScriptSupported) {
+				return null;
+			}
+			eSending result = send(t -> t.setScriptTimeout(timeOut, timeUnit),
+					"a script execution timeout");
+			if (result != eSending.SENT) {
+				isScriptSupported = result != eSending.UNSUPPORTED;
+				sentScript = UNKNOWN;
+				return null;
 			}
+			sentScript = nanos;
 		}
+		scriptTimeOut = timeOut;
+		scriptTimeUnit = timeUnit;
+		return this;
 	}
 
 }
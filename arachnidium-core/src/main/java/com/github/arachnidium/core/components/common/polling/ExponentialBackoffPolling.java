@@ -0,0 +1,50 @@
+package com.github.arachnidium.core.components.common.polling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The interval is doubled after each attempt until it reaches the maximum.
+ * Random jitter is applied to each interval. So waitings which are started
+ * at the same time don't poll together.
+ */
+public class ExponentialBackoffPolling implements IPollingStrategy {
+	private final long initialInterval;
+	private final long maxInterval;
+	private final double jitter;
+
+	/**
+	 * @param initialInterval is the first interval (milliseconds)
+	 * @param maxInterval is the maximum interval (milliseconds)
+	 * @param jitter is the fraction of the interval which is randomly added
+	 *            or subtracted (e.g. 0.2)
+	 */
+	public ExponentialBackoffPolling(long initialInterval, long maxInterval,
+			double jitter) {
+		this.initialInterval = initialInterval;
+		this.maxInterval = Math.max(initialInterval, maxInterval);
+		this.jitter = jitter;
+	}
+
+	@Override
+	public long getInterval(int attempt) {
+		long interval = maxInterval;
+		if (attempt < Long.SIZE - 2) {
+			interval = Math.min(maxInterval, initialInterval << attempt);
+			if (interval < 0) { // overflow
+				interval = maxInterval;
+			}
+		}
+		if (jitter <= 0) {
+			return interval;
+		}
+		double factor = 1 + jitter
+				* (2 * ThreadLocalRandom.current().nextDouble() - 1);
+		return (long) (interval * factor);
+	}
+
+	@Override
+	public String toString() {
+		return "exponential from " + initialInterval + " to " + maxInterval
+				+ " ms";
+	}
+}
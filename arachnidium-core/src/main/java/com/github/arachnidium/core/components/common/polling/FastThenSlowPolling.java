@@ -0,0 +1,35 @@
+package com.github.arachnidium.core.components.common.polling;
+
+/**
+ * The given number of attempts is performed at the short interval. Then the
+ * long interval is used. Most of conditions become true quickly, so they are
+ * caught by fast attempts. The rest don't produce a lot of requests.
+ */
+public class FastThenSlowPolling implements IPollingStrategy {
+	private final long fastInterval;
+	private final int fastAttempts;
+	private final long slowInterval;
+
+	/**
+	 * @param fastInterval is the short interval (milliseconds)
+	 * @param fastAttempts is the number of attempts at the short interval
+	 * @param slowInterval is the long interval (milliseconds)
+	 */
+	public FastThenSlowPolling(long fastInterval, int fastAttempts,
+			long slowInterval) {
+		this.fastInterval = fastInterval;
+		this.fastAttempts = fastAttempts;
+		this.slowInterval = slowInterval;
+	}
+
+	@Override
+	public long getInterval(int attempt) {
+		return (attempt < fastAttempts) ? fastInterval : slowInterval;
+	}
+
+	@Override
+	public String toString() {
+		return fastAttempts + " x " + fastInterval + " ms then "
+				+ slowInterval + " ms";
+	}
+}
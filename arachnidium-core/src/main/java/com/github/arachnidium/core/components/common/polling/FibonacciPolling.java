@@ -0,0 +1,37 @@
+package com.github.arachnidium.core.components.common.polling;
+
+/**
+ * Intervals are Fibonacci numbers multiplied by the given unit (1, 1, 2, 3,
+ * 5...) until they reach the maximum. They grow slower than exponential
+ * ones.
+ */
+public class FibonacciPolling implements IPollingStrategy {
+	private final long unit;
+	private final long maxInterval;
+
+	/**
+	 * @param unit is the first interval (milliseconds)
+	 * @param maxInterval is the maximum interval (milliseconds)
+	 */
+	public FibonacciPolling(long unit, long maxInterval) {
+		this.unit = unit;
+		this.maxInterval = Math.max(unit, maxInterval);
+	}
+
+	@Override
+	public long getInterval(int attempt) {
+		long previous = 0;
+		long current = unit;
+		for (int i = 0; i < attempt && current < maxInterval; i++) {
+			long next = previous + current;
+			previous = current;
+			current = next;
+		}
+		return Math.min(current, maxInterval);
+	}
+
+	@Override
+	public String toString() {
+		return "fibonacci from " + unit + " to " + maxInterval + " ms";
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.arachnidium.core.components.common.polling;
+
+/**
+ * Attempts are performed at the same interval. It is the way
+ * {@link org.openqa.selenium.support.ui.WebDriverWait} works
+ */
+public class FixedPolling implements IPollingStrategy {
+	private final long interval;
+
+	/**
+	 * @param interval is the interval between attempts (milliseconds)
+	 */
+	public FixedPolling(long interval) {
+		this.interval = interval;
+	}
+
+	@Override
+	public long getInterval(int attempt) {
+		return interval;
+	}
+
+	@Override
+	public String toString() {
+		return "fixed " + interval + " ms";
+	}
+}
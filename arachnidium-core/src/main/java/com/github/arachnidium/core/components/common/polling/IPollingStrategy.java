@@ -0,0 +1,19 @@
+package com.github.arachnidium.core.components.common.polling;
+
+/**
+ * Defines intervals between attempts of the waiting.<br/>
+ * <br/>
+ * The first attempt is performed immediately. Implementors should be
+ * stateless, so the same instance can be shared by waitings of different
+ * threads.
+ *
+ * @see PollingWait
+ */
+public interface IPollingStrategy {
+
+	/**
+	 * @param attempt is the number of the failed attempt. It starts from 0
+	 * @return the interval (milliseconds) before the next attempt
+	 */
+	long getInterval(int attempt);
+}
@@ -0,0 +1,168 @@
+package com.github.arachnidium.core.components.common.polling;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Duration;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import com.github.arachnidium.core.settings.WaitingPolling;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.interfaces.IConfigurable;
+import com.github.arachnidium.util.logging.latency.WaitingOutcomes;
+import com.google.common.base.Ticker;
+import com.google.common.collect.MapMaker;
+
+/**
+ * Polls conditions of the certain {@link WebDriver} according to
+ * {@link IPollingStrategy}.<br/>
+ * <br/>
+ * There is one instance per driver. It is reused by all the waitings of the
+ * driver instead of creating of a new
+ * {@link org.openqa.selenium.support.ui.WebDriverWait} each time. The
+ * strategy is defined by {@link WaitingPolling}. Outcomes of waitings are
+ * counted by {@link WaitingOutcomes}.<br/>
+ * <br/>
+ * The instance doesn't refer to the driver. So it doesn't prevent the
+ * driver from being collected.
+ */
+public final class PollingWait implements IConfigurable {
+
+	private final static Map<WebDriver, PollingWait> waits = new MapMaker()
+			.weakKeys().makeMap();
+
+	private final WaitingOutcomes outcomes = WaitingOutcomes.get();
+	private final Ticker ticker;
+	private final Sleeper sleeper;
+	private volatile IPollingStrategy strategy = new FastThenSlowPolling(25,
+			8, 500);
+
+	private PollingWait() {
+		this(Ticker.systemTicker(), duration -> TimeUnit.NANOSECONDS
+				.sleep(duration.in(TimeUnit.NANOSECONDS)));
+	}
+
+	/**
+	 * @param ticker measures the time of the waiting
+	 * @param sleeper performs pauses between attempts
+	 */
+	PollingWait(Ticker ticker, Sleeper sleeper) {
+		this.ticker = ticker;
+		this.sleeper = sleeper;
+	}
+
+	/**
+	 * @return the waiting of the given driver
+	 */
+	public static PollingWait of(WebDriver driver) {
+		return waits.computeIfAbsent(driver, key -> new PollingWait());
+	}
+
+	/**
+	 * Creates the strategy which is defined by the given settings
+	 */
+	public static IPollingStrategy getStrategy(WaitingPolling settings) {
+		long interval = settings.getInterval();
+		long maxInterval = settings.getMaxInterval();
+		switch (settings.getStrategy()) {
+		case FIXED:
+			return new FixedPolling(interval);
+		case EXPONENTIAL:
+			return new ExponentialBackoffPolling(interval, maxInterval, 0.2);
+		case FIBONACCI:
+			return new FibonacciPolling(interval, maxInterval);
+		default:
+			return new FastThenSlowPolling(interval,
+					settings.getFastAttempts(), maxInterval);
+		}
+	}
+
+	private static boolean isFound(Object result) {
+		return result != null && !Boolean.FALSE.equals(result);
+	}
+
+	/**
+	 * @return the strategy which is used by default
+	 */
+	public IPollingStrategy getStrategy() {
+		return strategy;
+	}
+
+	/**
+	 * Waits for the condition using the default strategy
+	 *
+	 * @see #until(WebDriver, long, TimeUnit, IPollingStrategy, ExpectedCondition)
+	 */
+	public <T> T until(WebDriver driver, long timeOut, TimeUnit timeUnit,
+			ExpectedCondition<T> condition) throws TimeoutException {
+		return until(driver, timeOut, timeUnit, strategy, condition);
+	}
+
+	/**
+	 * Waits until the condition returns neither null nor false.
+	 * {@link NotFoundException} thrown by the condition is ignored.
+	 *
+	 * @param driver is the driver the condition is applied to
+	 * @param timeOut is the time to wait for
+	 * @param timeUnit is the time unit
+	 * @param strategy defines intervals between attempts
+	 * @param condition is the awaited condition
+	 * @return the value returned by the condition
+	 * @throws TimeoutException if the condition is not met
+	 */
+	public <T> T until(WebDriver driver, long timeOut, TimeUnit timeUnit,
+			IPollingStrategy strategy, ExpectedCondition<T> condition)
+			throws TimeoutException {
+		long deadline = ticker.read() + timeUnit.toNanos(timeOut);
+		RuntimeException lastException = null;
+		int attempt = 0;
+		try {
+			while (true) {
+				outcomes.attempted();
+				try {
+					T result = condition.apply(driver);
+					if (isFound(result)) {
+						outcomes.resolved();
+						return result;
+					}
+				} catch (NotFoundException e) {
+					lastException = e;
+				}
+
+				long remaining = deadline - ticker.read();
+				if (remaining <= 0) {
+					outcomes.timedOut();
+					throw new TimeoutException("Timed out after " + timeOut
+							+ " " + timeUnit.toString().toLowerCase()
+							+ " waiting for " + condition, lastException);
+				}
+				long interval = TimeUnit.MILLISECONDS.toNanos(strategy
+						.getInterval(attempt++));
+				sleeper.sleep(new Duration(Math.max(0,
+						Math.min(interval, remaining)), TimeUnit.NANOSECONDS));
+			}
+		} catch (InterruptedException e) {
+			outcomes.failed();
+			Thread.currentThread().interrupt();
+			throw new WebDriverException(e);
+		} catch (TimeoutException e) {
+			throw e;
+		} catch (RuntimeException e) {
+			outcomes.failed();
+			throw e;
+		}
+	}
+
+	/**
+	 * @see com.github.arachnidium.util.configuration.interfaces.IConfigurable#resetAccordingTo(com.github.arachnidium.util.configuration.Configuration)
+	 */
+	@Override
+	public void resetAccordingTo(Configuration config) {
+		strategy = getStrategy(config.getSection(WaitingPolling.class));
+	}
+}
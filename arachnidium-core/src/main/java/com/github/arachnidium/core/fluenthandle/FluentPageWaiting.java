@@ -1,180 +1,139 @@
 package com.github.arachnidium.core.fluenthandle;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 
+import com.github.arachnidium.core.bean.WindowMetadataSnapshot;
+import com.github.arachnidium.core.bean.WindowMetadataSnapshot.Metadata;
+
 /**
- * Fluent waiting for browser window handle
+ * Fluent waiting for browser window handle<br/>
+ * <br/>
+ * Regular expressions are compiled once per waiting. Titles and URLs of
+ * windows are taken from the {@link WindowMetadataSnapshot}, so only new
+ * windows and windows which have navigated are visited by each poll. If
+ * windows have been visited and there is no matching window then the focus
+ * is restored once at the end of the poll.
  * 
  * @see IFluentHandleWaiting
  */
 public class FluentPageWaiting implements IFluentHandleWaiting {
 
-	private String getWindowHandleByIndex(final WebDriver from, int windowIndex) {
-		Set<String> handles = from.getWindowHandles();
-		if (handles.size() - 1 >= windowIndex) {
-			from.switchTo().window(handles.toArray()[windowIndex].toString());
-			return new ArrayList<String>(handles).get(windowIndex);
-		} else
-			return null;
-	}
+	private final WindowMetadataSnapshot metadataSnapshot;
 
-	private static String getHandleWhichMatchesToTitles(String handle,
-			String titleRegExp, String winTitle) {
-		Pattern p = Pattern.compile(titleRegExp);
-		Matcher m = p.matcher(winTitle);
-		if (m.find()) {
-			return handle;
-		} else
-			return null;
+	public FluentPageWaiting() {
+		this(new WindowMetadataSnapshot());
 	}
 
-	private static String getHandleWhichMatchesToURLs(String handle,
-			List<String> urlsRegExps, String currentUrl) {
-		for (String url : urlsRegExps) {
-			Pattern p = Pattern.compile(url);
-			Matcher m = p.matcher(currentUrl);
-
-			if (m.find()) {
-				return handle;
-			}
-		}
-		return null;
+	/**
+	 * @param metadataSnapshot is the snapshot of titles and URLs which is
+	 * shared by waitings of the same driver
+	 */
+	public FluentPageWaiting(WindowMetadataSnapshot metadataSnapshot) {
+		this.metadataSnapshot = metadataSnapshot;
 	}
 
-	private String getWindowHandleByTitle(final WebDriver from,
-			String titleRegExp) {
-		String resultHandle = null;
-		Set<String> handles = from.getWindowHandles();
-		for (String handle : handles) {
-			String winTitle = null;
-			try {
-				from.switchTo().window(handle);
-				winTitle = from.getTitle();
-			} catch (TimeoutException e) {
-				return null;
-			}
-			resultHandle = getHandleWhichMatchesToTitles(handle, titleRegExp,
-					winTitle);
-			if (resultHandle == null) {
-				continue;
-			}
-			return resultHandle;
+	private static List<Pattern> compile(List<String> regExps) {
+		List<Pattern> result = new ArrayList<Pattern>();
+		for (String regExp : regExps) {
+			result.add(Pattern.compile(regExp));
 		}
-		return resultHandle;
+		return result;
 	}
 
-	private String getWindowHandleByURLs(final WebDriver from,
-			List<String> urlsRegExps) {
-		String resultHandle = null;
-		Set<String> handles = from.getWindowHandles();
-		for (String handle : handles) {
-			String currentUrl = null;
-			try {
-				from.switchTo().window(handle);
-				currentUrl = from.getCurrentUrl();
-			} catch (TimeoutException e) {
-				return null;
-			}
-
-			resultHandle = getHandleWhichMatchesToURLs(handle, urlsRegExps,
-					currentUrl);
-			if (resultHandle == null) {
-				continue;
-			}
-			return resultHandle;
+	private static boolean matches(Pattern title, List<Pattern> urls,
+			Metadata metadata) {
+		if (title != null && !title.matcher(metadata.getTitle()).find()) {
+			return false;
 		}
-		return resultHandle;
-	}
-
-	private String getWindowHandleByTitleAndURLs(final WebDriver from,
-			List<String> urlsRegExps, String titleRegExp) {
-
-		String resultHandle = getWindowHandleByTitle(from, titleRegExp);
-		if (resultHandle == null) {
-			return null;
+		if (urls == null) {
+			return true;
 		}
-
-		String currentUrl = null;
-		try {
-			from.switchTo().window(resultHandle);
-			currentUrl = from.getCurrentUrl();
-		} catch (TimeoutException e) {
-			return null;
+		for (Pattern url : urls) {
+			if (url.matcher(metadata.getUrl()).find()) {
+				return true;
+			}
 		}
-
-		return getHandleWhichMatchesToURLs(resultHandle, urlsRegExps,
-				currentUrl);
+		return false;
 	}
 
-	private String getWindowHandleByIndexAndTitle(final WebDriver from,
-			int windowIndex, String titleRegExp) {
-		String resultHandle = getWindowHandleByIndex(from, windowIndex);
-		if (resultHandle == null) {
-			return null;
-		}
-
-		String winTitle = null;
+	private static String getCurrentHandle(WebDriver from) {
 		try {
-			from.switchTo().window(resultHandle);
-			winTitle = from.getTitle();
-		} catch (TimeoutException e) {
+			return from.getWindowHandle();
+		} catch (WebDriverException e) { // the current window is closed
 			return null;
 		}
-
-		return getHandleWhichMatchesToTitles(resultHandle, titleRegExp,
-				winTitle);
 	}
 
-	private String getWindowHandleByAllConditions(final WebDriver from,
-			int windowIndex, List<String> urlsRegExps, String titleRegExp) {
-		String resultHandle = getWindowHandleByIndex(from, windowIndex);
-		if (resultHandle == null) {
-			return null;
-		}
-
-		String winTitle = null;
-		String currentUrl = null;
-		try {
-			from.switchTo().window(resultHandle);
-			winTitle = from.getTitle();
-			currentUrl = from.getCurrentUrl();
-		} catch (TimeoutException e) {
-			return null;
-		}
-
-		resultHandle = getHandleWhichMatchesToTitles(resultHandle, titleRegExp,
-				winTitle);
-		if (resultHandle == null) {
-			return null;
+	/**
+	 * Polls windows once
+	 * 
+	 * @param index is the expected index of the window. It is null if any
+	 * window can be taken
+	 * @param title is the expected title. It is null if the title is not
+	 * checked
+	 * @param urls are the expected URLs. They are null if the URL is not
+	 * checked
+	 * @return the handle of the found window or null
+	 */
+	private String getWindowHandle(WebDriver from, Integer index,
+			Pattern title, List<Pattern> urls) {
+		List<String> handles = new ArrayList<String>(from.getWindowHandles());
+		if (index != null) {
+			if (handles.size() - 1 < index) {
+				return null;
+			}
+			handles = Collections.singletonList(handles.get(index));
 		}
-		return getHandleWhichMatchesToURLs(resultHandle, urlsRegExps,
-				currentUrl);
-	}
-
-	private String getWindowHandleByIndexAndURLs(final WebDriver from,
-			int windowIndex, List<String> urlsRegExps) {
-		String resultHandle = getWindowHandleByIndex(from, windowIndex);
-		if (resultHandle == null) {
-			return null;
+		if (title == null && urls == null) {
+			return handles.isEmpty() ? null : handles.get(0);
 		}
 
-		String currentUrl = null;
+		String previous = null;
+		boolean isSwitched = false;
+		String result = null;
 		try {
-			from.switchTo().window(resultHandle);
-			currentUrl = from.getCurrentUrl();
+			for (String handle : handles) {
+				Metadata metadata = metadataSnapshot.get(handle);
+				boolean readsTitle = title != null
+						&& (metadata == null || metadata.getTitle() == null);
+				boolean readsUrl = urls != null
+						&& (metadata == null || metadata.getUrl() == null);
+				if (readsTitle || readsUrl) {
+					if (!isSwitched) {
+						previous = getCurrentHandle(from);
+						isSwitched = true;
+					}
+					from.switchTo().window(handle);
+					metadata = metadataSnapshot.update(handle,
+							readsTitle ? from.getTitle() : null,
+							readsUrl ? from.getCurrentUrl() : null);
+				}
+				if (matches(title, urls, metadata)) {
+					result = handle;
+					return result;
+				}
+			}
+			return null;
 		} catch (TimeoutException e) {
 			return null;
+		} finally {
+			// the focus stays on the found window. It is going to be used
+			if (isSwitched && result == null && previous != null) {
+				try {
+					from.switchTo().window(previous);
+				} catch (WebDriverException e) {
+					// the window has been closed
+				}
+			}
 		}
-		return getHandleWhichMatchesToURLs(resultHandle, urlsRegExps,
-				currentUrl);
 	}
 
 	/**
@@ -185,7 +144,7 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	 */
 	@Override
 	public ExpectedCondition<String> getHandle(int index) {
-		return from -> getWindowHandleByIndex(from, index);
+		return from -> getWindowHandle(from, index, null, null);
 	}
 
 	/**
@@ -199,7 +158,8 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	 */
 	@Override
 	public ExpectedCondition<String> getHandle(String titleRegExp) {
-		return from -> getWindowHandleByTitle(from, titleRegExp);
+		Pattern title = Pattern.compile(titleRegExp);
+		return from -> getWindowHandle(from, null, title, null);
 	}
 
 	/**
@@ -213,7 +173,8 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	 */
 	@Override
 	public ExpectedCondition<String> getHandle(List<String> urlsRegExps) {
-		return from -> getWindowHandleByURLs(from, urlsRegExps);
+		List<Pattern> urls = compile(urlsRegExps);
+		return from -> getWindowHandle(from, null, null, urls);
 	}
 
 	/**
@@ -232,8 +193,9 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	@Override
 	public ExpectedCondition<String> getHandle(String titleRegExp,
 			List<String> urlsRegExps) {
-		return from -> getWindowHandleByTitleAndURLs(from, urlsRegExps,
-				titleRegExp);
+		Pattern title = Pattern.compile(titleRegExp);
+		List<Pattern> urls = compile(urlsRegExps);
+		return from -> getWindowHandle(from, null, title, urls);
 	}
 
 	/**
@@ -252,8 +214,9 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	@Override
 	public ExpectedCondition<String> getHandle(int index, String titleRegExp,
 			List<String> urlsRegExps) {
-		return from -> getWindowHandleByAllConditions(from, index, urlsRegExps,
-				titleRegExp);
+		Pattern title = Pattern.compile(titleRegExp);
+		List<Pattern> urls = compile(urlsRegExps);
+		return from -> getWindowHandle(from, index, title, urls);
 	}
 
 	/**
@@ -268,7 +231,8 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	 */
 	@Override
 	public ExpectedCondition<String> getHandle(int index, String titleRegExp) {
-		return from -> getWindowHandleByIndexAndTitle(from, index, titleRegExp);
+		Pattern title = Pattern.compile(titleRegExp);
+		return from -> getWindowHandle(from, index, title, null);
 	}
 
 	/**
@@ -284,7 +248,8 @@ public class FluentPageWaiting implements IFluentHandleWaiting {
 	@Override
 	public ExpectedCondition<String> getHandle(int index,
 			List<String> urlsRegExps) {
-		return from -> getWindowHandleByIndexAndURLs(from, index, urlsRegExps);
+		List<Pattern> urls = compile(urlsRegExps);
+		return from -> getWindowHandle(from, index, null, urls);
 	}
 
 }
@@ -9,37 +9,125 @@ import com.github.arachnidium.util.logging.Photographer;
 import com.github.arachnidium.util.logging.eAvailableLevels;
 import com.github.arachnidium.util.logging.eLogColors;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.internal.WrapsElement;
 
+import com.github.arachnidium.core.bean.WindowOpeningHints;
 import com.github.arachnidium.core.settings.ScreenShots;
 
 /**
- * The default implementor of {@link IWebElementHighlighter}
+ * The default implementor of {@link IWebElementHighlighter}.<br/>
+ * <br/>
+ * It installs the style sheet once per document and highlights the element by
+ * the only script call. When a screenshot should be taken it waits for the
+ * repaint by <code>requestAnimationFrame</code> instead of fixed sleeping. If
+ * the repaint can't be waited for (e.g. the script time out is 0) it sleeps
+ * no longer than 100 milliseconds. One instance is shared by
+ * everything that works with the same {@link WebDriver}.
  */
 public class WebElementHighLighter implements IConfigurable,
 		IWebElementHighlighter {
 
 	// is this doing screenshots
-	private boolean toDoScreenShots;
+	private volatile boolean toDoScreenShots;
 	private final boolean isDoingScreenShotsByDefault = true;
+	/**
+	 * Milliseconds. The highlighting is painted during this time when the
+	 * repaint can't be waited for
+	 */
+	private final static long REPAINT_TIME_OUT = 100;
 
-	private void execDecorativeScript(JavascriptExecutor scriptExecutor,
-			WebElement element, String script) throws InterruptedException {
+	/**
+	 * The style sheet is installed once per document. Each color gets its
+	 * own rule. Highlighted element is marked by the attribute, so its own
+	 * style is never changed.
+	 */
+	private final static String INSTALL_AND_MARK = "var e = arguments[0], color = arguments[1];"
+			+ "var doc = e.ownerDocument || document;"
+			+ "var sheet = doc.getElementById('arachnidium-highlighting');"
+			+ "if (!sheet) {"
+			+ "sheet = doc.createElement('style');"
+			+ "sheet.id = 'arachnidium-highlighting';"
+			+ "sheet.setAttribute('data-colors', '');"
+			+ "(doc.head || doc.documentElement).appendChild(sheet);"
+			+ "}"
+			+ "if ((' ' + sheet.getAttribute('data-colors') + ' ').indexOf(' ' + color + ' ') < 0) {"
+			+ "sheet.appendChild(doc.createTextNode('[data-arachnidium-highlighting=\"' + color + '\"]"
+			+ "{outline: 4px solid rgb(' + color + ') !important; outline-offset: -2px !important;}'));"
+			+ "sheet.setAttribute('data-colors', sheet.getAttribute('data-colors') + ' ' + color);"
+			+ "}"
+			+ "e.setAttribute('data-arachnidium-highlighting', color);";
+	/**
+	 * The last argument of the asynchronous script is the callback. It is
+	 * invoked when the highlighting has been painted.
+	 */
+	private final static String HIGHLIGHT_AND_WAIT_FOR_REPAINT = INSTALL_AND_MARK
+			+ "var done = arguments[arguments.length - 1];"
+			+ "var win = doc.defaultView || window;"
+			+ "if (!win.requestAnimationFrame) {done(); return;}"
+			+ "win.requestAnimationFrame(function() {win.requestAnimationFrame(function() {done();});});";
+	/**
+	 * Highlighting is removed by the browser itself when there is no
+	 * screenshot to take
+	 */
+	private final static String FLASH = INSTALL_AND_MARK
+			+ "setTimeout(function() {if (e.getAttribute('data-arachnidium-highlighting') == color) "
+			+ "{e.removeAttribute('data-arachnidium-highlighting');}}, 100);";
+	private final static String UNMARK = "arguments[0].removeAttribute('data-arachnidium-highlighting');";
+
+	private static Object unwrap(WebElement element) {
+		if (element instanceof WrapsElement) {
+			return ((WrapsElement) element).getWrappedElement();
+		}
+		return element;
+	}
+
+	private static void execute(JavascriptExecutor scriptExecutor,
+			boolean isAsync, String script, Object... args) {
+		WindowOpeningHints.runWithoutHints(() -> {
+			executeScript(scriptExecutor, isAsync, script, args);
+			return null;
+		});
+	}
+
+	private static void executeScript(JavascriptExecutor scriptExecutor,
+			boolean isAsync, String script, Object... args) {
 		try {
-			scriptExecutor.executeScript(script, element);
+			if (isAsync) {
+				scriptExecutor.executeAsyncScript(script, args);
+			} else {
+				scriptExecutor.executeScript(script, args);
+			}
 		} catch (ClassCastException e) {
-			scriptExecutor.executeScript(script,
-					((WrapsElement) element).getWrappedElement());
+			args[0] = unwrap((WebElement) args[0]);
+			if (isAsync) {
+				scriptExecutor.executeAsyncScript(script, args);
+			} else {
+				scriptExecutor.executeScript(script, args);
+			}
+		}
+	}
+
+	/**
+	 * The asynchronous script is timed out before the repaint. The element
+	 * is already marked by the synchronous part of the script. So it just
+	 * waits for the repaint
+	 */
+	private static void waitForRepaint() {
+		try {
+			Thread.sleep(REPAINT_TIME_OUT);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
-		Thread.sleep(100);
 	}
 
-	private String getOriginalStyle(WebElement elementToBeHiglighted) {
-		return elementToBeHiglighted.getAttribute("style");
+	private static String toRGB(Color color) {
+		return Integer.toString(color.getRed()) + ","
+				+ Integer.toString(color.getGreen()) + ","
+				+ Integer.toString(color.getBlue());
 	}
 
 	/**
@@ -49,7 +137,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.awt.Color, java.lang.String)   
 	 */
 	@Override
-	public synchronized void highlightAsFine(WebDriver driver,
+	public void highlightAsFine(WebDriver driver,
 			WebElement webElement, Color highlight, String comment) {
 		highlightelement(driver, webElement, highlight, eAvailableLevels.FINE,
 				comment);
@@ -64,7 +152,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *   
 	 */
 	@Override
-	public synchronized void highlightAsFine(WebDriver driver,
+	public void highlightAsFine(WebDriver driver,
 			WebElement webElement, String comment) {
 		highlightelement(driver, webElement,
 				eLogColors.DEBUGCOLOR.getStateColor(), eAvailableLevels.FINE,
@@ -77,7 +165,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.awt.Color, java.lang.String)
 	 */
 	@Override
-	public synchronized void highlightAsInfo(WebDriver driver,
+	public void highlightAsInfo(WebDriver driver,
 			WebElement webElement, Color highlight, String comment) {
 		highlightelement(driver, webElement, highlight, eAvailableLevels.INFO,
 				comment);
@@ -91,7 +179,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.lang.String) 
 	 */
 	@Override
-	public synchronized void highlightAsInfo(WebDriver driver,
+	public void highlightAsInfo(WebDriver driver,
 			WebElement webElement, String comment) {
 		highlightelement(driver, webElement,
 				eLogColors.CORRECTSTATECOLOR.getStateColor(),
@@ -105,7 +193,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.awt.Color, java.lang.String)
 	 */
 	@Override
-	public synchronized void highlightAsSevere(WebDriver driver,
+	public void highlightAsSevere(WebDriver driver,
 			WebElement webElement, Color highlight, String comment) {
 		highlightelement(driver, webElement, highlight,
 				eAvailableLevels.SEVERE, comment);
@@ -119,7 +207,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.lang.String)   
 	 */
 	@Override
-	public synchronized void highlightAsSevere(WebDriver driver,
+	public void highlightAsSevere(WebDriver driver,
 			WebElement webElement, String comment) {
 		highlightelement(driver, webElement,
 				eLogColors.SEVERESTATECOLOR.getStateColor(),
@@ -133,7 +221,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.awt.Color, java.lang.String)
 	 */
 	@Override
-	public synchronized void highlightAsWarning(WebDriver driver,
+	public void highlightAsWarning(WebDriver driver,
 			WebElement webElement, Color highlight, String comment) {
 		highlightelement(driver, webElement, highlight, eAvailableLevels.WARN,
 				comment);
@@ -147,7 +235,7 @@ public class WebElementHighLighter implements IConfigurable,
 	 *      org.openqa.selenium.WebElement, java.lang.String)  
 	 */
 	@Override
-	public synchronized void highlightAsWarning(WebDriver driver,
+	public void highlightAsWarning(WebDriver driver,
 			WebElement webElement, String comment) {
 		highlightelement(driver, webElement,
 				eLogColors.WARNSTATECOLOR.getStateColor(),
@@ -156,17 +244,27 @@ public class WebElementHighLighter implements IConfigurable,
 
 	private void highlightelement(WebDriver driver, WebElement webElement,
 			Color color, eAvailableLevels LogLevel, String comment) {
+		JavascriptExecutor scriptExecutor = (JavascriptExecutor) driver;
+		String rgb = toRGB(color);
 		try {
-			String originalStyle = getOriginalStyle(webElement);
-			setNewColor((JavascriptExecutor) driver, webElement,
-					"4px solid rgb(" + Integer.toString(color.getRed()) + ","
-							+ Integer.toString(color.getGreen()) + ","
-							+ Integer.toString(color.getBlue()) + ")");
-			if (toDoScreenShots)
-				Photographer.takeAPictureForLog(driver, LogLevel, comment);
-			else
+			if (!toDoScreenShots) {
+				execute(scriptExecutor, false, FLASH, webElement, rgb);
 				Log.log(LogLevel, comment);
-			setStyle((JavascriptExecutor) driver, webElement, originalStyle);
+				return;
+			}
+			try {
+				execute(scriptExecutor, true, HIGHLIGHT_AND_WAIT_FOR_REPAINT,
+						webElement, rgb);
+			} catch (TimeoutException e) {
+				// the repaint has not been waited for. Script time out can be 0
+				waitForRepaint();
+			}
+			Photographer.takeAPictureForLog(driver, LogLevel, comment);
+			try {
+				execute(scriptExecutor, false, UNMARK, webElement);
+			} catch (WebDriverException e) {
+				// the element has gone after the action
+			}
 		} // There is a problem with mobile applications. Not all locators are
 			// supported
 		catch (WebDriverException e) {
@@ -178,7 +276,7 @@ public class WebElementHighLighter implements IConfigurable,
 	}
 
 	@Override
-	public synchronized void resetAccordingTo(Configuration config) {
+	public void resetAccordingTo(Configuration config) {
 		Boolean toDoScreenShots = config.getSection(ScreenShots.class)
 				.getToTakeScreenShotsOnElementHighLighting();
 		if (toDoScreenShots == null)
@@ -187,22 +285,4 @@ public class WebElementHighLighter implements IConfigurable,
 			this.toDoScreenShots = toDoScreenShots;
 	}
 
-	private void setNewColor(JavascriptExecutor scriptExecutor,
-			WebElement elementToBeHiglighted, String colorExpression) {
-		try {
-			execDecorativeScript(scriptExecutor, elementToBeHiglighted,
-					"arguments[0].style.border = '" + colorExpression + "'");
-		} catch (InterruptedException | StaleElementReferenceException e) {
-		}
-	}
-
-	private void setStyle(JavascriptExecutor scriptExecutor,
-			WebElement elementToBeHiglighted, String style) {
-		try {
-			execDecorativeScript(scriptExecutor, elementToBeHiglighted,
-					"arguments[0].setAttribute('style', '" + style + "');");
-		} catch (InterruptedException | StaleElementReferenceException e) {
-		}
-	}
-
 }
@@ -0,0 +1,54 @@
+package com.github.arachnidium.core.settings;
+
+import com.github.arachnidium.util.configuration.AbstractConfigurationAccessHelper;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.Group;
+
+/**
+ * Stores the interval (milliseconds) the known set of window handles/context
+ * names is trusted for. Existence of windows/contexts is checked in memory
+ * during this interval. When it is expired the set is requested from the
+ * remote side again. The value 0 means that the set is requested by each
+ * check.<br/>
+ * <br/>
+ * Titles and URLs of windows which have been read by waiting for a window
+ * are trusted for the same interval.<br/>
+ * <br/>
+ * Specification:<br/>
+ *
+ * <p><br/>
+ * ...<br/>
+ *"handleSnapshot":<br/>
+ *{<br/>
+ *&nbsp;&nbsp;"revalidationInterval":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"LONG",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some long value (milliseconds)"<br/>
+ *&nbsp;&nbsp;}<br/>
+ *}<br/>
+ *...<br/>
+ *</p>
+ *
+ *@see Configuration
+ */
+@Group(settingGroup = "handleSnapshot")
+public class HandleSnapshot extends AbstractConfigurationAccessHelper {
+
+	private final static Long DEFAULT_REVALIDATION_INTERVAL = 1000L;
+
+	protected HandleSnapshot(Configuration configuration, String group) {
+		super(configuration, group);
+	}
+
+	/**
+	 * @return {@link Long} value of the revalidation interval (milliseconds).
+	 * It is 1000 by default.
+	 */
+	@Setting(setting = "revalidationInterval")
+	public Long getRevalidationInterval() {
+		Long value = getSetting();
+		if (value == null || value < 0) {
+			return DEFAULT_REVALIDATION_INTERVAL;
+		}
+		return value;
+	}
+}
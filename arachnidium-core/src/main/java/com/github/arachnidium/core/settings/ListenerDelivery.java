@@ -0,0 +1,135 @@
+package com.github.arachnidium.core.settings;
+
+import com.github.arachnidium.core.eventlisteners.IContextListener;
+import com.github.arachnidium.core.eventlisteners.IWebDriverEventListener;
+import com.github.arachnidium.core.eventlisteners.IWindowListener;
+import com.github.arachnidium.util.configuration.AbstractConfigurationAccessHelper;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.Group;
+
+/**
+ * Stores the way events are delivered to listeners which are
+ * provided by SPI ({@link IWebDriverEventListener}, {@link IWindowListener},
+ * {@link IContextListener}).<br/>
+ * <br/>
+ * By default events are delivered synchronously. If the asynchronous
+ * delivery is turned on then events are put into the bounded queue and
+ * delivered by the separated thread. When the queue is full the
+ * overflow policy is applied. Events which are still in the queue are
+ * delivered before WebDriver quits (but no longer than the flush time out).<br/>
+ * <br/>
+ * Asynchronous listeners receive the live driver and elements while the test
+ * thread keeps working with them. So these listeners may only read the event
+ * arguments which are values (e.g. the locator or the script).
+ * They must not call the driver or elements. Listeners which need it should be
+ * delivered synchronously.<br/>
+ * <br/>
+ * Specification:<br/>
+ *
+ * <p><br/>
+ * ...<br/>
+ *"listenerDelivery":<br/>
+ *{<br/>
+ *&nbsp;&nbsp;"isAsynchronous":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"BOOL",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"flag value"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"queueCapacity":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"INT",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some int value"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"overflowPolicy":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"STRING",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"BLOCK, DISCARD_NEWEST, DISCARD_OLDEST or CALLER_RUNS"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"flushTimeOut":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"LONG",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some long value (seconds)"<br/>
+ *&nbsp;&nbsp;}<br/>
+ *}<br/>
+ *...<br/>
+ *</p>
+ *
+ *@see Configuration
+ */
+@Group(settingGroup = "listenerDelivery")
+public class ListenerDelivery extends AbstractConfigurationAccessHelper {
+
+	/**
+	 * What should be done when the queue of events is full
+	 */
+	public static enum OverflowPolicy {
+		/**
+		 * The caller waits until there is free space
+		 */
+		BLOCK,
+		/**
+		 * The new event is dropped
+		 */
+		DISCARD_NEWEST,
+		/**
+		 * The oldest event in the queue is dropped
+		 */
+		DISCARD_OLDEST,
+		/**
+		 * The new event is delivered synchronously by the caller
+		 */
+		CALLER_RUNS;
+	}
+
+	private final static Integer DEFAULT_CAPACITY = 1024;
+	private final static Long DEFAULT_FLUSH_TIME_OUT = 10L;
+
+	protected ListenerDelivery(Configuration configuration, String group) {
+		super(configuration, group);
+	}
+
+	/**
+	 * @return {@link Boolean} value of the flag "isAsynchronous".
+	 * It is false by default.
+	 */
+	@Setting(setting = "isAsynchronous")
+	public Boolean isAsynchronous() {
+		Boolean value = getSetting();
+		return value != null && value;
+	}
+
+	/**
+	 * @return {@link Integer} value of the event queue capacity.
+	 * It is 1024 by default.
+	 */
+	@Setting(setting = "queueCapacity")
+	public Integer getQueueCapacity() {
+		Integer value = getSetting();
+		if (value == null || value <= 0) {
+			return DEFAULT_CAPACITY;
+		}
+		return value;
+	}
+
+	/**
+	 * @return {@link OverflowPolicy}. It is {@link OverflowPolicy#BLOCK} by default.
+	 */
+	@Setting(setting = "overflowPolicy")
+	public OverflowPolicy getOverflowPolicy() {
+		String policyStr = getSetting();
+		if (policyStr == null) {
+			return OverflowPolicy.BLOCK;
+		}
+		return OverflowPolicy.valueOf(policyStr.toUpperCase());
+	}
+
+	/**
+	 * @return {@link Long} value of the time (seconds) to wait for
+	 * delivery of queued events before WebDriver quits.
+	 * It is 10 by default.
+	 */
+	@Setting(setting = "flushTimeOut")
+	public Long getFlushTimeOut() {
+		Long value = getSetting();
+		if (value == null) {
+			return DEFAULT_FLUSH_TIME_OUT;
+		}
+		return value;
+	}
+}
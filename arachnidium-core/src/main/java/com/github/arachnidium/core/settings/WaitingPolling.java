@@ -0,0 +1,116 @@
+package com.github.arachnidium.core.settings;
+
+import com.github.arachnidium.util.configuration.AbstractConfigurationAccessHelper;
+import com.github.arachnidium.util.configuration.Configuration;
+import com.github.arachnidium.util.configuration.Group;
+
+/**
+ * Stores the way conditions are polled while something is awaited.
+ * Possible strategies are:<br/>
+ * - FIXED. Each interval is equal to <code>interval</code><br/>
+ * - EXPONENTIAL. Intervals are doubled from <code>interval</code> to
+ * <code>maxInterval</code><br/>
+ * - FIBONACCI. Intervals grow as Fibonacci numbers from
+ * <code>interval</code> to <code>maxInterval</code><br/>
+ * - FAST_THEN_SLOW. <code>fastAttempts</code> attempts are performed at
+ * <code>interval</code>, then <code>maxInterval</code> is used<br/>
+ * <br/>
+ * Specification:<br/>
+ *
+ * <p><br/>
+ * ...<br/>
+ *"waitingPolling":<br/>
+ *{<br/>
+ *&nbsp;&nbsp;"strategy":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"STRING",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"FIXED, EXPONENTIAL, FIBONACCI or FAST_THEN_SLOW"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"interval":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"LONG",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some long value (milliseconds)"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"maxInterval":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"LONG",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some long value (milliseconds)"<br/>
+ *&nbsp;&nbsp;},<br/>
+ *&nbsp;&nbsp;"fastAttempts":{<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"type":"INT",<br/>
+ *&nbsp;&nbsp;&nbsp;&nbsp;"value":"some int value"<br/>
+ *&nbsp;&nbsp;}<br/>
+ *}<br/>
+ *...<br/>
+ *</p>
+ *
+ *@see Configuration
+ */
+@Group(settingGroup = "waitingPolling")
+public class WaitingPolling extends AbstractConfigurationAccessHelper {
+
+	/**
+	 * Supported polling strategies
+	 */
+	public static enum Strategy {
+		FIXED, EXPONENTIAL, FIBONACCI, FAST_THEN_SLOW;
+	}
+
+	private final static Strategy DEFAULT_STRATEGY = Strategy.FAST_THEN_SLOW;
+	private final static Long DEFAULT_INTERVAL = 25L;
+	private final static Long DEFAULT_MAX_INTERVAL = 500L;
+	private final static Integer DEFAULT_FAST_ATTEMPTS = 8;
+
+	protected WaitingPolling(Configuration configuration, String group) {
+		super(configuration, group);
+	}
+
+	/**
+	 * @return {@link Strategy} of the polling. It is FAST_THEN_SLOW by
+	 * default.
+	 */
+	@Setting(setting = "strategy")
+	public Strategy getStrategy() {
+		String value = getSetting();
+		if (value == null) {
+			return DEFAULT_STRATEGY;
+		}
+		return Strategy.valueOf(value.toUpperCase());
+	}
+
+	/**
+	 * @return {@link Long} value of the first (or the short) interval
+	 * (milliseconds). It is 25 by default.
+	 */
+	@Setting(setting = "interval")
+	public Long getInterval() {
+		Long value = getSetting();
+		if (value == null || value <= 0) {
+			return DEFAULT_INTERVAL;
+		}
+		return value;
+	}
+
+	/**
+	 * @return {@link Long} value of the maximum (or the long) interval
+	 * (milliseconds). It is 500 by default.
+	 */
+	@Setting(setting = "maxInterval")
+	public Long getMaxInterval() {
+		Long value = getSetting();
+		if (value == null || value <= 0) {
+			return DEFAULT_MAX_INTERVAL;
+		}
+		return value;
+	}
+
+	/**
+	 * @return {@link Integer} value of attempts which are performed at the
+	 * short interval by the FAST_THEN_SLOW strategy. It is 8 by default.
+	 */
+	@Setting(setting = "fastAttempts")
+	public Integer getFastAttempts() {
+		Integer value = getSetting();
+		if (value == null || value < 0) {
+			return DEFAULT_FAST_ATTEMPTS;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,157 @@
+package com.github.arachnidium.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.pagefactory.ByAll;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+/**
+ * Checks that compiled locators find the same elements as original
+ * {@link ByChained}, {@link ByAll} and {@link ByNumbered} compositions and
+ * that they need only one request. Also many locators should be performed by
+ * one request
+ */
+public class LocatorCompilerTest {
+
+	private final static String PAGE = "<html><body>"
+			+ "<div class='menu' id='first'><ul>"
+			+ "<li class='item'>1</li><li class='item'>2</li></ul></div>"
+			+ "<div class='menu' id='second'><ul><li class='item'>3</li></ul>"
+			+ "<span class='item'>4</span></div>"
+			+ "<p class='item'>5</p>"
+			+ "</body></html>";
+
+	private HtmlUnitDriver driver;
+	private File page;
+
+	@BeforeClass
+	public void setUp() throws IOException {
+		page = File.createTempFile("locators", ".html");
+		Files.write(page.toPath(), PAGE.getBytes(StandardCharsets.UTF_8));
+		driver = new HtmlUnitDriver(BrowserVersion.FIREFOX_38);
+		driver.setJavascriptEnabled(true);
+		driver.get(page.toURI().toString());
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void tearDown() {
+		if (driver != null)
+			driver.quit();
+		if (page != null)
+			page.delete();
+	}
+
+	@DataProvider
+	public Object[][] locators() {
+		return new Object[][] {
+				{ new ByChained(By.cssSelector("div.menu"), By.cssSelector("li")) },
+				{ new ByChained(By.xpath("//div[@class='menu']"), By.xpath(".//li")) },
+				{ new ByChained(By.cssSelector("div.menu"), By.xpath(".//li")) },
+				{ new ByChained(By.cssSelector("body"), By.cssSelector("div.menu"),
+						By.cssSelector("ul > li")) },
+				{ new ByAll(By.cssSelector("p.item"), By.cssSelector("li.item")) },
+				{ new ByAll(By.xpath("//span"), new ByChained(
+						By.cssSelector("#second"), By.xpath(".//li"))) },
+				{ new ByNumbered(new ByChained(By.cssSelector("div.menu"),
+						By.cssSelector(".item")), 2) },
+				{ new ByNumbered(new ByChained(By.xpath("//div"),
+						By.xpath(".//li")), 1) },
+				{ new ByNumbered(By.cssSelector(".item"), 10) } };
+	}
+
+	private static List<WebElement> findUnfused(By by, SearchContext context) {
+		if (by instanceof ByNumbered)
+			return ((ByNumbered) by).findAllAndTake(context);
+		return by.findElements(context);
+	}
+
+	/**
+	 * @return the driver which counts requests
+	 */
+	private SearchContext countingContext(final AtomicInteger requests) {
+		return (SearchContext) Proxy.newProxyInstance(
+				WebDriver.class.getClassLoader(), new Class<?>[] {
+						WebDriver.class, JavascriptExecutor.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) throws Throwable {
+						requests.incrementAndGet();
+						try {
+							return method.invoke(driver, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					}
+				});
+	}
+
+	@Test(dataProvider = "locators")
+	public void fusedResultsAreTheSame(By by) {
+		By compiled = LocatorCompiler.compile(by);
+		Assert.assertNotSame(compiled, by);
+		Assert.assertEquals(compiled.toString(), by.toString());
+
+		List<WebElement> expected = findUnfused(by, driver);
+		AtomicInteger requests = new AtomicInteger();
+		List<WebElement> actual = compiled.findElements(countingContext(requests));
+		Assert.assertEquals(actual, expected);
+		Assert.assertEquals(requests.get(), 1);
+	}
+
+	@Test(dataProvider = "locators")
+	public void fusedResultsAreTheSameWithinElement(By by) {
+		WebElement body = driver.findElement(By.tagName("body"));
+		List<WebElement> expected = findUnfused(by, body);
+		Assert.assertEquals(LocatorCompiler.compile(by).findElements(body),
+				expected);
+	}
+
+	@Test
+	public void otherLocatorsAreNotCompiled() {
+		By byId = By.id("first");
+		Assert.assertSame(LocatorCompiler.compile(byId), byId);
+		By chained = new ByChained(By.id("first"), By.tagName("li"));
+		Assert.assertSame(LocatorCompiler.compile(chained), chained);
+		Assert.assertEquals(new ByNumbered(chained, 1).findElements(driver)
+				.size(), 1);
+	}
+
+	@Test
+	public void manyLocatorsAreFoundTogether() {
+		List<By> bys = Arrays.asList(By.cssSelector("li.item"),
+				By.id("first"), new ByChained(By.xpath("//div"),
+						By.cssSelector("span")), By.xpath("//table"));
+		AtomicInteger requests = new AtomicInteger();
+		List<List<WebElement>> found = LocatorCompiler.findAll(bys,
+				(JavascriptExecutor) countingContext(requests));
+		Assert.assertEquals(requests.get(), 1);
+		Assert.assertEquals(found.get(0), bys.get(0).findElements(driver));
+		Assert.assertNull(found.get(1));
+		Assert.assertEquals(found.get(2), bys.get(2).findElements(driver));
+		Assert.assertTrue(found.get(3).isEmpty());
+	}
+}
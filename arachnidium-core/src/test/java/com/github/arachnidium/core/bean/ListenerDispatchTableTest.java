@@ -0,0 +1,225 @@
+package com.github.arachnidium.core.bean;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that the precompiled listener dispatch selects the same listener
+ * methods as the reflective lookup, passes arguments, propagates exceptions
+ * and reuses compiled invokers
+ */
+public class ListenerDispatchTableTest {
+
+	private static class StubListener extends AbstractAspect {
+		@SupportField
+		private final WebDriver driver;
+		private int beforeGet;
+		private int afterQuit;
+		private String lastUrl;
+		private Object lastTarget;
+		private Object lastSupport;
+
+		private StubListener(WebDriver driver) {
+			super(null);
+			this.driver = driver;
+		}
+
+		@BeforeTarget(targetClass = WebDriver.class, targetMethod = "get")
+		@BeforeTarget(targetClass = WebDriver.class, targetMethod = "navigate")
+		void beforeGet(@TargetParam WebDriver target,
+				@UseParameter(number = 0) String url,
+				@SupportParam WebDriver support) {
+			beforeGet++;
+			lastUrl = url;
+			lastTarget = target;
+			lastSupport = support;
+		}
+
+		@AfterTarget(targetClass = WebDriver.class, targetMethod = "quit")
+		void afterQuit() {
+			afterQuit++;
+		}
+
+		@BeforeTarget(targetClass = WebDriver.class, targetMethod = "close")
+		void beforeClose() {
+			throw new IllegalStateException("close is not allowed");
+		}
+
+		@Override
+		public Object doAround(ProceedingJoinPoint point) throws Throwable {
+			return point.proceed();
+		}
+	}
+
+	private static WebDriver stubDriver() {
+		return (WebDriver) Proxy.newProxyInstance(
+				WebDriver.class.getClassLoader(),
+				new Class<?>[] { WebDriver.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) throws Throwable {
+						if ("hashCode".equals(method.getName())) {
+							return System.identityHashCode(proxy);
+						}
+						return null;
+					}
+				});
+	}
+
+	private static JoinPoint stubJoinPoint(final Object target,
+			final String methodName, final Object[] args) {
+		final Signature signature = (Signature) Proxy.newProxyInstance(
+				Signature.class.getClassLoader(),
+				new Class<?>[] { Signature.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] a) throws Throwable {
+						return methodName;
+					}
+				});
+		return (JoinPoint) Proxy.newProxyInstance(
+				JoinPoint.class.getClassLoader(),
+				new Class<?>[] { JoinPoint.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] a) throws Throwable {
+						switch (method.getName()) {
+						case "getTarget":
+							return target;
+						case "getArgs":
+							return args;
+						case "getSignature":
+							return signature;
+						default:
+							return null;
+						}
+					}
+				});
+	}
+
+	/**
+	 * The listener method which is found by the reflective lookup that was
+	 * performed on each call before
+	 */
+	private static Method reflectiveLookup(Class<?> listenerClass,
+			AbstractAspect.WhenLaunch when, Class<?> targetClass,
+			String methodName) throws Exception {
+		for (Method m : listenerClass.getDeclaredMethods()) {
+			Annotation[] annotations = when.getAnnotations(m);
+			boolean isAssignable = false;
+			boolean isNamed = false;
+			for (Annotation a : annotations) {
+				Method targetMethod = a.annotationType().getMethod(
+						"targetMethod");
+				Method targetClassMethod = a.annotationType().getMethod(
+						"targetClass");
+				isAssignable = isAssignable
+						|| ((Class<?>) targetClassMethod.invoke(a))
+								.isAssignableFrom(targetClass);
+				isNamed = isNamed
+						|| methodName.equals(targetMethod.invoke(a));
+			}
+			if (isAssignable && isNamed) {
+				return m;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void listenerMethodsAreInvokedOnce() {
+		WebDriver driver = stubDriver();
+		StubListener listener = new StubListener(driver);
+
+		AbstractAspect.launchMethod(
+				stubJoinPoint(driver, "get", new Object[] { "http://a" }),
+				listener, AbstractAspect.WhenLaunch.BEFORE);
+		AbstractAspect.launchMethod(
+				stubJoinPoint(driver, "get", new Object[] { "http://b" }),
+				listener, AbstractAspect.WhenLaunch.AFTER);
+		AbstractAspect.launchMethod(
+				stubJoinPoint(driver, "quit", new Object[] {}), listener,
+				AbstractAspect.WhenLaunch.AFTER);
+		AbstractAspect.launchMethod(
+				stubJoinPoint(driver, "getTitle", new Object[] {}), listener,
+				AbstractAspect.WhenLaunch.BEFORE);
+
+		Assert.assertEquals(listener.beforeGet, 1);
+		Assert.assertEquals(listener.lastUrl, "http://a");
+		Assert.assertEquals(listener.afterQuit, 1);
+	}
+
+	@Test
+	public void argumentsArePassed() {
+		WebDriver driver = stubDriver();
+		WebDriver support = stubDriver();
+		StubListener listener = new StubListener(support);
+
+		AbstractAspect.launchMethod(
+				stubJoinPoint(driver, "navigate", new Object[] { "http://c" }),
+				listener, AbstractAspect.WhenLaunch.BEFORE);
+
+		Assert.assertSame(listener.lastTarget, driver);
+		Assert.assertSame(listener.lastSupport, support);
+		Assert.assertEquals(listener.lastUrl, "http://c");
+	}
+
+	@Test
+	public void exceptionsArePropagated() {
+		WebDriver driver = stubDriver();
+		StubListener listener = new StubListener(driver);
+		try {
+			AbstractAspect.launchMethod(
+					stubJoinPoint(driver, "close", new Object[] {}),
+					listener, AbstractAspect.WhenLaunch.BEFORE);
+			Assert.fail("The exception should be thrown");
+		} catch (RuntimeException e) {
+			Throwable cause = AbstractAspect.getRootCause(e);
+			Assert.assertEquals(cause.getClass(), IllegalStateException.class);
+			Assert.assertEquals(cause.getMessage(), "close is not allowed");
+		}
+	}
+
+	@Test
+	public void theSameMethodIsSelected() throws Exception {
+		Class<?> targetClass = stubDriver().getClass();
+		for (AbstractAspect.WhenLaunch when : AbstractAspect.WhenLaunch
+				.values()) {
+			for (String name : new String[] { "get", "navigate", "quit",
+					"close", "getTitle" }) {
+				Method expected = reflectiveLookup(StubListener.class, when,
+						targetClass, name);
+				ListenerDispatchTable.ListenerInvoker invoker = ListenerDispatchTable
+						.getInvoker(StubListener.class, when, targetClass,
+								name);
+				Assert.assertEquals(invoker.isEmpty(), expected == null, when
+						+ " " + name);
+			}
+		}
+	}
+
+	@Test
+	public void compiledInvokersAreReused() {
+		Class<?> targetClass = stubDriver().getClass();
+		ListenerDispatchTable.ListenerInvoker invoker = ListenerDispatchTable
+				.getInvoker(StubListener.class,
+						AbstractAspect.WhenLaunch.BEFORE, targetClass, "get");
+		Assert.assertFalse(invoker.isEmpty());
+		Assert.assertSame(ListenerDispatchTable.getInvoker(
+				StubListener.class, AbstractAspect.WhenLaunch.BEFORE,
+				targetClass, new String("get")), invoker);
+		Assert.assertSame(ListenerDispatchTable.getInvoker(
+				StubListener.class, AbstractAspect.WhenLaunch.AFTER,
+				targetClass, "getTitle"),
+				ListenerDispatchTable.ListenerInvoker.NONE);
+	}
+}
@@ -0,0 +1,153 @@
+package com.github.arachnidium.core.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.github.arachnidium.core.settings.ListenerDelivery.OverflowPolicy;
+
+/**
+ * Checks the order of delivered events, overflow policies of the full ring
+ * buffer and the draining of events when the driver quits
+ */
+public class ListenerEventBusTest {
+
+	private final static int CAPACITY = 2;
+	private final static long FLUSH_TIME_OUT = 5;
+
+	private List<String> delivered;
+	// it holds the delivery thread
+	private CountDownLatch gate;
+	private CountDownLatch isHeld;
+
+	@BeforeMethod
+	public void setUp() {
+		delivered = Collections.synchronizedList(new ArrayList<String>());
+		gate = new CountDownLatch(1);
+		isHeld = new CountDownLatch(1);
+	}
+
+	private Runnable event(String name) {
+		return () -> delivered.add(name);
+	}
+
+	/**
+	 * Fills the buffer while the delivery thread is busy with the first event
+	 */
+	private ListenerEventBus fullBus(OverflowPolicy policy)
+			throws InterruptedException {
+		ListenerEventBus bus = new ListenerEventBus(CAPACITY, policy,
+				FLUSH_TIME_OUT);
+		bus.post(() -> {
+			isHeld.countDown();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			delivered.add("held");
+		});
+		Assert.assertTrue(isHeld.await(5, TimeUnit.SECONDS));
+		bus.post(event("1"));
+		bus.post(event("2"));
+		return bus;
+	}
+
+	@Test
+	public void eventsAreDeliveredInOrder() {
+		ListenerEventBus bus = new ListenerEventBus(CAPACITY,
+				OverflowPolicy.BLOCK, FLUSH_TIME_OUT);
+		List<String> expected = new ArrayList<String>();
+		for (int i = 0; i < 100; i++) {
+			bus.post(event(String.valueOf(i)));
+			expected.add(String.valueOf(i));
+		}
+		bus.flush();
+		Assert.assertEquals(delivered, expected);
+		bus.stop();
+	}
+
+	@Test
+	public void newestEventIsDiscarded() throws InterruptedException {
+		ListenerEventBus bus = fullBus(OverflowPolicy.DISCARD_NEWEST);
+		bus.post(event("3"));
+		Assert.assertEquals(bus.getDiscardedCount(), 1);
+		gate.countDown();
+		bus.flush();
+		Assert.assertEquals(delivered, Arrays.asList("held", "1", "2"));
+		bus.stop();
+	}
+
+	@Test
+	public void oldestEventIsDiscarded() throws InterruptedException {
+		ListenerEventBus bus = fullBus(OverflowPolicy.DISCARD_OLDEST);
+		bus.post(event("3"));
+		Assert.assertEquals(bus.getDiscardedCount(), 1);
+		gate.countDown();
+		bus.flush();
+		Assert.assertEquals(delivered, Arrays.asList("held", "2", "3"));
+		bus.stop();
+	}
+
+	@Test
+	public void callerDeliversEvent() throws InterruptedException {
+		ListenerEventBus bus = fullBus(OverflowPolicy.CALLER_RUNS);
+		Thread caller = Thread.currentThread();
+		bus.post(() -> delivered.add(Thread.currentThread() == caller ? "3 by caller"
+				: "3"));
+		Assert.assertEquals(delivered, Arrays.asList("3 by caller"));
+		gate.countDown();
+		bus.flush();
+		Assert.assertEquals(delivered,
+				Arrays.asList("3 by caller", "held", "1", "2"));
+		Assert.assertEquals(bus.getDiscardedCount(), 0);
+		bus.stop();
+	}
+
+	@Test
+	public void callerWaitsForFreeSpace() throws InterruptedException {
+		ListenerEventBus bus = fullBus(OverflowPolicy.BLOCK);
+		CountDownLatch isPosted = new CountDownLatch(1);
+		Thread poster = new Thread(() -> {
+			bus.post(event("3"));
+			isPosted.countDown();
+		});
+		poster.start();
+		Assert.assertFalse(isPosted.await(300, TimeUnit.MILLISECONDS));
+		gate.countDown();
+		Assert.assertTrue(isPosted.await(5, TimeUnit.SECONDS));
+		bus.flush();
+		Assert.assertEquals(delivered, Arrays.asList("held", "1", "2", "3"));
+		Assert.assertEquals(bus.getDiscardedCount(), 0);
+		bus.stop();
+	}
+
+	@Test
+	public void queuedEventsAreDeliveredOnStop() throws InterruptedException {
+		ListenerEventBus bus = fullBus(OverflowPolicy.BLOCK);
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			gate.countDown();
+		}).start();
+		bus.stop();
+		Assert.assertEquals(delivered, Arrays.asList("held", "1", "2"));
+
+		// events which are posted after the driver quits are delivered at once
+		Thread caller = Thread.currentThread();
+		bus.post(() -> delivered.add(Thread.currentThread() == caller ? "late by caller"
+				: "late"));
+		Assert.assertEquals(delivered,
+				Arrays.asList("held", "1", "2", "late by caller"));
+	}
+}
@@ -0,0 +1,153 @@
+package com.github.arachnidium.core.components.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+
+/**
+ * Checks that states which are read by one script are the same as values
+ * returned by {@link WebElement} getters. Hidden elements and groups of
+ * elements (e.g. list fields) are included. Text is compared after the
+ * white space normalization which is performed by getters
+ */
+public class ElementStateTest {
+
+	private final static String PAGE = "<html><body style='margin:0'>"
+			+ "<div id='title' class='header' title='greeting' "
+			+ "style='position:absolute;left:10px;top:20px;width:200px;height:30px'>"
+			+ "  Hello,   world </div>"
+			// HtmlUnit doesn't lay out pages. So the geometry is explicit
+			+ "<ul>"
+			+ "<li class='item' data-index='1' "
+			+ "style='position:absolute;left:0;top:100px;width:50px;height:20px'>first</li>"
+			+ "<li class='item' data-index='2' style='display:none'>second</li>"
+			+ "<li class='item' data-index='3' "
+			+ "style='position:absolute;left:0;top:120px;width:50px;height:20px'>third</li></ul>"
+			+ "<span id='invisible' style='visibility:hidden'>invisible</span>"
+			+ "<input id='field' type='text' value='typed' "
+			+ "style='position:absolute;left:0;top:150px;width:100px;height:20px'/>"
+			+ "</body></html>";
+
+	private final static String[] ATTRIBUTES = new String[] { "id", "class",
+			"title", "data-index", "absent" };
+
+	private HtmlUnitDriver driver;
+	private ScriptExecutor executor;
+	private File page;
+
+	@BeforeClass
+	public void setUp() throws IOException {
+		page = File.createTempFile("states", ".html");
+		Files.write(page.toPath(), PAGE.getBytes(StandardCharsets.UTF_8));
+		driver = new HtmlUnitDriver(BrowserVersion.FIREFOX_38);
+		driver.setJavascriptEnabled(true);
+		driver.get(page.toURI().toString());
+		executor = new ScriptExecutor(driver) {
+		};
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void tearDown() {
+		if (driver != null)
+			driver.quit();
+		if (page != null)
+			page.delete();
+	}
+
+	private static void assertSameState(ElementState state, WebElement element) {
+		Assert.assertEquals(state.isDisplayed(), element.isDisplayed(),
+				element.toString());
+		Assert.assertEquals(state.getText(), element.getText(),
+				element.toString());
+		for (String attribute : ATTRIBUTES) {
+			Assert.assertEquals(state.getAttribute(attribute),
+					element.getAttribute(attribute), attribute);
+		}
+		if (state.isDisplayed()) {
+			Assert.assertEquals(state.getLocation(), element.getLocation(),
+					element.toString());
+			Assert.assertEquals(state.getSize(), element.getSize(),
+					element.toString());
+		}
+	}
+
+	@Test
+	public void statesAreTheSameAsValuesOfElements() {
+		List<WebElement> elements = driver.findElements(By
+				.cssSelector("#title, li, #invisible"));
+		List<ElementState> states = executor.readStates(elements, ATTRIBUTES);
+		Assert.assertEquals(states.size(), elements.size());
+		for (int i = 0; i < elements.size(); i++) {
+			assertSameState(states.get(i), elements.get(i));
+		}
+	}
+
+	@Test
+	public void hiddenElementsHaveNoText() {
+		List<ElementState> states = executor.readStates(
+				driver.findElements(By.cssSelector("li, #invisible")), "class");
+		Assert.assertEquals(states.size(), 4);
+		Assert.assertTrue(states.get(0).isDisplayed());
+		Assert.assertEquals(states.get(0).getText(), "first");
+		Assert.assertFalse(states.get(1).isDisplayed());
+		Assert.assertEquals(states.get(1).getText(), "");
+		Assert.assertEquals(states.get(1).getAttribute("class"), "item");
+		Assert.assertFalse(states.get(3).isDisplayed());
+		Assert.assertEquals(states.get(3).getText(), "");
+	}
+
+	@Test
+	public void layoutIsRead() {
+		ElementState title = executor.readStates(
+				driver.findElements(By.id("title"))).get(0);
+		Assert.assertEquals(title.getText(), "Hello, world");
+		Assert.assertEquals(title.getLocation().getX(), 10);
+		Assert.assertEquals(title.getLocation().getY(), 20);
+		Assert.assertEquals(title.getSize().getWidth(), 200);
+		Assert.assertEquals(title.getSize().getHeight(), 30);
+	}
+
+	@Test
+	public void groupsAreReadByOneScript() {
+		Map<String, List<WebElement>> groups = new LinkedHashMap<String, List<WebElement>>();
+		groups.put("items", driver.findElements(By.cssSelector("li")));
+		groups.put("title", Arrays.asList(driver.findElement(By.id("title"))));
+		groups.put("nothing", driver.findElements(By.cssSelector("table")));
+		groups.put("field", Arrays.asList(driver.findElement(By.id("field"))));
+
+		Map<String, List<ElementState>> states = executor.readStatesOfGroups(
+				groups, ATTRIBUTES);
+		Assert.assertEquals(states.keySet(), groups.keySet());
+		for (Map.Entry<String, List<WebElement>> group : groups.entrySet()) {
+			List<ElementState> groupStates = states.get(group.getKey());
+			Assert.assertEquals(groupStates.size(), group.getValue().size(),
+					group.getKey());
+			for (int i = 0; i < groupStates.size(); i++) {
+				assertSameState(groupStates.get(i), group.getValue().get(i));
+			}
+		}
+		Assert.assertEquals(states.get("items").get(2).getAttribute(
+				"data-index"), "3");
+	}
+
+	@Test
+	public void nothingIsReadForNoElements() {
+		Assert.assertTrue(executor.readStates(
+				driver.findElements(By.cssSelector("table"))).isEmpty());
+	}
+}
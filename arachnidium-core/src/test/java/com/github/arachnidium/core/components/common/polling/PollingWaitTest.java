@@ -0,0 +1,233 @@
+package com.github.arachnidium.core.components.common.polling;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.github.arachnidium.util.logging.latency.WaitingOutcomes;
+import com.google.common.base.Ticker;
+
+/**
+ * Checks intervals of polling strategies, the timeout boundary and outcomes
+ * of waitings. The time passes only when {@link PollingWait} sleeps
+ */
+public class PollingWaitTest {
+
+	private final static long TIME_OUT = 1000;
+
+	private long now;
+	// milliseconds the waiting has slept
+	private List<Long> pauses;
+	private PollingWait wait;
+
+	private long resolved;
+	private long timedOut;
+	private long failed;
+	private long attempts;
+
+	@BeforeMethod
+	public void setUp() {
+		now = 0;
+		pauses = new ArrayList<Long>();
+		wait = new PollingWait(new Ticker() {
+			@Override
+			public long read() {
+				return now;
+			}
+		}, duration -> {
+			pauses.add(duration.in(TimeUnit.MILLISECONDS));
+			now += duration.in(TimeUnit.NANOSECONDS);
+		});
+
+		WaitingOutcomes outcomes = WaitingOutcomes.get();
+		resolved = outcomes.getResolved();
+		timedOut = outcomes.getTimedOut();
+		failed = outcomes.getFailed();
+		attempts = outcomes.getAttempts();
+	}
+
+	private void assertOutcomes(long resolved, long timedOut, long failed,
+			long attempts) {
+		WaitingOutcomes outcomes = WaitingOutcomes.get();
+		Assert.assertEquals(outcomes.getResolved() - this.resolved, resolved);
+		Assert.assertEquals(outcomes.getTimedOut() - this.timedOut, timedOut);
+		Assert.assertEquals(outcomes.getFailed() - this.failed, failed);
+		Assert.assertEquals(outcomes.getAttempts() - this.attempts, attempts);
+	}
+
+	private long millis() {
+		return TimeUnit.NANOSECONDS.toMillis(now);
+	}
+
+	/**
+	 * The condition is met since the given time (milliseconds)
+	 */
+	private ExpectedCondition<Boolean> isMetSince(long time) {
+		return driver -> millis() >= time;
+	}
+
+	private void timeOut(IPollingStrategy strategy) {
+		try {
+			wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS, strategy,
+					isMetSince(Long.MAX_VALUE));
+			Assert.fail("The waiting should be timed out");
+		} catch (TimeoutException e) {
+			Assert.assertEquals(millis(), TIME_OUT);
+		}
+	}
+
+	@Test
+	public void fixedIntervals() {
+		timeOut(new FixedPolling(300));
+		// the last pause is cut by the deadline
+		Assert.assertEquals(pauses, Arrays.asList(300L, 300L, 300L, 100L));
+		assertOutcomes(0, 1, 0, 5);
+	}
+
+	@Test
+	public void fastThenSlowIntervals() {
+		timeOut(new FastThenSlowPolling(25, 3, 500));
+		Assert.assertEquals(pauses, Arrays.asList(25L, 25L, 25L, 500L, 425L));
+		assertOutcomes(0, 1, 0, 6);
+	}
+
+	@Test
+	public void exponentialIntervals() {
+		timeOut(new ExponentialBackoffPolling(100, 400, 0));
+		Assert.assertEquals(pauses, Arrays.asList(100L, 200L, 400L, 300L));
+		assertOutcomes(0, 1, 0, 5);
+
+		IPollingStrategy strategy = new ExponentialBackoffPolling(100, 400, 0);
+		Assert.assertEquals(strategy.getInterval(62), 400);
+		Assert.assertEquals(strategy.getInterval(Integer.MAX_VALUE), 400);
+	}
+
+	@Test
+	public void exponentialIntervalsWithJitter() {
+		IPollingStrategy strategy = new ExponentialBackoffPolling(100, 400,
+				0.2);
+		long[] expected = new long[] { 100, 200, 400, 400 };
+		for (int i = 0; i < 100; i++) {
+			for (int attempt = 0; attempt < expected.length; attempt++) {
+				long interval = strategy.getInterval(attempt);
+				Assert.assertTrue(interval >= expected[attempt] * 0.8
+						&& interval <= expected[attempt] * 1.2,
+						String.valueOf(interval));
+			}
+		}
+	}
+
+	@Test
+	public void fibonacciIntervals() {
+		timeOut(new FibonacciPolling(100, 300));
+		Assert.assertEquals(pauses,
+				Arrays.asList(100L, 100L, 200L, 300L, 300L));
+		assertOutcomes(0, 1, 0, 6);
+	}
+
+	@Test
+	public void conditionIsMetAtTheDeadline() {
+		Assert.assertTrue(wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+				new FixedPolling(500), isMetSince(TIME_OUT)));
+		Assert.assertEquals(pauses, Arrays.asList(500L, 500L));
+		assertOutcomes(1, 0, 0, 3);
+	}
+
+	@Test
+	public void conditionIsCheckedOnceWithoutTimeOut() {
+		try {
+			wait.until(null, 0, TimeUnit.MILLISECONDS, new FixedPolling(500),
+					isMetSince(1));
+			Assert.fail("The waiting should be timed out");
+		} catch (TimeoutException e) {
+			Assert.assertTrue(pauses.isEmpty());
+		}
+		Assert.assertTrue(wait.until(null, 0, TimeUnit.MILLISECONDS,
+				new FixedPolling(500), isMetSince(0)));
+		assertOutcomes(1, 1, 0, 2);
+	}
+
+	@Test
+	public void conditionIsMetBeforeTheDeadline() {
+		Assert.assertTrue(wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+				new FastThenSlowPolling(25, 2, 500), isMetSince(60)));
+		Assert.assertEquals(pauses, Arrays.asList(25L, 25L, 500L));
+		Assert.assertEquals(millis(), 550);
+		assertOutcomes(1, 0, 0, 4);
+	}
+
+	@Test
+	public void notFoundExceptionIsIgnored() {
+		NoSuchElementException notFound = new NoSuchElementException("absent");
+		try {
+			wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+					new FixedPolling(500), driver -> {
+						throw notFound;
+					});
+			Assert.fail("The waiting should be timed out");
+		} catch (TimeoutException e) {
+			Assert.assertSame(e.getCause(), notFound);
+		}
+		assertOutcomes(0, 1, 0, 3);
+	}
+
+	@Test
+	public void waitingFailsOnOtherExceptions() {
+		IllegalStateException exception = new IllegalStateException();
+		try {
+			wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+					new FixedPolling(500), driver -> {
+						throw exception;
+					});
+			Assert.fail("The exception should be thrown");
+		} catch (IllegalStateException e) {
+			Assert.assertSame(e, exception);
+		}
+		Assert.assertTrue(pauses.isEmpty());
+		assertOutcomes(0, 0, 1, 1);
+	}
+
+	@Test
+	public void waitingFailsWhenItIsInterrupted() {
+		PollingWait interrupted = new PollingWait(Ticker.systemTicker(),
+				duration -> {
+					throw new InterruptedException();
+				});
+		try {
+			interrupted.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+					new FixedPolling(500), isMetSince(Long.MAX_VALUE));
+			Assert.fail("The waiting should be interrupted");
+		} catch (WebDriverException e) {
+			Assert.assertTrue(e.getCause() instanceof InterruptedException);
+			Assert.assertTrue(Thread.interrupted());
+		}
+		assertOutcomes(0, 0, 1, 1);
+	}
+
+	@Test
+	public void outcomesArePublishedByJmx() throws Exception {
+		wait.until(null, TIME_OUT, TimeUnit.MILLISECONDS,
+				new FixedPolling(500), isMetSince(500));
+		ObjectName name = new ObjectName(
+				"com.github.arachnidium:type=WaitingOutcomes");
+		Assert.assertEquals(ManagementFactory.getPlatformMBeanServer()
+				.getAttribute(name, "Resolved"), WaitingOutcomes.get()
+				.getResolved());
+		Assert.assertEquals(ManagementFactory.getPlatformMBeanServer()
+				.getAttribute(name, "Attempts"), WaitingOutcomes.get()
+				.getAttempts());
+		assertOutcomes(1, 0, 0, 2);
+	}
+}
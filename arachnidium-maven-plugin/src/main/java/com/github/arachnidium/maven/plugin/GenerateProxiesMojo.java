@@ -0,0 +1,164 @@
+package com.github.arachnidium.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import com.github.arachnidium.util.proxy.ProxyClassGenerator;
+
+/**
+ * Generates proxy classes of compiled model objects, handles, components and
+ * configuration sections. They are written next to compiled classes. So
+ * proxy classes are loaded instead of the generation at runtime and it
+ * speeds up the start of tests.<br/>
+ * <br/>
+ * Proxy classes keep the hash of their superclasses. The out of date class
+ * (e.g. the superclass was recompiled without this goal) is ignored at
+ * runtime.<br/>
+ * <br/>
+ * Usage:<br/>
+ * <code>&lt;goal&gt;generate-proxies&lt;/goal&gt;</code><br/>
+ * <br/>
+ * The plugin is not a module of the root project. It is built after the
+ * root project is installed:<br/>
+ * <code>mvn install -f arachnidium-maven-plugin/pom.xml</code>
+ *
+ * @see ProxyClassGenerator
+ */
+@Mojo(name = "generate-proxies", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+        requiresDependencyResolution = ResolutionScope.COMPILE, threadSafe = true)
+public class GenerateProxiesMojo extends AbstractMojo {
+
+    private final static List<String> DEFAULT_SUPERCLASSES = Arrays.asList(
+            "com.github.arachnidium.model.abstractions.ModelObject",
+            "com.github.arachnidium.core.Handle",
+            "com.github.arachnidium.core.components.WebdriverComponent",
+            "com.github.arachnidium.util.configuration.AbstractConfigurationAccessHelper");
+
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true,
+            required = true)
+    private List<String> classpathElements;
+
+    /**
+     * Proxy classes are generated for subclasses of these classes. Model
+     * objects, handles, components and configuration sections are defaults
+     */
+    @Parameter
+    private List<String> superclasses;
+
+    @Parameter(property = "arachnidium.skipProxyGeneration", defaultValue = "false")
+    private boolean skip;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip || !outputDirectory.isDirectory()) {
+            return;
+        }
+
+        List<URL> urls = new ArrayList<URL>();
+        try {
+            urls.add(outputDirectory.toURI().toURL());
+            for (String element : classpathElements) {
+                urls.add(new File(element).toURI().toURL());
+            }
+        } catch (MalformedURLException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+
+        // the loader is thrown away after the generation. CGLIB classes are
+        // shared with the plugin
+        try (URLClassLoader loader = new URLClassLoader(
+                urls.toArray(new URL[] {}), getClass().getClassLoader())) {
+            List<Class<?>> required = new ArrayList<Class<?>>();
+            for (String name : (superclasses == null) ? DEFAULT_SUPERCLASSES
+                    : superclasses) {
+                try {
+                    required.add(Class.forName(name, false, loader));
+                } catch (ClassNotFoundException e) {
+                    getLog().debug(name + " is not on the classpath");
+                }
+            }
+            if (required.isEmpty()) {
+                return;
+            }
+
+            List<String> classNames = new ArrayList<String>();
+            collectClassNames(outputDirectory, "", classNames);
+            int count = 0;
+            for (String className : classNames) {
+                if (generate(className, required, loader)) {
+                    count++;
+                }
+            }
+            getLog().info(count + " proxy classes are generated");
+        } catch (IOException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+    }
+
+    private boolean generate(String className, List<Class<?>> required,
+            ClassLoader loader) throws MojoExecutionException {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            getLog().debug("Can't load " + className, e);
+            return false;
+        }
+
+        if (!ProxyClassGenerator.isApplicable(clazz)) {
+            return false;
+        }
+        for (Class<?> superclass : required) {
+            if (!superclass.isAssignableFrom(clazz)) {
+                continue;
+            }
+            try {
+                ProxyClassGenerator.generate(clazz, outputDirectory);
+                return true;
+            } catch (RuntimeException | LinkageError e) {
+                // the class will be proxied at runtime
+                getLog().warn("Can't generate the proxy class of " + className
+                        + ": " + e.getMessage());
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void collectClassNames(File directory, String packageName,
+            List<String> result) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                collectClassNames(file, packageName + name + ".", result);
+                continue;
+            }
+            if (!name.endsWith(".class")
+                    || name.contains(ProxyClassGenerator.SUFFIX)) {
+                continue;
+            }
+            result.add(packageName + name.substring(0, name.length() - ".class".length()));
+        }
+    }
+}
@@ -29,12 +29,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
 
-import net.sf.cglib.proxy.Callback;
-import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
 
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
+import com.github.arachnidium.util.proxy.EnhancedProxyFactory;
+
 /**
  * Stores settings read from JSON file.
  * A JSON file has specific format
@@ -80,14 +81,10 @@ public class Configuration {
 	 * @return a {@link Configuration} instance
 	 */
 	public static Configuration get(String filePath) {
-		Callback interceptor = new ConfigurationInterceptor();
-
-		Enhancer enhancer = new Enhancer();
-		enhancer.setCallback(interceptor);
-		enhancer.setSuperclass(Configuration.class);
-
-		return (Configuration) enhancer.create(new Class[] { String.class },
-				new Object[] { filePath });
+		MethodInterceptor interceptor = new ConfigurationInterceptor();
+		return EnhancedProxyFactory.getProxy(Configuration.class,
+				new Class[] { String.class }, new Object[] { filePath },
+				interceptor);
 	}
 	
 	/**
@@ -249,16 +246,14 @@ public class Configuration {
 		if (helper != null)
 			return helper;
 		
-		Callback interceptor = new HelperInterceptor();
-
-		Enhancer enhancer = new Enhancer();
-		enhancer.setCallback(interceptor);
-		enhancer.setSuperclass(requiredClass);
+		MethodInterceptor interceptor = new HelperInterceptor();
 
 		T result = null;
 		if (requiredClass.isAnnotationPresent(Group.class)){
-			result = (T) enhancer.create(new Class[] {Configuration.class ,String.class},
-					new Object[] { this, requiredClass.getAnnotation(Group.class).settingGroup()});
+			result = EnhancedProxyFactory.getProxy(requiredClass, 
+					new Class[] {Configuration.class ,String.class},
+					new Object[] { this, requiredClass.getAnnotation(Group.class).settingGroup()}, 
+					interceptor);
 		}
 		else {
 			throw new IllegalArgumentException("Required class " + requiredClass.getClass().getName() + " should be annotated by "
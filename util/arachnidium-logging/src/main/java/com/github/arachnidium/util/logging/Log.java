@@ -203,6 +203,16 @@ public class Log {
 		return getAnonymousLogger().getLevel();
 	}
 
+	/**
+	 * Checks whether messages of the given level are logged or filtered out
+	 * 
+	 * @param level is the level of messages
+	 * @return true if messages of the given level will be logged
+	 */
+	public static boolean isLoggable(eAvailableLevels level) {
+		return getAnonymousLogger().isLoggable(level.getLevel());
+	}
+
 	// new log record is formed here
 	private static LogRecWithAttach getRecordForLog(eAvailableLevels level,
 			String msg) {
@@ -12,6 +12,9 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
+import com.github.arachnidium.util.logging.latency.Latencies;
+import com.github.arachnidium.util.logging.latency.eLatencyCategories;
+
 /**
  * Takes screenshots by {@link WebDriver} instance
  */
@@ -46,7 +49,10 @@ public final class Photographer {
 			eAvailableLevels LogLevel, String comment) {
 		Photographer photographer = get();
 		try {
+			long start = Latencies.start();
 			BufferedImage imageForLog = photographer.takeAPicture(driver);
+			Latencies.record(eLatencyCategories.SCREENSHOT, "takeAPicture",
+					driver, start);
 			photographer.makeFileForLog(imageForLog, LogLevel, comment);
 		} catch (IOException e) {
 			Log.warning("Can't post a picture to log! " + e.getMessage());
@@ -0,0 +1,289 @@
+package com.github.arachnidium.util.logging.latency;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.github.arachnidium.util.logging.Log;
+import com.google.common.collect.MapMaker;
+
+/**
+ * Collects latency distributions of commands, waitings, switching and
+ * screenshots. They are broken down per driver and per application class.<br/>
+ * <br/>
+ * Each distribution is registered as a platform MBean
+ * (<code>com.github.arachnidium:type=Latency,...</code>) and can be read by
+ * {@link #getSnapshot()}. When the driver is released its distributions are
+ * merged into the ones of the "finished" pseudo-driver. So the number of
+ * MBeans doesn't grow with the number of launched drivers.<br/>
+ * <br/>
+ * Drivers are matched by identity without the global lock. Distributions of
+ * the bound driver are cached by its label, so the recording doesn't create
+ * keys.<br/>
+ * <br/>
+ * Usage:<br/>
+ * <code>long start = Latencies.start();</code><br/>
+ * <code>...</code><br/>
+ * <code>Latencies.record(eLatencyCategories.COMMAND, "click", driver, start);</code>
+ * <br/>
+ * <br/>
+ * It can be turned off by the <code>-Darachnidium.latencies=false</code>
+ * property or by {@link #setEnabled(boolean)}
+ */
+public final class Latencies {
+
+	/**
+	 * The label of unknown drivers
+	 */
+	public final static String UNBOUND = "unbound";
+	/**
+	 * The label of drivers which have been released
+	 */
+	public final static String FINISHED = "finished";
+	/**
+	 * The application class is not known yet
+	 */
+	public final static String NO_APPLICATION = "none";
+
+	private final static ConcurrentHashMap<LatencyKey, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+	private final static ConcurrentMap<Object, DriverLabel> LABELS = new MapMaker()
+			.weakKeys().makeMap();
+	private final static AtomicLong DRIVER_SEQUENCE = new AtomicLong();
+	private static volatile boolean enabled = !"false".equalsIgnoreCase(System
+			.getProperty("arachnidium.latencies"));
+
+	private Latencies() {
+		super();
+	}
+
+	/**
+	 * The label is shared by all the objects which represent the same driver
+	 * (e.g. the original instance and its proxy)
+	 */
+	private static class DriverLabel {
+		private final String name;
+		private volatile String application = NO_APPLICATION;
+		private volatile boolean isReleased;
+		// distributions of the driver per category and operation name
+		private volatile Map<eLatencyCategories, ConcurrentHashMap<String, LatencyHistogram>> histograms = newCache();
+
+		private DriverLabel(String name) {
+			this.name = name;
+		}
+
+		private static Map<eLatencyCategories, ConcurrentHashMap<String, LatencyHistogram>> newCache() {
+			Map<eLatencyCategories, ConcurrentHashMap<String, LatencyHistogram>> result = new EnumMap<eLatencyCategories, ConcurrentHashMap<String, LatencyHistogram>>(
+					eLatencyCategories.class);
+			for (eLatencyCategories category : eLatencyCategories.values()) {
+				result.put(category,
+						new ConcurrentHashMap<String, LatencyHistogram>());
+			}
+			return result;
+		}
+
+		/**
+		 * Cached distributions are not valid when the application or the
+		 * state of the driver is changed
+		 */
+		private void invalidate() {
+			histograms = newCache();
+		}
+
+		private LatencyHistogram getHistogram(eLatencyCategories category,
+				String operation) {
+			ConcurrentHashMap<String, LatencyHistogram> cache = histograms
+					.get(category);
+			LatencyHistogram result = cache.get(operation);
+			if (result == null) {
+				result = Latencies.getHistogram(new LatencyKey(category,
+						operation, name, application));
+				cache.put(operation, result);
+			}
+			return result;
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		Latencies.enabled = enabled;
+	}
+
+	/**
+	 * @return the time the measured operation starts at. It is 0 if the
+	 *         recording is turned off
+	 */
+	public static long start() {
+		if (!enabled) {
+			return 0L;
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the time which has passed since the given start
+	 *
+	 * @param category is the kind of the operation
+	 * @param name is the name of the operation
+	 * @param driver the driver which performs the operation. It may be the
+	 * original driver instance or its proxy
+	 * @param startNanos is the value returned by {@link #start()}
+	 */
+	public static void record(eLatencyCategories category, String name,
+			Object driver, long startNanos) {
+		if (startNanos == 0L || !enabled) {
+			return;
+		}
+		long elapsed = System.nanoTime() - startNanos;
+		DriverLabel label = (driver == null) ? null : LABELS.get(driver);
+		if (label != null && !label.isReleased) {
+			label.getHistogram(category, name).record(elapsed);
+			return;
+		}
+		String driverName = UNBOUND;
+		String application = NO_APPLICATION;
+		if (label != null) {
+			driverName = FINISHED;
+			application = label.application;
+		}
+		getHistogram(new LatencyKey(category, name, driverName, application))
+				.record(elapsed);
+	}
+
+	private static LatencyHistogram getHistogram(LatencyKey key) {
+		LatencyHistogram histogram = HISTOGRAMS.get(key);
+		if (histogram != null) {
+			return histogram;
+		}
+		return HISTOGRAMS.computeIfAbsent(key, k -> {
+			LatencyHistogram result = new LatencyHistogram();
+			register(k, result);
+			return result;
+		});
+	}
+
+	private static void register(LatencyKey key, LatencyHistogram histogram) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = key.toObjectName();
+		try {
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+			server.registerMBean(new Latency(key, histogram), objectName);
+		} catch (JMException e) {
+			Log.debug("Can't register the MBean " + objectName, e);
+		}
+	}
+
+	private static void unregister(LatencyKey key) {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.unregisterMBean(key.toObjectName());
+		} catch (JMException e) {
+			Log.debug("Can't unregister the MBean " + key.toObjectName(), e);
+		}
+	}
+
+	/**
+	 * Binds objects which represent the same driver to the new label
+	 *
+	 * @param driverName is the name of the driver, e.g. the simple name of its
+	 * class
+	 * @param driverObjects the original driver instance, its proxy etc.
+	 * @return the unique label of the driver
+	 */
+	public static String bindDriver(String driverName, Object... driverObjects) {
+		DriverLabel label = new DriverLabel(driverName + "-"
+				+ DRIVER_SEQUENCE.incrementAndGet());
+		for (Object driverObject : driverObjects) {
+			if (driverObject != null) {
+				LABELS.put(driverObject, label);
+			}
+		}
+		return label.name;
+	}
+
+	/**
+	 * Sets the application class which is handled by the driver
+	 */
+	public static void setApplication(Object driver, Class<?> applicationClass) {
+		DriverLabel label = LABELS.get(driver);
+		if (label != null) {
+			label.application = applicationClass.getName();
+			label.invalidate();
+		}
+	}
+
+	/**
+	 * Merges distributions of the driver into the "finished" ones and
+	 * unregisters their MBeans. It should be invoked when the driver quits
+	 */
+	public static void releaseDriver(Object driver) {
+		DriverLabel label = LABELS.get(driver);
+		if (label == null || label.isReleased) {
+			return;
+		}
+		label.isReleased = true;
+		label.invalidate();
+		for (LatencyKey key : HISTOGRAMS.keySet()) {
+			if (!key.getDriver().equals(label.name)) {
+				continue;
+			}
+			LatencyHistogram histogram = HISTOGRAMS.remove(key);
+			if (histogram == null) {
+				continue;
+			}
+			unregister(key);
+			getHistogram(
+					new LatencyKey(key.getCategory(), key.getName(), FINISHED,
+							key.getApplication())).add(histogram);
+		}
+	}
+
+	/**
+	 * @return immutable states of all the distributions
+	 */
+	public static Map<LatencyKey, LatencySnapshot> getSnapshot() {
+		Map<LatencyKey, LatencySnapshot> result = new HashMap<LatencyKey, LatencySnapshot>();
+		for (Map.Entry<LatencyKey, LatencyHistogram> entry : HISTOGRAMS
+				.entrySet()) {
+			result.put(entry.getKey(), entry.getValue().getSnapshot());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * @return immutable states of distributions of the given category
+	 */
+	public static Map<LatencyKey, LatencySnapshot> getSnapshot(
+			eLatencyCategories category) {
+		Map<LatencyKey, LatencySnapshot> result = new HashMap<LatencyKey, LatencySnapshot>();
+		for (Map.Entry<LatencyKey, LatencyHistogram> entry : HISTOGRAMS
+				.entrySet()) {
+			if (entry.getKey().getCategory() == category) {
+				result.put(entry.getKey(), entry.getValue().getSnapshot());
+			}
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Removes all the recorded values
+	 */
+	public static void reset() {
+		for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+			histogram.reset();
+		}
+	}
+}
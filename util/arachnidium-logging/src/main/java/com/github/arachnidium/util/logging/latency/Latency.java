@@ -0,0 +1,80 @@
+package com.github.arachnidium.util.logging.latency;
+
+/**
+ * Exposes the {@link LatencyHistogram} by JMX
+ */
+final class Latency implements LatencyMXBean {
+
+	private final LatencyKey key;
+	private final LatencyHistogram histogram;
+
+	Latency(LatencyKey key, LatencyHistogram histogram) {
+		this.key = key;
+		this.histogram = histogram;
+	}
+
+	@Override
+	public String getCategory() {
+		return key.getCategory().name();
+	}
+
+	@Override
+	public String getName() {
+		return key.getName();
+	}
+
+	@Override
+	public String getDriver() {
+		return key.getDriver();
+	}
+
+	@Override
+	public String getApplication() {
+		return key.getApplication();
+	}
+
+	@Override
+	public long getCount() {
+		return histogram.getSnapshot().getCount();
+	}
+
+	@Override
+	public long getMin() {
+		return histogram.getSnapshot().getMin();
+	}
+
+	@Override
+	public long getMax() {
+		return histogram.getSnapshot().getMax();
+	}
+
+	@Override
+	public double getMean() {
+		return histogram.getSnapshot().getMean();
+	}
+
+	@Override
+	public long getMedian() {
+		return histogram.getSnapshot().getMedian();
+	}
+
+	@Override
+	public long get90thPercentile() {
+		return histogram.getSnapshot().get90thPercentile();
+	}
+
+	@Override
+	public long get99thPercentile() {
+		return histogram.getSnapshot().get99thPercentile();
+	}
+
+	@Override
+	public long get999thPercentile() {
+		return histogram.getSnapshot().get999thPercentile();
+	}
+
+	@Override
+	public void reset() {
+		histogram.reset();
+	}
+}
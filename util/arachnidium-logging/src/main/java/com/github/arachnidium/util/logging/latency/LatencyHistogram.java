@@ -0,0 +1,135 @@
+package com.github.arachnidium.util.logging.latency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The distribution of latencies. Values are kept in microseconds.<br/>
+ * <br/>
+ * Buckets are log-linear like the HdrHistogram ones: values which are less
+ * than 64 microseconds are kept exactly. Each next power of two is divided
+ * into 32 equal sub-buckets. So the relative error of any recorded value is
+ * less than 3.2% and the memory footprint doesn't depend on the number of
+ * recorded values. Recording is lock free.
+ */
+public final class LatencyHistogram {
+
+	private final static int SUB_BUCKET_BITS = 6;
+	private final static int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private final static int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+	private final static int MAX_SHIFT = 36;
+	private final static int BUCKET_COUNT = SUB_BUCKET_COUNT + MAX_SHIFT
+			* SUB_BUCKET_HALF;
+	/**
+	 * About 50 days in microseconds. Greater values are recorded as this one
+	 */
+	final static long MAX_VALUE = ((long) SUB_BUCKET_COUNT << MAX_SHIFT) - 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator min = new LongAccumulator(Math::min,
+			Long.MAX_VALUE);
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	static int getIndex(long micros) {
+		if (micros < SUB_BUCKET_COUNT) {
+			return (int) micros;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(micros)
+				- (SUB_BUCKET_BITS - 1);
+		int subBucket = (int) (micros >>> shift) - SUB_BUCKET_HALF;
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket;
+	}
+
+	/**
+	 * @return the greatest value which is recorded into the bucket
+	 */
+	static long getHighestValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+		long subBucket = SUB_BUCKET_HALF + (index - SUB_BUCKET_COUNT)
+				% SUB_BUCKET_HALF;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * Records the latency
+	 *
+	 * @param nanos is the measured time in nanoseconds
+	 */
+	public void record(long nanos) {
+		recordMicros(TimeUnit.NANOSECONDS.toMicros(Math.max(nanos, 0L)));
+	}
+
+	void recordMicros(long micros) {
+		long value = Math.min(micros, MAX_VALUE);
+		counts.incrementAndGet(getIndex(value));
+		sum.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+	}
+
+	/**
+	 * Adds all the values which are recorded by the given histogram
+	 */
+	void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			long count = other.counts.get(i);
+			if (count != 0) {
+				counts.addAndGet(i, count);
+			}
+		}
+		sum.add(other.sum.sum());
+		min.accumulate(other.min.get());
+		max.accumulate(other.max.get());
+	}
+
+	/**
+	 * Removes all the recorded values
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0L);
+		}
+		sum.reset();
+		min.reset();
+		max.reset();
+	}
+
+	/**
+	 * @return the immutable state of the histogram
+	 */
+	public LatencySnapshot getSnapshot() {
+		long[] copy = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			copy[i] = counts.get(i);
+			total += copy[i];
+		}
+		if (total == 0) {
+			return LatencySnapshot.EMPTY;
+		}
+		return new LatencySnapshot(total, min.get(), max.get(),
+				(double) sum.sum() / total, getValueAt(copy, total, 50.0),
+				getValueAt(copy, total, 90.0), getValueAt(copy, total, 99.0),
+				getValueAt(copy, total, 99.9));
+	}
+
+	private long getValueAt(long[] copy, long total, double percentile) {
+		// the product is divided last, so 99.9% of 1000 values is 999 of them
+		long countAtPercentile = Math.max(1L,
+				(long) Math.ceil(percentile * total / 100.0));
+		long accumulated = 0;
+		for (int i = 0; i < copy.length; i++) {
+			accumulated += copy[i];
+			if (accumulated >= countAtPercentile) {
+				return Math.min(getHighestValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.arachnidium.util.logging.latency;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * category + operation name + driver + application class
+ */
+public final class LatencyKey {
+	final static String DOMAIN = "com.github.arachnidium";
+
+	private final eLatencyCategories category;
+	private final String name;
+	private final String driver;
+	private final String application;
+	private final int hash;
+
+	LatencyKey(eLatencyCategories category, String name, String driver,
+			String application) {
+		this.category = category;
+		this.name = name;
+		this.driver = driver;
+		this.application = application;
+		int h = category.hashCode();
+		h = 31 * h + name.hashCode();
+		h = 31 * h + driver.hashCode();
+		h = 31 * h + application.hashCode();
+		this.hash = h;
+	}
+
+	public eLatencyCategories getCategory() {
+		return category;
+	}
+
+	/**
+	 * @return the name of the command/condition etc.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the label of the driver
+	 */
+	public String getDriver() {
+		return driver;
+	}
+
+	/**
+	 * @return the name of the application class
+	 */
+	public String getApplication() {
+		return application;
+	}
+
+	ObjectName toObjectName() {
+		try {
+			return new ObjectName(DOMAIN + ":type=Latency,category="
+					+ category.name().toLowerCase() + ",application="
+					+ ObjectName.quote(application) + ",driver="
+					+ ObjectName.quote(driver) + ",name="
+					+ ObjectName.quote(name));
+		} catch (MalformedObjectNameException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof LatencyKey)) {
+			return false;
+		}
+		LatencyKey other = (LatencyKey) o;
+		return category == other.category && name.equals(other.name)
+				&& driver.equals(other.driver)
+				&& application.equals(other.application);
+	}
+
+	@Override
+	public String toString() {
+		return category + " " + name + " [driver: " + driver
+				+ ", application: " + application + "]";
+	}
+}
@@ -0,0 +1,36 @@
+package com.github.arachnidium.util.logging.latency;
+
+/**
+ * The management interface of the {@link LatencyHistogram}. All the values
+ * are in microseconds.
+ */
+public interface LatencyMXBean {
+	public String getCategory();
+
+	public String getName();
+
+	public String getDriver();
+
+	public String getApplication();
+
+	public long getCount();
+
+	public long getMin();
+
+	public long getMax();
+
+	public double getMean();
+
+	public long getMedian();
+
+	public long get90thPercentile();
+
+	public long get99thPercentile();
+
+	public long get999thPercentile();
+
+	/**
+	 * Removes all the recorded values
+	 */
+	public void reset();
+}
@@ -0,0 +1,72 @@
+package com.github.arachnidium.util.logging.latency;
+
+/**
+ * The immutable state of {@link LatencyHistogram}. All the values are in
+ * microseconds.
+ */
+public final class LatencySnapshot {
+
+	final static LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0,
+			0, 0);
+
+	private final long count;
+	private final long min;
+	private final long max;
+	private final double mean;
+	private final long median;
+	private final long percentile90;
+	private final long percentile99;
+	private final long percentile999;
+
+	LatencySnapshot(long count, long min, long max, double mean, long median,
+			long percentile90, long percentile99, long percentile999) {
+		this.count = count;
+		this.min = min;
+		this.max = max;
+		this.mean = mean;
+		this.median = median;
+		this.percentile90 = percentile90;
+		this.percentile99 = percentile99;
+		this.percentile999 = percentile999;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	public long getMedian() {
+		return median;
+	}
+
+	public long get90thPercentile() {
+		return percentile90;
+	}
+
+	public long get99thPercentile() {
+		return percentile99;
+	}
+
+	public long get999thPercentile() {
+		return percentile999;
+	}
+
+	@Override
+	public String toString() {
+		return "count: " + count + ", min: " + min + " us, median: " + median
+				+ " us, p90: " + percentile90 + " us, p99: " + percentile99
+				+ " us, p99.9: " + percentile999 + " us, max: " + max
+				+ " us, mean: " + String.format("%.1f", mean) + " us";
+	}
+}
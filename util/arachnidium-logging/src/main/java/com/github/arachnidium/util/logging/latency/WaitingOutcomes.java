@@ -0,0 +1,126 @@
+package com.github.arachnidium.util.logging.latency;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import com.github.arachnidium.util.logging.Log;
+
+/**
+ * Counts outcomes of waitings for conditions of all the drivers: conditions
+ * which have been met, waitings which have been timed out or failed and
+ * checks of conditions.<br/>
+ * <br/>
+ * Counters are registered as the platform MBean
+ * (<code>com.github.arachnidium:type=WaitingOutcomes</code>) next to
+ * latency distributions. Durations of waitings are recorded by
+ * {@link Latencies} ({@link eLatencyCategories#WAIT}).
+ */
+public final class WaitingOutcomes implements WaitingOutcomesMXBean {
+
+	private final static WaitingOutcomes INSTANCE = new WaitingOutcomes();
+
+	static {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName objectName = new ObjectName(LatencyKey.DOMAIN
+					+ ":type=WaitingOutcomes");
+			if (!server.isRegistered(objectName)) {
+				server.registerMBean(INSTANCE, objectName);
+			}
+		} catch (MalformedObjectNameException e) {
+			throw new RuntimeException(e);
+		} catch (JMException e) {
+			Log.debug("Can't register outcomes of waitings as the MBean", e);
+		}
+	}
+
+	private final LongAdder resolved = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder attempts = new LongAdder();
+
+	private WaitingOutcomes() {
+		super();
+	}
+
+	/**
+	 * @return counters of all the drivers
+	 */
+	public static WaitingOutcomes get() {
+		return INSTANCE;
+	}
+
+	/**
+	 * The condition has been met
+	 */
+	public void resolved() {
+		resolved.increment();
+	}
+
+	/**
+	 * The condition has not been met in time
+	 */
+	public void timedOut() {
+		timedOut.increment();
+	}
+
+	/**
+	 * The waiting has been interrupted by the exception
+	 */
+	public void failed() {
+		failed.increment();
+	}
+
+	/**
+	 * The condition has been checked once more
+	 */
+	public void attempted() {
+		attempts.increment();
+	}
+
+	/**
+	 * @return the number of conditions which have been met
+	 */
+	@Override
+	public long getResolved() {
+		return resolved.sum();
+	}
+
+	/**
+	 * @return the number of waitings which have been timed out
+	 */
+	@Override
+	public long getTimedOut() {
+		return timedOut.sum();
+	}
+
+	/**
+	 * @return the number of waitings which have been interrupted by
+	 *         exceptions
+	 */
+	@Override
+	public long getFailed() {
+		return failed.sum();
+	}
+
+	/**
+	 * @return the number of times conditions have been checked
+	 */
+	@Override
+	public long getAttempts() {
+		return attempts.sum();
+	}
+
+	@Override
+	public void reset() {
+		resolved.reset();
+		timedOut.reset();
+		failed.reset();
+		attempts.reset();
+	}
+}
@@ -0,0 +1,19 @@
+package com.github.arachnidium.util.logging.latency;
+
+/**
+ * The management interface of {@link WaitingOutcomes}
+ */
+public interface WaitingOutcomesMXBean {
+	public long getResolved();
+
+	public long getTimedOut();
+
+	public long getFailed();
+
+	public long getAttempts();
+
+	/**
+	 * Resets all the counters
+	 */
+	public void reset();
+}
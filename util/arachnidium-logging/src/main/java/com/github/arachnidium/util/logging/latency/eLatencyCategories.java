@@ -0,0 +1,23 @@
+package com.github.arachnidium.util.logging.latency;
+
+/**
+ * Kinds of measured operations
+ */
+public enum eLatencyCategories {
+	/**
+	 * WebDriver/WebElement commands
+	 */
+	COMMAND,
+	/**
+	 * Waiting for conditions
+	 */
+	WAIT,
+	/**
+	 * Switching between windows/contexts
+	 */
+	SWITCH,
+	/**
+	 * Taking of screenshots
+	 */
+	SCREENSHOT;
+}
@@ -0,0 +1,191 @@
+package com.github.arachnidium.util.logging.latency;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks bucket boundaries and percentiles of {@link LatencyHistogram} and
+ * the JMX view of {@link Latencies}
+ */
+public class LatencyHistogramTest {
+
+	private static void assertPercentiles(LatencySnapshot snapshot,
+			long median, long percentile90, long percentile99,
+			long percentile999) {
+		Assert.assertEquals(snapshot.getMedian(), median);
+		Assert.assertEquals(snapshot.get90thPercentile(), percentile90);
+		Assert.assertEquals(snapshot.get99thPercentile(), percentile99);
+		Assert.assertEquals(snapshot.get999thPercentile(), percentile999);
+	}
+
+	@Test
+	public void emptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertSame(histogram.getSnapshot(), LatencySnapshot.EMPTY);
+
+		histogram.recordMicros(10);
+		histogram.reset();
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 0);
+		Assert.assertEquals(snapshot.getMin(), 0);
+		Assert.assertEquals(snapshot.getMax(), 0);
+		assertPercentiles(snapshot, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void oneSample() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		// it is not the highest value of its bucket
+		histogram.record(1000123L * 1000L);
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 1);
+		Assert.assertEquals(snapshot.getMin(), 1000123);
+		Assert.assertEquals(snapshot.getMax(), 1000123);
+		Assert.assertEquals(snapshot.getMean(), 1000123.0);
+		assertPercentiles(snapshot, 1000123, 1000123, 1000123, 1000123);
+	}
+
+	@Test
+	public void negativeTimeIsRecordedAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-1L);
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 1);
+		Assert.assertEquals(snapshot.getMax(), 0);
+		assertPercentiles(snapshot, 0, 0, 0, 0);
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		for (long value = 0; value < 64; value++) {
+			Assert.assertEquals(LatencyHistogram.getIndex(value), value);
+			Assert.assertEquals(LatencyHistogram.getHighestValue((int) value),
+					value);
+		}
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		Assert.assertEquals(LatencyHistogram.getIndex(64), 64);
+		Assert.assertEquals(LatencyHistogram.getIndex(65), 64);
+		Assert.assertEquals(LatencyHistogram.getHighestValue(64), 65);
+		Assert.assertEquals(LatencyHistogram.getIndex(127), 95);
+		Assert.assertEquals(LatencyHistogram.getHighestValue(95), 127);
+		Assert.assertEquals(LatencyHistogram.getIndex(128), 96);
+		Assert.assertEquals(LatencyHistogram.getHighestValue(96), 131);
+
+		for (int shift = 6; shift < 42; shift++) {
+			long power = 1L << shift;
+			for (long value : new long[] { power - 1, power, power + 1 }) {
+				int index = LatencyHistogram.getIndex(value);
+				// the value belongs to the bucket and doesn't belong to
+				// the previous one
+				Assert.assertTrue(LatencyHistogram.getHighestValue(index) >= value);
+				Assert.assertTrue(LatencyHistogram.getHighestValue(index - 1) < value);
+				Assert.assertTrue(LatencyHistogram.getHighestValue(index) - value < value * 0.032);
+			}
+			Assert.assertEquals(LatencyHistogram.getIndex(power),
+					LatencyHistogram.getIndex(power - 1) + 1);
+		}
+	}
+
+	@Test
+	public void overflowBucket() {
+		long maxValue = LatencyHistogram.MAX_VALUE;
+		Assert.assertEquals(
+				LatencyHistogram.getHighestValue(LatencyHistogram
+						.getIndex(maxValue)), maxValue);
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.recordMicros(maxValue + 1);
+		histogram.record(Long.MAX_VALUE);
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 2);
+		Assert.assertEquals(snapshot.getMin(), maxValue);
+		Assert.assertEquals(snapshot.getMax(), maxValue);
+		Assert.assertEquals(snapshot.getMean(), (double) maxValue);
+		assertPercentiles(snapshot, maxValue, maxValue, maxValue, maxValue);
+	}
+
+	@Test
+	public void percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 60; value++) {
+			histogram.recordMicros(value);
+		}
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 60);
+		Assert.assertEquals(snapshot.getMin(), 1);
+		Assert.assertEquals(snapshot.getMax(), 60);
+		Assert.assertEquals(snapshot.getMean(), 30.5);
+		assertPercentiles(snapshot, 30, 54, 60, 60);
+
+		// the rare slow value is seen by the highest percentile only
+		histogram.reset();
+		for (int i = 0; i < 999; i++) {
+			histogram.recordMicros(10);
+		}
+		histogram.recordMicros(5000);
+		snapshot = histogram.getSnapshot();
+		assertPercentiles(snapshot, 10, 10, 10, 10);
+		histogram.recordMicros(5000);
+		snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.get99thPercentile(), 10);
+		long slow = snapshot.get999thPercentile();
+		Assert.assertTrue(slow >= 5000 && slow < 5000 * 1.032, String.valueOf(slow));
+	}
+
+	@Test
+	public void histogramsAreAdded() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		LatencyHistogram other = new LatencyHistogram();
+		histogram.recordMicros(20);
+		other.recordMicros(10);
+		other.recordMicros(30);
+		histogram.add(other);
+		histogram.add(new LatencyHistogram());
+		LatencySnapshot snapshot = histogram.getSnapshot();
+		Assert.assertEquals(snapshot.getCount(), 3);
+		Assert.assertEquals(snapshot.getMin(), 10);
+		Assert.assertEquals(snapshot.getMax(), 30);
+		assertPercentiles(snapshot, 20, 30, 30, 30);
+	}
+
+	@Test
+	public void distributionsAreReadByJmx() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Object driver = new Object();
+		String label = Latencies.bindDriver("TestDriver", driver);
+		String operation = "click-" + label;
+		ObjectName bound = new LatencyKey(eLatencyCategories.COMMAND,
+				operation, label, Latencies.NO_APPLICATION).toObjectName();
+		ObjectName finished = new LatencyKey(eLatencyCategories.COMMAND,
+				operation, Latencies.FINISHED, Latencies.NO_APPLICATION)
+				.toObjectName();
+
+		Latencies.record(eLatencyCategories.COMMAND, operation, driver,
+				Latencies.start());
+		Latencies.record(eLatencyCategories.COMMAND, operation, driver,
+				Latencies.start());
+		Assert.assertTrue(server.isRegistered(bound));
+		Assert.assertEquals(server.getAttribute(bound, "Count"), 2L);
+		Assert.assertEquals(server.getAttribute(bound, "Driver"), label);
+		Assert.assertFalse(server.isRegistered(finished));
+
+		Latencies.releaseDriver(driver);
+		Assert.assertFalse(server.isRegistered(bound));
+		Assert.assertEquals(server.getAttribute(finished, "Count"), 2L);
+
+		// values which are recorded after the release are finished too
+		Latencies.record(eLatencyCategories.COMMAND, operation, driver,
+				Latencies.start());
+		Assert.assertEquals(server.getAttribute(finished, "Count"), 3L);
+		server.invoke(finished, "reset", new Object[] {}, new String[] {});
+		Assert.assertEquals(server.getAttribute(finished, "Count"), 0L);
+	}
+}
@@ -17,21 +17,210 @@
 
 package com.github.arachnidium.util.proxy;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
+import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.core.Signature;
 import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.proxy.MethodProxy;
 
 /**
  * The simple factory that makes usage of some CGLIB tools easily
  * 
  * Creates proxy objects by the list of {@link MethodInterceptor} implementations
- * and {@link Enhancer}
+ * and {@link Enhancer}<br/>
+ * <br/>
+ * Generated proxy classes are cached by the superclass and classes of 
+ * interceptors. Constructors of them are cached as {@link MethodHandle}s 
+ * by the parameter list. So each next proxy of the same class 
+ * is created without class generation checks and reflection. Caches are 
+ * attached to classes by {@link ClassValue}. So they don't prevent the 
+ * unloading of classes. Classes are generated outside of cache updates 
+ * because the generation may run static initializers which create 
+ * other proxies.<br/> 
+ * <br/>
+ * If the proxy class has been generated by {@link ProxyClassGenerator} 
+ * when the project was built then it is loaded instead of the generation. 
+ * It is ignored when the superclass has been changed after that.
  *
  */
 public abstract class EnhancedProxyFactory {
 	
+	/**
+	 * Proxy classes of the superclass by classes of interceptors
+	 */
+	private final static ClassValue<ConcurrentHashMap<List<Class<?>>, ProxyClass>> PROXY_CLASSES = 
+			new ClassValue<ConcurrentHashMap<List<Class<?>>, ProxyClass>>() {
+		@Override
+		protected ConcurrentHashMap<List<Class<?>>, ProxyClass> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<List<Class<?>>, ProxyClass>();
+		}
+	};
+	private final static MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	/**
+	 * The static method of each generated class which
+	 * sets callbacks for instances which are created by the current thread
+	 */
+	private final static String SET_THREAD_CALLBACKS = "CGLIB$SET_THREAD_CALLBACKS";
+	private final static Signature TO_STRING = new Signature("toString", 
+			"()Ljava/lang/String;");
+	
+	/**
+	 * The generated class, its {@link #SET_THREAD_CALLBACKS} method and 
+	 * constructors by parameter lists
+	 */
+	private static final class ProxyClass {
+		private final Class<?> generated;
+		private final MethodHandle setThreadCallbacks;
+		private final ConcurrentHashMap<List<Class<?>>, MethodHandle> constructors = 
+				new ConcurrentHashMap<List<Class<?>>, MethodHandle>();
+		
+		private ProxyClass(Class<?> generated) {
+			this.generated = generated;
+			try {
+				this.setThreadCallbacks = LOOKUP.findStatic(generated,
+						SET_THREAD_CALLBACKS,
+						MethodType.methodType(void.class, Callback[].class));
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+	
+	/**
+	 * @return the proxy class which has been generated by 
+	 * {@link ProxyClassGenerator} before. Null is returned if 
+	 * there is no such class or it is out of date
+	 */
+	private static Class<?> getPregeneratedClass(Class<?> clazz) {
+		if (!ProxyClassGenerator.isApplicable(clazz)) {
+			return null;
+		}
+		try {
+			Class<?> result = Class.forName(
+					ProxyClassGenerator.getProxyClassName(clazz), true,
+					clazz.getClassLoader());
+			// the class is out of date if it was generated 
+			// for another version of the superclass
+			if (result.getSuperclass() != clazz) {
+				return null;
+			}
+			Object signatureHash = result.getField(
+					ProxyClassGenerator.SIGNATURE_HASH).get(null);
+			if (!ProxyClassGenerator.getSignatureHash(clazz).equals(
+					signatureHash)) {
+				return null;
+			}
+			return result;
+		} catch (ClassNotFoundException | NoSuchFieldException
+				| IllegalAccessException | LinkageError e) {
+			return null;
+		}
+	}
+	
+	private static ProxyClass createProxyClass(Class<?> clazz, 
+			Class<?>[] interceptorClasses) {
+		if (interceptorClasses.length == 1) {
+			Class<?> pregenerated = getPregeneratedClass(clazz);
+			if (pregenerated != null) {
+				return new ProxyClass(pregenerated);
+			}
+		}
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(clazz);
+		enhancer.setCallbackTypes(interceptorClasses);
+		return new ProxyClass(enhancer.createClass());
+	}
+	
+	private static ProxyClass getProxyClass(Class<?> clazz, 
+			Class<?>[] interceptorClasses) {
+		ConcurrentHashMap<List<Class<?>>, ProxyClass> proxyClasses = 
+				PROXY_CLASSES.get(clazz);
+		List<Class<?>> key = Arrays.asList(interceptorClasses);
+		ProxyClass result = proxyClasses.get(key);
+		if (result != null) {
+			return result;
+		}
+		// the class is generated before it is cached. Concurrent callers 
+		// may generate it twice. The first cached one is used
+		result = createProxyClass(clazz, interceptorClasses);
+		ProxyClass cached = proxyClasses.putIfAbsent(
+				Arrays.asList(interceptorClasses.clone()), result);
+		return (cached == null) ? result : cached;
+	}
+	
+	private static MethodHandle getConstructor(ProxyClass proxyClass, 
+			Class<?>[] paramClasses) {
+		List<Class<?>> key = Arrays.asList(paramClasses);
+		MethodHandle result = proxyClass.constructors.get(key);
+		if (result != null) {
+			return result;
+		}
+		try {
+			Constructor<?> c = proxyClass.generated
+					.getDeclaredConstructor(paramClasses);
+			c.setAccessible(true);
+			result = LOOKUP.unreflectConstructor(c)
+					.asType(MethodType.genericMethodType(paramClasses.length))
+					.asSpreader(Object[].class, paramClasses.length);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException(e);
+		}
+		MethodHandle cached = proxyClass.constructors.putIfAbsent(
+				Arrays.asList(paramClasses.clone()), result);
+		return (cached == null) ? result : cached;
+	}
+	
+	/**
+	 * Creates the instance of the cached proxy class. Callbacks are bound 
+	 * to the instance by the constructor
+	 */
+	private static Object newInstance(ProxyClass proxyClass, 
+			Class<?>[] paramClasses, Object[] paramValues, Callback[] callbacks) {
+		MethodHandle constructor = getConstructor(proxyClass, paramClasses);
+		try {
+			proxyClass.setThreadCallbacks.invokeExact(callbacks);
+			try {
+				return (Object) constructor.invokeExact(paramValues);
+			} finally {
+				proxyClass.setThreadCallbacks.invokeExact((Callback[]) null);
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new RuntimeException(t);
+		}
+	}
+	
+	/**
+	 * Generates (or loads) the proxy class before the first proxy of 
+	 * the given class is needed. Fast classes which are used by 
+	 * {@link MethodProxy} are generated too. It is useful when the 
+	 * preparation should be performed by the background thread.
+	 * 
+	 * @param clazz is the class which is going to be proxied
+	 * @param interceptorClass is the class of the {@link MethodInterceptor} 
+	 * which is going to be used
+	 */
+	public static void prepareProxyClass(Class<?> clazz, 
+			Class<? extends MethodInterceptor> interceptorClass) {
+		ProxyClass proxyClass = getProxyClass(clazz, 
+				new Class<?>[] { interceptorClass });
+		MethodProxy methodProxy = MethodProxy.find(proxyClass.generated, TO_STRING);
+		if (methodProxy != null) {
+			methodProxy.getSuperIndex();
+		}
+	}
+	
 	/**
 	 * @param clazz Instance of defined class has to be got from
 	 * @param paramClasses An array of classes which matches to required constructor 
@@ -44,8 +233,16 @@ public abstract class EnhancedProxyFactory {
 	public static <T extends Object> T getProxy(Class<T> clazz,
 			Class<?>[] paramClasses, Object[] paramValues,
 			List<MethodInterceptor> interceptors) {
-		Enhancer enhancer = new Enhancer();
-		return getProxy(enhancer, clazz, paramClasses, paramValues, interceptors);
+		MethodInterceptor[] callbacks = interceptors
+				.toArray(new MethodInterceptor[] {});
+		Class<?>[] interceptorClasses = new Class<?>[callbacks.length];
+		for (int i = 0; i < callbacks.length; i++) {
+			interceptorClasses[i] = callbacks[i].getClass();
+		}
+		@SuppressWarnings("unchecked")
+		T proxy = (T) newInstance(getProxyClass(clazz, interceptorClasses),
+				paramClasses, paramValues, callbacks);
+		return proxy;
 	}
 	
 	/**
@@ -61,8 +258,11 @@ public abstract class EnhancedProxyFactory {
 	public static <T extends Object> T getProxy(Class<T> clazz,
 			Class<?>[] paramClasses, Object[] paramValues,
 			final MethodInterceptor interceptor) {
-		return getProxy(new Enhancer(), clazz, paramClasses, paramValues,
-				interceptor);
+		@SuppressWarnings("unchecked")
+		T proxy = (T) newInstance(
+				getProxyClass(clazz, new Class<?>[] { interceptor.getClass() }),
+				paramClasses, paramValues, new Callback[] { interceptor });
+		return proxy;
 	}
 	
 	/**
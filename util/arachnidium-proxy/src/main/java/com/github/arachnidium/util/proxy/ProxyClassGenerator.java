@@ -0,0 +1,240 @@
+package com.github.arachnidium.util.proxy;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.cglib.core.ClassGenerator;
+import net.sf.cglib.core.Constants;
+import net.sf.cglib.core.DefaultGeneratorStrategy;
+import net.sf.cglib.core.NamingPolicy;
+import net.sf.cglib.core.Predicate;
+import net.sf.cglib.core.ReflectUtils;
+import net.sf.cglib.proxy.Enhancer;
+import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.transform.ClassEmitterTransformer;
+import net.sf.cglib.transform.TransformingClassGenerator;
+
+/**
+ * Generates proxy classes before they are needed (e.g. when the project is
+ * built) and stores them as class files. Each generated class is named by
+ * the superclass and {@link #SUFFIX}. If the class is found by the class
+ * loader of the superclass then {@link EnhancedProxyFactory} uses it instead
+ * of the generation at runtime.<br/>
+ * <br/>
+ * Generated classes are applicable to proxies with the single
+ * {@link MethodInterceptor}. The bytecode doesn't depend on the class of the
+ * interceptor.<br/>
+ * <br/>
+ * Each generated class keeps the hash of constructors and methods of the
+ * superclass which could be intercepted ({@link #SIGNATURE_HASH}). The class
+ * is out of date and it is not used if the superclass has been changed after
+ * the generation.
+ *
+ * @see EnhancedProxyFactory
+ */
+public final class ProxyClassGenerator {
+
+	/**
+	 * The suffix of names of pre-generated proxy classes
+	 */
+	public final static String SUFFIX = "$$ArachnidiumProxy";
+
+	/**
+	 * The name of the static field of the generated class. It is the hash of
+	 * the superclass which was proxied
+	 *
+	 * @see #getSignatureHash(Class)
+	 */
+	public final static String SIGNATURE_HASH = "ARACHNIDIUM$SIGNATURE_HASH";
+
+	private final static NamingPolicy NAMING_POLICY = new NamingPolicy() {
+		@Override
+		public String getClassName(String prefix, String source, Object key,
+				Predicate names) {
+			return prefix + SUFFIX;
+		}
+	};
+
+	private static class CapturingStrategy extends DefaultGeneratorStrategy {
+		private final String signatureHash;
+		private byte[] bytes;
+
+		private CapturingStrategy(String signatureHash) {
+			this.signatureHash = signatureHash;
+		}
+
+		@Override
+		protected ClassGenerator transform(ClassGenerator cg) throws Exception {
+			return new TransformingClassGenerator(cg,
+					new ClassEmitterTransformer() {
+						@Override
+						public void end_class() {
+							declare_field(Constants.ACC_PUBLIC
+									| Constants.ACC_STATIC
+									| Constants.ACC_FINAL, SIGNATURE_HASH,
+									Constants.TYPE_STRING, signatureHash);
+							super.end_class();
+						}
+					});
+		}
+
+		@Override
+		protected byte[] transform(byte[] b) throws Exception {
+			bytes = b;
+			return b;
+		}
+	}
+
+	private ProxyClassGenerator() {
+		super();
+	}
+
+	/**
+	 * @return the name of the pre-generated proxy class of the given
+	 *         superclass
+	 */
+	public static String getProxyClassName(Class<?> superclass) {
+		return superclass.getName() + SUFFIX;
+	}
+
+	/**
+	 * @return is it possible to generate the proxy class of the given class
+	 *         before it is needed. Classes of the JRE, final classes, interfaces
+	 *         and classes without non-private constructors are not
+	 *         supported
+	 */
+	public static boolean isApplicable(Class<?> clazz) {
+		int modifiers = clazz.getModifiers();
+		if (clazz.isInterface() || clazz.isArray() || clazz.isPrimitive()
+				|| clazz.isAnonymousClass() || clazz.isLocalClass()
+				|| Modifier.isFinal(modifiers) || Modifier.isPrivate(modifiers)
+				|| clazz.getName().startsWith("java.")
+				|| clazz.getName().endsWith(SUFFIX)) {
+			return false;
+		}
+		if (clazz.isMemberClass() && !Modifier.isStatic(modifiers)) {
+			return false;
+		}
+		for (Constructor<?> c : clazz.getDeclaredConstructors()) {
+			if (!Modifier.isPrivate(c.getModifiers())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void addSignature(Member member, Set<String> signatures) {
+		if (Modifier.isStatic(member.getModifiers())
+				|| Modifier.isPrivate(member.getModifiers())) {
+			return;
+		}
+		signatures.add(Modifier.toString(member.getModifiers()) + " "
+				+ member.getDeclaringClass().getName() + " "
+				+ ReflectUtils.getSignature(member));
+	}
+
+	private static void addMethodSignatures(Class<?> clazz,
+			Set<String> signatures) {
+		for (Method m : clazz.getDeclaredMethods()) {
+			addSignature(m, signatures);
+		}
+		for (Class<?> i : clazz.getInterfaces()) {
+			addMethodSignatures(i, signatures);
+		}
+	}
+
+	/**
+	 * @return the hash of non-private constructors of the given class and
+	 *         methods which could be intercepted. Methods of superclasses
+	 *         and interfaces are included
+	 */
+	public static String getSignatureHash(Class<?> superclass) {
+		Set<String> signatures = new LinkedHashSet<String>();
+		for (Constructor<?> c : superclass.getDeclaredConstructors()) {
+			addSignature(c, signatures);
+		}
+		for (Class<?> c = superclass; c != null; c = c.getSuperclass()) {
+			addMethodSignatures(c, signatures);
+		}
+		List<String> sorted = new ArrayList<String>(signatures);
+		Collections.sort(sorted);
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			for (String signature : sorted) {
+				digest.update(signature.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			StringBuilder result = new StringBuilder();
+			for (byte b : digest.digest()) {
+				result.append(String.format("%02x", b));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Generates the bytecode of the proxy class
+	 *
+	 * @param superclass is the class which should be proxied
+	 * @return the bytecode of the class which is named by
+	 *         {@link #getProxyClassName(Class)}
+	 */
+	public static byte[] generate(Class<?> superclass) {
+		if (!isApplicable(superclass)) {
+			throw new IllegalArgumentException(
+					"It is not possible to generate the proxy class of "
+							+ superclass.getName());
+		}
+		CapturingStrategy strategy = new CapturingStrategy(
+				getSignatureHash(superclass));
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(superclass);
+		enhancer.setCallbackType(MethodInterceptor.class);
+		enhancer.setNamingPolicy(NAMING_POLICY);
+		enhancer.setStrategy(strategy);
+		enhancer.setUseCache(false);
+		// the generated class is defined by the class loader of the
+		// superclass. So it should be the loader which is thrown away after
+		// the generation (e.g. the loader of the build time)
+		enhancer.createClass();
+		return strategy.bytes;
+	}
+
+	/**
+	 * Generates the proxy class and writes it to the given directory of class
+	 * files
+	 *
+	 * @param superclass is the class which should be proxied
+	 * @param classDirectory is the root of the class file tree (e.g.
+	 *            <code>target/classes</code>)
+	 * @return the written file
+	 */
+	public static File generate(Class<?> superclass, File classDirectory) {
+		byte[] bytes = generate(superclass);
+		File file = new File(classDirectory, getProxyClassName(superclass)
+				.replace('.', File.separatorChar) + ".class");
+		file.getParentFile().mkdirs();
+		try (OutputStream os = new FileOutputStream(file)) {
+			os.write(bytes);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return file;
+	}
+}
@@ -1,15 +1,32 @@
 package com.github.arachnidium.util.inheritance;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.ClassUtils.Interfaces;
 import org.apache.commons.lang3.reflect.MethodUtils;
 
 public final class MethodInheritanceUtil {
 
+	/**
+	 * Classes and interfaces which declare the method or methods it overrides.
+	 * They are resolved only once per method. Results are kept by the class
+	 * which declares the method, so they don't prevent unloading of classes.
+	 */
+	private final static ClassValue<ConcurrentHashMap<Method, Set<Class<?>>>> OVERRIDE_HIERARCHY = 
+			new ClassValue<ConcurrentHashMap<Method, Set<Class<?>>>>() {
+		@Override
+		protected ConcurrentHashMap<Method, Set<Class<?>>> computeValue(
+				Class<?> type) {
+			return new ConcurrentHashMap<Method, Set<Class<?>>>();
+		}
+	};
+
 	private MethodInheritanceUtil() {
 		super();
 	}
@@ -26,13 +43,34 @@ public final class MethodInheritanceUtil {
 		return classes;
 	}
 	
+	/**
+	 * @return classes and interfaces which declare the given method or
+	 *         methods it overrides. The result is resolved once per method
+	 */
+	static Set<Class<?>> getOverrideHierarchy(Method m) {
+		ConcurrentHashMap<Method, Set<Class<?>>> hierarchies = OVERRIDE_HIERARCHY
+				.get(m.getDeclaringClass());
+		Set<Class<?>> result = hierarchies.get(m);
+		if (result != null) {
+			return result;
+		}
+		result = Collections.unmodifiableSet(new HashSet<Class<?>>(
+				getDeclaringClasseses(m, Interfaces.INCLUDE)));
+		Set<Class<?>> previous = hierarchies.putIfAbsent(m, result);
+		if (previous != null) {
+			return previous;
+		}
+		return result;
+	}
+	
 	public static boolean isOverriddenFrom(Method m, Class<?> declaringClass){
-		return getDeclaringClasseses(m, Interfaces.INCLUDE).contains(declaringClass);
+		return getOverrideHierarchy(m).contains(declaringClass);
 	}
 	
 	public static boolean isOverriddenFromAny(Method m, List<Class<?>> declaringClasses){
+		Set<Class<?>> hierarchy = getOverrideHierarchy(m);
 		for (Class<?> declaringClass: declaringClasses){
-			if (isOverriddenFrom(m, declaringClass))
+			if (hierarchy.contains(declaringClass))
 				return true;
 		}
 		return false;
@@ -0,0 +1,210 @@
+package com.github.arachnidium.util.inheritance;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the memoized override resolution: overridden and new methods,
+ * bridge methods, generic parameters and default methods of interfaces.
+ */
+public class MethodInheritanceUtilTest {
+
+	private static interface Searching {
+		Object find(String what);
+	}
+
+	private static interface Switching {
+		void switchToMe();
+	}
+
+	private static abstract class AbstractHandle implements Searching,
+			Switching {
+		@Override
+		public abstract Object find(String what);
+	}
+
+	private static class Window extends AbstractHandle {
+		@Override
+		public String find(String what) {
+			return what;
+		}
+
+		@Override
+		public void switchToMe() {
+		}
+
+		@Override
+		public String toString() {
+			return "window";
+		}
+
+		public void close() {
+		}
+	}
+
+	private static interface Converter<T> {
+		T convert(T value);
+	}
+
+	private static class UpperCase implements Converter<String> {
+		@Override
+		public String convert(String value) {
+			return value.toUpperCase();
+		}
+	}
+
+	// type arguments are resolved only for accessible classes
+	public static abstract class Consumer<T> {
+		public abstract void accept(T value);
+	}
+
+	public static class TextConsumer extends Consumer<String> {
+		@Override
+		public void accept(String value) {
+		}
+
+		public void accept(Integer value) {
+		}
+	}
+
+	private static interface Greeting {
+		default String greet() {
+			return "hello";
+		}
+	}
+
+	private static class Silent implements Greeting {
+	}
+
+	private static class Polite implements Greeting {
+		@Override
+		public String greet() {
+			return "good morning";
+		}
+	}
+
+	private final static List<Class<?>> DONT_REQUIRE_FOCUS = new ArrayList<Class<?>>() {
+		private static final long serialVersionUID = 1L;
+		{
+			add(Object.class);
+			add(Searching.class);
+		}
+	};
+
+	private static Method getBridge(Class<?> clazz, String name) {
+		for (Method m : clazz.getDeclaredMethods()) {
+			if (m.isBridge() && m.getName().equals(name))
+				return m;
+		}
+		throw new AssertionError("There is no bridge " + name + " in "
+				+ clazz.getName());
+	}
+
+	@Test
+	public void overriddenMethodsAreFound() throws Exception {
+		Method find = Window.class.getMethod("find", String.class);
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(find,
+				Searching.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(find,
+				AbstractHandle.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(find,
+				Window.class));
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFrom(find,
+				Switching.class));
+
+		Method toString = Window.class.getMethod("toString");
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(toString,
+				Object.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFromAny(toString,
+				DONT_REQUIRE_FOCUS));
+
+		Method switchToMe = Window.class.getMethod("switchToMe");
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(switchToMe,
+				Switching.class));
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFromAny(
+				switchToMe, DONT_REQUIRE_FOCUS));
+	}
+
+	@Test
+	public void newMethodsAreNotOverridden() throws Exception {
+		Method close = Window.class.getMethod("close");
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(close,
+				Window.class));
+		for (Class<?> c : Arrays.asList(Object.class, Searching.class,
+				Switching.class, AbstractHandle.class)) {
+			Assert.assertFalse(MethodInheritanceUtil.isOverriddenFrom(close, c),
+					c.getName());
+		}
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFromAny(close,
+				DONT_REQUIRE_FOCUS));
+	}
+
+	@Test
+	public void bridgeMethodsAreResolved() throws Exception {
+		Method convert = UpperCase.class.getMethod("convert", String.class);
+		Method bridge = getBridge(UpperCase.class, "convert");
+		Assert.assertNotEquals(convert, bridge);
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(bridge,
+				Converter.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(bridge,
+				UpperCase.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(convert,
+				UpperCase.class));
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFrom(convert,
+				Searching.class));
+	}
+
+	@Test
+	public void genericParametersAreMatched() throws Exception {
+		Method accept = TextConsumer.class.getDeclaredMethod("accept",
+				String.class);
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(accept,
+				Consumer.class));
+
+		Method overload = TextConsumer.class.getDeclaredMethod("accept",
+				Integer.class);
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFrom(overload,
+				Consumer.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(overload,
+				TextConsumer.class));
+	}
+
+	@Test
+	public void defaultMethodsOfInterfacesAreFound() throws Exception {
+		Method inherited = Silent.class.getMethod("greet");
+		Assert.assertEquals(inherited.getDeclaringClass(), Greeting.class);
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(inherited,
+				Greeting.class));
+		Assert.assertFalse(MethodInheritanceUtil.isOverriddenFrom(inherited,
+				Silent.class));
+
+		Method overridden = Polite.class.getMethod("greet");
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(overridden,
+				Greeting.class));
+		Assert.assertTrue(MethodInheritanceUtil.isOverriddenFrom(overridden,
+				Polite.class));
+	}
+
+	@Test
+	public void resolvedHierarchiesAreReused() throws Exception {
+		// Class.getMethod returns a new copy on each call
+		Method find = Window.class.getMethod("find", String.class);
+		Method sameFind = Window.class.getMethod("find", String.class);
+		Assert.assertNotSame(find, sameFind);
+		Assert.assertSame(MethodInheritanceUtil.getOverrideHierarchy(find),
+				MethodInheritanceUtil.getOverrideHierarchy(sameFind));
+
+		Method greet = Polite.class.getMethod("greet");
+		Assert.assertSame(MethodInheritanceUtil.getOverrideHierarchy(greet),
+				MethodInheritanceUtil.getOverrideHierarchy(Polite.class
+						.getMethod("greet")));
+		Assert.assertNotSame(MethodInheritanceUtil.getOverrideHierarchy(greet),
+				MethodInheritanceUtil.getOverrideHierarchy(Silent.class
+						.getMethod("greet")));
+	}
+}